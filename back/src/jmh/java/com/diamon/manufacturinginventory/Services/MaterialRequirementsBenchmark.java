@@ -0,0 +1,106 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsRequest;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsResponse;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import com.diamon.manufacturinginventory.ManufacturinginventoryApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The requirement calculation for a large order book on the real Spring context, so the product and
+ * stock lookups go to a database instead of mocks. Runs on an in-memory H2 database in PostgreSQL
+ * mode loaded with a {@link BenchmarkCatalog}; with {@code -Dbenchmark.jdbc.url} it runs on that
+ * PostgreSQL database instead, in a scratch schema dropped afterwards. H2 caps arrays at 65536
+ * elements, so order books with more distinct products than that only run on PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class MaterialRequirementsBenchmark {
+
+    private static final String SCHEMA = "material_requirements_benchmark";
+    private static final int ORDER_LINES = 100_000;
+
+    @Param({"10000", "60000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private MaterialRequirementsService materialRequirementsService;
+    private MaterialRequirementsRequest request;
+    private boolean postgres;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String baseUrl = System.getProperty("benchmark.jdbc.url");
+        postgres = baseUrl != null;
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ManufacturinginventoryApplication.class)
+                .web(WebApplicationType.NONE);
+        if (postgres) {
+            String url = baseUrl + (baseUrl.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public";
+            context = builder.run(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "root"),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", "root"),
+                    "--spring.flyway.schemas=" + SCHEMA,
+                    "--spring.jpa.properties.hibernate.default_schema=" + SCHEMA,
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN");
+        } else {
+            context = builder.run(
+                    "--spring.datasource.url=jdbc:h2:mem:requirements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.flyway.enabled=false",
+                    "--logging.level.root=WARN");
+        }
+        materialRequirementsService = context.getBean(MaterialRequirementsService.class);
+
+        BenchmarkCatalog catalog = BenchmarkCatalog.generate(products, 42);
+        catalog.insertInto(context.getBean(JdbcTemplate.class));
+
+        Random random = new Random(42);
+        List<ProductionOrderItem> items = new ArrayList<>(ORDER_LINES);
+        for (int n = 0; n < ORDER_LINES; n++) {
+            items.add(new ProductionOrderItem(catalog.products.get(random.nextInt(products)).id(), 1 + random.nextInt(1_000)));
+        }
+        request = new MaterialRequirementsRequest(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (postgres) context.getBean(JdbcTemplate.class).execute("drop schema if exists " + SCHEMA + " cascade");
+        context.close();
+    }
+
+    @Benchmark
+    public MaterialRequirementsResponse calculate() {
+        return materialRequirementsService.calculate(request);
+    }
+}
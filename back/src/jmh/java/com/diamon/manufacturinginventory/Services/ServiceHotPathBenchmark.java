@@ -0,0 +1,174 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeResponse;
+import com.diamon.manufacturinginventory.Entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import com.diamon.manufacturinginventory.ManufacturinginventoryApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service and serialization hot paths on the real Spring context, over an in-memory H2
+ * database in PostgreSQL mode loaded with a {@link BenchmarkCatalog}. The {@code ...AsJson}
+ * benchmarks are the list endpoints minus the HTTP layer. Allocation per call is the
+ * {@code gc.alloc.rate.norm} column of the gc profiler; the SQL statements per call are printed
+ * after every iteration from the Hibernate statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ServiceHotPathBenchmark {
+
+    private static final int RECIPE_LINES = 5;
+
+    @Param({"1000", "10000", "100000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRecipeService productRecipeService;
+    private RawMaterialsServices rawMaterialsServices;
+    private ProductionSuggestionCache suggestionCache;
+    private ObjectMapper objectMapper;
+    private Statistics statistics;
+    private List<ProductRecipeRequest> newProductRecipe;
+    private long createdProducts;
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ManufacturinginventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.flyway.enabled=false",
+                        "--logging.level.root=WARN");
+        productService = context.getBean(ProductService.class);
+        productRecipeService = context.getBean(ProductRecipeService.class);
+        rawMaterialsServices = context.getBean(RawMaterialsServices.class);
+        suggestionCache = context.getBean(ProductionSuggestionCache.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkCatalog catalog = BenchmarkCatalog.generate(products, 42);
+        catalog.insertInto(jdbcTemplate);
+
+        // the materials used by new products never run out, however many iterations JMH runs
+        newProductRecipe = new ArrayList<>();
+        for (int i = 0; i < RECIPE_LINES; i++) {
+            UUID rawMaterialId = catalog.stock.get(i).id();
+            jdbcTemplate.update("update raw_materials set stock_quantity = ? where id = ?", Integer.MAX_VALUE, rawMaterialId);
+            newProductRecipe.add(new ProductRecipeRequest(null, rawMaterialId.toString(), 1));
+        }
+        // the catalog was written behind the services' back
+        suggestionCache.onRequirementsChanged(null);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatistics() {
+        if (operations > 0) {
+            System.out.printf("%n%d operations, %.2f statements/op%n",
+                    operations, (double) statistics.getPrepareStatementCount() / operations);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductProductionSuggestion> productionSuggestionsAfterInvalidation() {
+        operations++;
+        suggestionCache.onRequirementsChanged(null);
+        return productRecipeService.getProductionSuggestions();
+    }
+
+    @Benchmark
+    public List<ProductRecipeResponse> allRecipeDetails() {
+        operations++;
+        return productRecipeService.getAllRecipeDetails().body();
+    }
+
+    @Benchmark
+    public Product createProductWithRecipe() {
+        operations++;
+        long n = createdProducts++;
+        return productService.createProductWithRecipe(
+                new ProductRequest("BENCH%09d".formatted(n), "Benchmark product " + n, new BigDecimal("10.00")),
+                newProductRecipe);
+    }
+
+    @Benchmark
+    public byte[] productListAsJson() throws Exception {
+        operations++;
+        return objectMapper.writeValueAsBytes(productService.findAll());
+    }
+
+    @Benchmark
+    public byte[] rawMaterialListAsJson() throws Exception {
+        operations++;
+        return objectMapper.writeValueAsBytes(rawMaterialsServices.findAll());
+    }
+
+    @Benchmark
+    public byte[] recipeListAsJson() throws Exception {
+        operations++;
+        return objectMapper.writeValueAsBytes(productRecipeService.getAllRecipes());
+    }
+
+    @Benchmark
+    public byte[] recipePageAsJson() throws Exception {
+        operations++;
+        return objectMapper.writeValueAsBytes(productRecipeService.getRecipePage(null, null, null, null, KeysetPagination.MAX_LIMIT));
+    }
+
+    @Benchmark
+    public byte[] recipeDetailsAsJson() throws Exception {
+        operations++;
+        return objectMapper.writeValueAsBytes(productRecipeService.getAllRecipeDetails().body());
+    }
+}
@@ -0,0 +1,88 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Repository.CatalogVersionRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Production suggestions computed on in-memory catalogs, without a database: a cold computation
+ * (explosion of every recipe tree and the ranked view built from scratch) and the incremental path
+ * taken when one raw material's stock changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SuggestionComputationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int products;
+
+    private ProductRepository productRepository;
+    private RawMaterialsRepository rawMaterialsRepository;
+    private ProductRecipeRepository productRecipeRepository;
+    private CatalogVersions catalogVersions;
+    private ProductionSuggestionCache warmCache;
+    private RawMaterialChangedEvent[] stockChanges;
+    private int nextChange;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkCatalog catalog = BenchmarkCatalog.generate(products, 42);
+        productRepository = BenchmarkCatalog.repository(ProductRepository.class,
+                Map.of("findAllSummariesWithRecipes", catalog.products));
+        rawMaterialsRepository = BenchmarkCatalog.repository(RawMaterialsRepository.class,
+                Map.of("findAllStock", catalog.stock));
+        productRecipeRepository = BenchmarkCatalog.repository(ProductRecipeRepository.class,
+                Map.of("findAllBillOfMaterialLines", catalog.lines));
+        catalogVersions = new CatalogVersions(BenchmarkCatalog.repository(CatalogVersionRepository.class,
+                Map.of("findAll", List.of())), null);
+
+        warmCache = new ProductionSuggestionCache(new BillOfMaterialsExplosion(productRecipeRepository, catalogVersions),
+                productRepository, rawMaterialsRepository, catalogVersions);
+        warmCache.getSuggestions();
+
+        Random random = new Random(7);
+        stockChanges = new RawMaterialChangedEvent[1024];
+        for (int i = 0; i < stockChanges.length; i++) {
+            RawMaterialStock material = catalog.stock.get(random.nextInt(catalog.stock.size()));
+            stockChanges[i] = new RawMaterialChangedEvent(material.id(), "RM", "Material", random.nextInt(1_000_000));
+        }
+    }
+
+    @Benchmark
+    public List<ProductProductionSuggestion> coldComputation() {
+        ProductionSuggestionCache cache = new ProductionSuggestionCache(new BillOfMaterialsExplosion(productRecipeRepository, catalogVersions),
+                productRepository, rawMaterialsRepository, catalogVersions);
+        return cache.getSuggestions();
+    }
+
+    @Benchmark
+    public List<ProductProductionSuggestion> stockChangeThenRead() {
+        warmCache.onRawMaterialChanged(stockChanges[nextChange++ & (stockChanges.length - 1)]);
+        return warmCache.getSuggestions();
+    }
+}
@@ -0,0 +1,110 @@
+package com.diamon.manufacturinginventory.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An open-model load generator: requests are started on a fixed schedule of {@code rate} per
+ * second, whether or not the earlier ones have returned, as real clients do. A closed loop of
+ * workers would slow down with the server and hide its queueing.
+ * <p>
+ * Every request runs on a virtual thread, and its latency is measured from the time it was
+ * scheduled, not the time it was sent, so a generator that falls behind still counts the delay
+ * (no coordinated omission). A request that would go over {@code maxInFlight} concurrent requests
+ * is not sent and counts as an error with the time already waited.
+ */
+final class ArrivalRateGenerator {
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final List<UUID> productIds;
+    private final Endpoint[] schedule;
+    private final double rate;
+    private final Duration timeout;
+    private final int maxInFlight;
+
+    ArrivalRateGenerator(HttpClient client, URI baseUrl, List<UUID> productIds, LoadTestSettings settings) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.productIds = productIds;
+        this.schedule = weightedSchedule(settings.mix());
+        this.rate = settings.rate();
+        this.timeout = settings.timeout();
+        this.maxInFlight = settings.maxInFlight();
+    }
+
+    /**
+     * Drives the endpoints for {@code duration} and waits for the requests still in flight.
+     */
+    Map<Endpoint, EndpointStats> run(Duration duration, SplittableRandom random) {
+        Map<Endpoint, EndpointStats> results = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : schedule) {
+            results.computeIfAbsent(endpoint, e -> new EndpointStats());
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long interval = Math.max(1, Math.round(1_000_000_000 / rate));
+        long requests = duration.toNanos() / interval;
+        long start = System.nanoTime();
+        try (ExecutorService requesters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduled = start + i * interval;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                HttpRequest request = endpoint.build(baseUrl, productIds, random, timeout);
+                EndpointStats stats = results.get(endpoint);
+                if (!inFlight.tryAcquire()) {
+                    stats.record(System.nanoTime() - scheduled, false);
+                    continue;
+                }
+                requesters.execute(() -> {
+                    try {
+                        stats.record(System.nanoTime() - scheduled, send(request));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return results;
+    }
+
+    private boolean send(HttpRequest request) {
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // one slot per unit of weight, so picking an endpoint is one random index
+    private static Endpoint[] weightedSchedule(Map<Endpoint, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Endpoint[] schedule = new Endpoint[total];
+        int slot = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[slot++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,63 @@
+package com.diamon.manufacturinginventory.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * The endpoints the load test drives, named as in the {@code loadtest.mix} setting.
+ */
+enum Endpoint {
+
+    PRODUCTS("products") {
+        @Override
+        HttpRequest.Builder request(URI baseUrl, List<UUID> productIds, SplittableRandom random) {
+            return HttpRequest.newBuilder(baseUrl.resolve("/api/products")).GET();
+        }
+    },
+    RAW_MATERIALS("raw-materials") {
+        @Override
+        HttpRequest.Builder request(URI baseUrl, List<UUID> productIds, SplittableRandom random) {
+            return HttpRequest.newBuilder(baseUrl.resolve("/api/raw-materials")).GET();
+        }
+    },
+    PRODUCTION_SUGGESTIONS("production-suggestions") {
+        @Override
+        HttpRequest.Builder request(URI baseUrl, List<UUID> productIds, SplittableRandom random) {
+            return HttpRequest.newBuilder(baseUrl.resolve("/product-recipes/production-suggestions")).GET();
+        }
+    },
+    // consumes stock for one unit of a random product
+    PRODUCTION_ORDERS("production-orders") {
+        @Override
+        HttpRequest.Builder request(URI baseUrl, List<UUID> productIds, SplittableRandom random) {
+            UUID productId = productIds.get(random.nextInt(productIds.size()));
+            String body = "{\"items\":[{\"productId\":\"" + productId + "\",\"quantity\":1}]}";
+            return HttpRequest.newBuilder(baseUrl.resolve("/api/production-orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    abstract HttpRequest.Builder request(URI baseUrl, List<UUID> productIds, SplittableRandom random);
+
+    HttpRequest build(URI baseUrl, List<UUID> productIds, SplittableRandom random, Duration timeout) {
+        return request(baseUrl, productIds, random).timeout(timeout).build();
+    }
+
+    static Endpoint fromLabel(String label) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.label.equals(label)) return endpoint;
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + label);
+    }
+}
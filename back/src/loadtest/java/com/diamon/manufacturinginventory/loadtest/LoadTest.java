@@ -0,0 +1,140 @@
+package com.diamon.manufacturinginventory.loadtest;
+
+import com.diamon.manufacturinginventory.ManufacturinginventoryApplication;
+import com.diamon.manufacturinginventory.Services.BenchmarkCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Repeatable load test of the REST API: {@code mvn -Ploadtest verify}.
+ * <p>
+ * Unless {@code loadtest.base-url} points at a running server, the application is started on a
+ * random port over an in-memory H2 database in PostgreSQL mode, seeded from a fixed seed. The
+ * configured endpoint mix is then driven at a constant arrival rate, first for the warmup, whose
+ * results are dropped, and then for the measured duration. The p50, p99 and p999 latencies and the
+ * throughput of each endpoint are printed and written to {@code target/loadtest-result.json}, and
+ * the run exits with status 1 when any SLO is missed, which fails the build.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ConfigurableApplicationContext context = settings.baseUrl().isEmpty() ? startApplication(settings) : null;
+        List<String> violations;
+        try {
+            URI baseUrl = URI.create(context == null ? settings.baseUrl()
+                    : "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            List<UUID> productIds = productIds(client, baseUrl);
+            ArrivalRateGenerator generator = new ArrivalRateGenerator(client, baseUrl, productIds, settings);
+            SplittableRandom random = new SplittableRandom(settings.seed());
+
+            System.out.printf("Warming up %s for %s at %.0f requests/s%n", baseUrl, settings.warmup(), settings.rate());
+            generator.run(settings.warmup(), random);
+            System.out.printf("Measuring for %s%n", settings.duration());
+            Map<Endpoint, EndpointStats> results = generator.run(settings.duration(), random);
+
+            violations = settings.slo().violations(results);
+            report(settings, results, violations);
+        } finally {
+            if (context != null) context.close();
+        }
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestSettings settings) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ManufacturinginventoryApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--logging.level.root=WARN");
+        // written before the first request, so the in-memory views load it on first use; the stock
+        // is large enough that production orders never run out during a run
+        BenchmarkCatalog.generate(settings.products(), settings.seed())
+                .withStock(Integer.MAX_VALUE / 2)
+                .insertInto(context.getBean(JdbcTemplate.class));
+        return context;
+    }
+
+    private static List<UUID> productIds(HttpClient client, URI baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUrl.resolve("/api/products")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not list the products: HTTP " + response.statusCode());
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (JsonNode product : new ObjectMapper().readTree(response.body())) {
+            ids.add(UUID.fromString(product.get("id").asText()));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The server has no products to place production orders for");
+        }
+        return ids;
+    }
+
+    private static void report(LoadTestSettings settings, Map<Endpoint, EndpointStats> results,
+                               List<String> violations) throws IOException {
+        double seconds = settings.duration().toNanos() / 1e9;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-24s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats> result : results.entrySet()) {
+            EndpointStats stats = result.getValue();
+            System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    result.getKey().label, stats.count(), stats.errors(), stats.count() / seconds,
+                    stats.percentileMillis(50), stats.percentileMillis(99), stats.percentileMillis(99.9), stats.maxMillis());
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", stats.count());
+            summary.put("errors", stats.errors());
+            summary.put("throughput", stats.count() / seconds);
+            summary.put("p50", stats.percentileMillis(50));
+            summary.put("p99", stats.percentileMillis(99));
+            summary.put("p999", stats.percentileMillis(99.9));
+            summary.put("max", stats.maxMillis());
+            endpoints.put(result.getKey().label, summary);
+        }
+        System.out.println(violations.isEmpty() ? "\nAll SLOs met" : "\nSLOs missed:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("rate", settings.rate());
+        document.put("duration", settings.duration().toString());
+        document.put("endpoints", endpoints);
+        document.put("violations", violations);
+        Files.createDirectories(settings.result().toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(settings.result().toFile(), document);
+    }
+}
@@ -0,0 +1,68 @@
+package com.diamon.manufacturinginventory.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The run settings, read from {@code loadtest.*} system properties. The Maven profile forwards
+ * each of them, so they can be overridden on the command line, e.g.
+ * {@code mvn -Ploadtest verify -Dloadtest.rate=500 -Dloadtest.slo=p99=100,error-rate=0}.
+ *
+ * @param baseUrl  a running server to drive; when blank the application is started on an embedded
+ *                 H2 database seeded with {@code products} products
+ * @param rate     requests started per second, whatever the response times
+ * @param mix      the relative weight of each endpoint, as {@code products:30,production-orders:10}
+ * @param slo      the thresholds that fail the run, see {@link Slo#parse}
+ */
+record LoadTestSettings(
+        String baseUrl,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Duration timeout,
+        int maxInFlight,
+        Map<Endpoint, Integer> mix,
+        Slo slo,
+        int products,
+        long seed,
+        Path result
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.base-url", "").strip(),
+                Double.parseDouble(System.getProperty("loadtest.rate", "100")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.parse(System.getProperty("loadtest.timeout", "PT30S")),
+                Integer.parseInt(System.getProperty("loadtest.max-in-flight", "10000")),
+                parseMix(System.getProperty("loadtest.mix",
+                        "products:30,raw-materials:30,production-suggestions:25,production-orders:15")),
+                Slo.parse(System.getProperty("loadtest.slo", "")),
+                Integer.parseInt(System.getProperty("loadtest.products", "2000")),
+                Long.parseLong(System.getProperty("loadtest.seed", "42")),
+                Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json")));
+    }
+
+    static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.strip().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry, expected endpoint:weight: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].strip());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative: " + entry);
+            }
+            if (weight > 0) mix.put(Endpoint.fromLabel(parts[0].strip()), weight);
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return mix;
+    }
+}
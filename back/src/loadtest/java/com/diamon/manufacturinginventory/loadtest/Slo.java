@@ -0,0 +1,80 @@
+package com.diamon.manufacturinginventory.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The service level objectives a run is checked against.
+ * <p>
+ * Parsed from a comma separated list of {@code [endpoint.]percentile=milliseconds} latency limits,
+ * with {@code p50}, {@code p99} and {@code p999} as percentiles, and an optional
+ * {@code error-rate=fraction}. A limit without an endpoint applies to every endpoint, and an
+ * endpoint limit replaces it: {@code p99=250,production-suggestions.p99=1000,error-rate=0.01}.
+ */
+record Slo(List<LatencyLimit> latencyLimits, double maxErrorRate) {
+
+    record LatencyLimit(Endpoint endpoint, double percentile, String label, double millis) {
+    }
+
+    static Slo parse(String value) {
+        List<LatencyLimit> limits = new ArrayList<>();
+        double maxErrorRate = 1;
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.strip().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid SLO entry, expected key=value: " + entry);
+            }
+            String key = parts[0].strip();
+            double limit = Double.parseDouble(parts[1].strip());
+            if (key.equals("error-rate")) {
+                maxErrorRate = limit;
+                continue;
+            }
+            int dot = key.lastIndexOf('.');
+            Endpoint endpoint = dot < 0 ? null : Endpoint.fromLabel(key.substring(0, dot));
+            String percentile = key.substring(dot + 1);
+            limits.add(new LatencyLimit(endpoint, percentile(percentile), percentile, limit));
+        }
+        return new Slo(List.copyOf(limits), maxErrorRate);
+    }
+
+    /**
+     * The objectives the results miss, one message each; empty when the run passes.
+     */
+    List<String> violations(Map<Endpoint, EndpointStats> results) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<Endpoint, EndpointStats> result : results.entrySet()) {
+            Endpoint endpoint = result.getKey();
+            EndpointStats stats = result.getValue();
+            for (LatencyLimit limit : latencyLimits) {
+                if (!appliesTo(limit, endpoint)) continue;
+                double actual = stats.percentileMillis(limit.percentile());
+                if (actual > limit.millis()) {
+                    violations.add("%s %s %.1f ms > %.1f ms".formatted(endpoint.label, limit.label(), actual, limit.millis()));
+                }
+            }
+            if (stats.errorRate() > maxErrorRate) {
+                violations.add("%s error rate %.4f > %.4f".formatted(endpoint.label, stats.errorRate(), maxErrorRate));
+            }
+        }
+        return violations;
+    }
+
+    private boolean appliesTo(LatencyLimit limit, Endpoint endpoint) {
+        if (limit.endpoint() != null) return limit.endpoint() == endpoint;
+        // a limit for this endpoint and percentile replaces the one for every endpoint
+        return latencyLimits.stream().noneMatch(other -> other.endpoint() == endpoint
+                && other.percentile() == limit.percentile());
+    }
+
+    private static double percentile(String name) {
+        return switch (name) {
+            case "p50" -> 50.0;
+            case "p99" -> 99.0;
+            case "p999" -> 99.9;
+            default -> throw new IllegalArgumentException("Unknown percentile, expected p50, p99 or p999: " + name);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.diamon.manufacturinginventory.Controller;
+
+import com.diamon.manufacturinginventory.Services.ExportFormat;
+import com.diamon.manufacturinginventory.Services.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Exportação", description = "Exportação completa em streaming, em NDJSON ou CSV")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+
+    @Operation(summary = "Exportar produtos", description = "Envia todos os produtos em streaming, ordenados por código. Formatos: ndjson (padrão) ou csv.")
+    @GetMapping("/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return stream("products", exportFormat, out -> exportService.exportProducts(exportFormat, out));
+    }
+
+
+    @Operation(summary = "Exportar matérias-primas", description = "Envia todas as matérias-primas em streaming, ordenadas por código. Formatos: ndjson (padrão) ou csv.")
+    @GetMapping("/raw-materials")
+    public ResponseEntity<StreamingResponseBody> exportRawMaterials(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return stream("raw-materials", exportFormat, out -> exportService.exportRawMaterials(exportFormat, out));
+    }
+
+
+    @Operation(summary = "Exportar receitas", description = "Envia todas as linhas de receita em streaming, com o produto e a matéria-prima ou componente de cada linha. Formatos: ndjson (padrão) ou csv.")
+    @GetMapping("/recipes")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return stream("recipes", exportFormat, out -> exportService.exportRecipes(exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.extension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,61 @@
+package com.diamon.manufacturinginventory.Controller;
+
+import com.diamon.manufacturinginventory.DTOs.Import.ImportReport;
+import com.diamon.manufacturinginventory.Services.BulkImportService;
+import com.diamon.manufacturinginventory.Services.ImportFormat;
+import com.diamon.manufacturinginventory.Services.ImportMode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+@Tag(name = "Importação", description = "Importação em lote de matérias-primas, produtos e receitas a partir de CSV ou JSON")
+public class ImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public ImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+
+    @Operation(summary = "Importar matérias-primas", description = "Recebe um CSV (cabeçalho code,name,stockQuantity) ou um array JSON de matérias-primas. Com mode=upsert, códigos existentes são atualizados. Retorna um relatório com os erros por linha.")
+    @PostMapping(value = "/raw-materials", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<ImportReport> importRawMaterials(InputStream body,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           @RequestParam(defaultValue = "insert") String mode) throws IOException {
+        ImportReport report = bulkImportService.importRawMaterials(
+                ImportFormat.fromContentType(contentType), ImportMode.fromParameter(mode), body);
+        return ResponseEntity.ok(report);
+    }
+
+
+    @Operation(summary = "Importar produtos", description = "Recebe um CSV (cabeçalho code,name,price) ou um array JSON de produtos. Com mode=upsert, códigos existentes são atualizados. Retorna um relatório com os erros por linha.")
+    @PostMapping(value = "/products", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<ImportReport> importProducts(InputStream body,
+                                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       @RequestParam(defaultValue = "insert") String mode) throws IOException {
+        ImportReport report = bulkImportService.importProducts(
+                ImportFormat.fromContentType(contentType), ImportMode.fromParameter(mode), body);
+        return ResponseEntity.ok(report);
+    }
+
+
+    @Operation(summary = "Importar receitas", description = "Recebe um CSV (cabeçalho productCode,rawMaterialCode,componentProductCode,quantity) ou um array JSON de linhas de receita, referenciando produtos e matérias-primas pelo código. Retorna um relatório com os erros por linha.")
+    @PostMapping(value = "/recipes", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<ImportReport> importRecipes(InputStream body,
+                                                      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        ImportReport report = bulkImportService.importRecipes(ImportFormat.fromContentType(contentType), body);
+        return ResponseEntity.ok(report);
+    }
+}
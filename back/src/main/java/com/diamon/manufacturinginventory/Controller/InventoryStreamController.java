@@ -0,0 +1,29 @@
+package com.diamon.manufacturinginventory.Controller;
+
+import com.diamon.manufacturinginventory.Services.InventoryChangeStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/inventory")
+@Tag(name = "Eventos de estoque", description = "Notificações em tempo real das alterações de estoque e de catálogo")
+public class InventoryStreamController {
+
+    private final InventoryChangeStream inventoryChangeStream;
+
+    public InventoryStreamController(InventoryChangeStream inventoryChangeStream) {
+        this.inventoryChangeStream = inventoryChangeStream;
+    }
+
+
+    @Operation(summary = "Acompanhar alterações do estoque", description = "Abre um fluxo Server-Sent Events com as alterações confirmadas: raw-material-changed, raw-material-deleted, product-changed, product-deleted, recipe-changed, low-stock e stock-replenished. Cada evento traz o ID e apenas os campos alterados. Um cliente que fica para trás recebe um evento resync e deve recarregar as listas.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return inventoryChangeStream.subscribe();
+    }
+}
@@ -0,0 +1,32 @@
+package com.diamon.manufacturinginventory.Controller;
+
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsRequest;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsResponse;
+import com.diamon.manufacturinginventory.Services.MaterialRequirementsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/material-requirements")
+@Tag(name = "Necessidades de materiais", description = "Cálculo das matérias-primas a comprar para atender quantidades de produção")
+public class MaterialRequirementsController {
+
+    private final MaterialRequirementsService materialRequirementsService;
+
+    public MaterialRequirementsController(MaterialRequirementsService materialRequirementsService) {
+        this.materialRequirementsService = materialRequirementsService;
+    }
+
+
+    @Operation(summary = "Calcular necessidades de materiais", description = "Soma as matérias-primas necessárias para produzir as quantidades informadas, incluindo as dos subconjuntos, e retorna para cada uma o total necessário, o estoque atual e quanto falta comprar, com as maiores faltas primeiro. Nenhum estoque é consumido.")
+    @PostMapping
+    public ResponseEntity<MaterialRequirementsResponse> calculate(@Valid @RequestBody MaterialRequirementsRequest request) {
+        return ResponseEntity.ok(materialRequirementsService.calculate(request));
+    }
+}
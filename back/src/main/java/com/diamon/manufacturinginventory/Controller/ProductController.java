@@ -1,14 +1,21 @@
 package com.diamon.manufacturinginventory.Controller;
 
 
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
 import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
 import com.diamon.manufacturinginventory.DTOs.Product.ProductWithRecipesRequest;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.Product;
+import com.diamon.manufacturinginventory.Mapper.ProductMapper;
+import com.diamon.manufacturinginventory.Services.CatalogVersions;
 import com.diamon.manufacturinginventory.Services.ProductService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
@@ -22,25 +29,43 @@ public class ProductController {
 
 
     private ProductService productService;
+    private final CatalogVersions catalogVersions;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogVersions catalogVersions) {
         this.productService = productService;
+        this.catalogVersions = catalogVersions;
     }
 
 
     @Operation(summary = "Criar produto com receita", description = "Cria um novo produto e suas receitas associadas.")
     @PostMapping
-    public ResponseEntity<Product> createProductWithRecipe(@Valid @RequestBody ProductWithRecipesRequest request) {
+    public ResponseEntity<ProductResponse> createProductWithRecipe(@Valid @RequestBody ProductWithRecipesRequest request) {
         Product createdProduct = productService.createProductWithRecipe(request.productRequest(), request.recipeRequests());
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProductMapper.toResponse(createdProduct));
     }
 
 
-    @Operation(summary = "Listar todos os produtos", description = "Retorna todos os produtos cadastrados.")
+    @Operation(summary = "Listar todos os produtos", description = "Retorna todos os produtos cadastrados. Responde 304 sem corpo quando o If-None-Match corresponde ao ETag atual.")
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.findAll();
-        return ResponseEntity.ok().body(products);
+    public ResponseEntity<List<ProductResponse>> getAllProducts(WebRequest request) {
+        String etag = catalogVersions.etag(CatalogAggregate.PRODUCTS);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(etag).build();
+        }
+        List<ProductResponse> products = productService.findAll();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(products);
+    }
+
+
+    @Operation(summary = "Listar produtos paginados", description = "Retorna uma página de produtos ordenada por código, nome, preço ou ID, com filtro por prefixo de código e por nome. Use o nextCursor retornado para buscar a próxima página.")
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ProductResponse>> getProductPage(@RequestParam(required = false) String code,
+                                                                      @RequestParam(required = false) String name,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam(required = false) String direction,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.findPage(code, name, sort, direction, cursor, limit));
     }
 
 
@@ -1,12 +1,27 @@
 package com.diamon.manufacturinginventory.Controller;
 
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeDetailsResponse;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeResponse;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionPlanResponse;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionSuggestionCacheStats;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationRequest;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationResult;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.ProductRecipes;
+import com.diamon.manufacturinginventory.Mapper.ProductRecipeMapper;
+import com.diamon.manufacturinginventory.Services.CatalogVersions;
 import com.diamon.manufacturinginventory.Services.ProductRecipeService;
+import com.diamon.manufacturinginventory.Services.ProductionPlanService;
+import com.diamon.manufacturinginventory.Services.ProductionSimulationService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,49 +35,87 @@ import java.util.UUID;
 public class ProductRecipeController {
 
     private final ProductRecipeService productRecipeService;
-
-    public ProductRecipeController(ProductRecipeService productRecipeService) {
+    private final ProductionPlanService productionPlanService;
+    private final ProductionSimulationService productionSimulationService;
+    private final CatalogVersions catalogVersions;
+
+    public ProductRecipeController(ProductRecipeService productRecipeService,
+                                   ProductionPlanService productionPlanService,
+                                   ProductionSimulationService productionSimulationService,
+                                   CatalogVersions catalogVersions) {
         this.productRecipeService = productRecipeService;
+        this.productionPlanService = productionPlanService;
+        this.productionSimulationService = productionSimulationService;
+        this.catalogVersions = catalogVersions;
     }
 
 
     @Operation(summary = "Criar receita de produto", description = "Cria uma nova receita para um produto.")
     @PostMapping
-    public ResponseEntity<ProductRecipes> createRecipe(@Valid @RequestBody ProductRecipeRequest request) {
+    public ResponseEntity<RecipeResponse> createRecipe(@Valid @RequestBody ProductRecipeRequest request) {
         ProductRecipes recipe = productRecipeService.createRecipe(request);
-        return ResponseEntity.ok(recipe);
+        return ResponseEntity.ok(ProductRecipeMapper.toResponse(recipe));
     }
 
 
     @Operation(summary = "Buscar receita por ID", description = "Retorna uma receita específica pelo ID.")
     @GetMapping("/{id}")
-    public ResponseEntity<ProductRecipes> getRecipeById(@PathVariable UUID id) {
-        ProductRecipes recipe = productRecipeService.getRecipeById(id);
+    public ResponseEntity<RecipeResponse> getRecipeById(@PathVariable UUID id) {
+        RecipeResponse recipe = productRecipeService.getRecipeById(id);
         return ResponseEntity.ok(recipe);
     }
 
 
     @Operation(summary = "Listar todas as receitas", description = "Retorna todas as receitas de produtos cadastradas.")
     @GetMapping
-    public ResponseEntity<List<ProductRecipes>> getAllRecipes() {
-        List<ProductRecipes> recipes = productRecipeService.getAllRecipes();
+    public ResponseEntity<List<RecipeResponse>> getAllRecipes() {
+        List<RecipeResponse> recipes = productRecipeService.getAllRecipes();
         return ResponseEntity.ok(recipes);
     }
 
 
+    @Operation(summary = "Listar receitas paginadas", description = "Retorna uma página de receitas ordenada por ID, com filtro por produto e por matéria-prima. Use o nextCursor retornado para buscar a próxima página.")
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<RecipeResponse>> getRecipePage(@RequestParam(required = false) UUID productId,
+                                                                    @RequestParam(required = false) UUID rawMaterialId,
+                                                                    @RequestParam(required = false) String direction,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productRecipeService.getRecipePage(productId, rawMaterialId, direction, cursor, limit));
+    }
+
+
     @Operation(summary = "Atualizar receita de produto", description = "Atualiza uma receita de produto existente.")
     @PutMapping("/{id}")
-    public ResponseEntity<ProductRecipes> updateRecipe(@PathVariable UUID id, @Valid @RequestBody ProductRecipeRequest request) {
+    public ResponseEntity<RecipeResponse> updateRecipe(@PathVariable UUID id, @Valid @RequestBody ProductRecipeRequest request) {
         ProductRecipes updated = productRecipeService.updateRecipe(id, request);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(ProductRecipeMapper.toResponse(updated));
     }
 
 
-    @Operation(summary = "Listar detalhes das receitas", description = "Retorna detalhes de todas as receitas de produtos.")
+    @Operation(summary = "Listar detalhes das receitas", description = "Retorna detalhes de todas as receitas de produtos. Responde 304 sem corpo quando o If-None-Match corresponde ao ETag atual.")
     @GetMapping("/details")
-    public ResponseEntity<List<ProductRecipeResponse>> getAllRecipeDetails() {
-        List<ProductRecipeResponse> details = productRecipeService.getAllRecipeDetails();
-        return ResponseEntity.ok(details);
+    public ResponseEntity<List<ProductRecipeResponse>> getAllRecipeDetails(WebRequest request) {
+        String etag = catalogVersions.etag(CatalogAggregate.RECIPES);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(etag).build();
+        }
+        // built in its own snapshot, which may already be newer than the version checked above
+        CatalogVersions.Versioned<List<ProductRecipeResponse>> details = productRecipeService.getAllRecipeDetails();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(details.etag()).body(details.body());
+    }
+
+
+    @Operation(summary = "Listar detalhes das receitas por produto", description = "Retorna uma entrada por produto com todas as matérias-primas necessárias, incluindo as dos subconjuntos, com as quantidades somadas. Responde 304 sem corpo quando o If-None-Match corresponde ao ETag atual.")
+    @GetMapping("/details/by-product")
+    public ResponseEntity<List<ProductRecipeDetailsResponse>> getRecipeDetailsByProduct(WebRequest request) {
+        String etag = catalogVersions.etag(CatalogAggregate.RECIPES);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(etag).build();
+        }
+        // built in its own snapshot, which may already be newer than the version checked above
+        CatalogVersions.Versioned<List<ProductRecipeDetailsResponse>> details = productRecipeService.getRecipeDetailsByProduct();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(details.etag()).body(details.body());
     }
 
 
@@ -72,4 +125,25 @@ public class ProductRecipeController {
         List<ProductProductionSuggestion> suggestions = productRecipeService.getProductionSuggestions();
         return ResponseEntity.ok(suggestions);
     }
+
+
+    @Operation(summary = "Estatísticas do cache de sugestões", description = "Retorna os contadores de acertos e recálculos do cache de sugestões de produção.")
+    @GetMapping("/production-suggestions/stats")
+    public ResponseEntity<ProductionSuggestionCacheStats> getProductionSuggestionStats() {
+        return ResponseEntity.ok(productRecipeService.getProductionSuggestionStats());
+    }
+
+
+    @Operation(summary = "Plano de produção otimizado", description = "Calcula as quantidades de cada produto que maximizam o valor total sem ultrapassar o estoque compartilhado de matérias-primas.")
+    @GetMapping("/production-plan")
+    public ResponseEntity<ProductionPlanResponse> getProductionPlan(@RequestParam(required = false) Long timeBudgetMs) {
+        return ResponseEntity.ok(productionPlanService.getProductionPlan(timeBudgetMs));
+    }
+
+
+    @Operation(summary = "Simular cenários de produção", description = "Calcula as sugestões de produção de cada cenário, com variações de estoque e alterações de receita aplicadas sobre uma cópia do inventário atual. Nenhum dado é alterado.")
+    @PostMapping("/simulate")
+    public ResponseEntity<List<SimulationResult>> simulate(@Valid @RequestBody SimulationRequest request) {
+        return ResponseEntity.ok(productionSimulationService.simulate(request));
+    }
 }
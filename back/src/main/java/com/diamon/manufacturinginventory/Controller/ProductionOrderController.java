@@ -0,0 +1,33 @@
+package com.diamon.manufacturinginventory.Controller;
+
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderRequest;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderResponse;
+import com.diamon.manufacturinginventory.Services.ProductionOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/production-orders")
+@Tag(name = "Ordens de produção", description = "Consumo de estoque para produzir produtos existentes")
+public class ProductionOrderController {
+
+    private final ProductionOrderService productionOrderService;
+
+    public ProductionOrderController(ProductionOrderService productionOrderService) {
+        this.productionOrderService = productionOrderService;
+    }
+
+
+    @Operation(summary = "Criar ordem de produção", description = "Consome as matérias-primas necessárias para produzir a quantidade informada de cada produto, incluindo as de seus subconjuntos, em uma única transação. Se faltar estoque de qualquer matéria-prima nada é consumido e a resposta lista as que faltaram.")
+    @PostMapping
+    public ResponseEntity<ProductionOrderResponse> createProductionOrder(@Valid @RequestBody ProductionOrderRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(productionOrderService.produce(request));
+    }
+}
@@ -1,16 +1,29 @@
 package com.diamon.manufacturinginventory.Controller;
 
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
 import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialsRequest;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockLevelResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockMovementResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.WhereUsedResponse;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Mapper.RawMaterialsMapper;
+import com.diamon.manufacturinginventory.Services.CatalogVersions;
+import com.diamon.manufacturinginventory.Services.LowStockMonitor;
 import com.diamon.manufacturinginventory.Services.RawMaterialsServices;
+import com.diamon.manufacturinginventory.Services.StockLedgerService;
 import jakarta.validation.Valid;
 import org.springframework.boot.autoconfigure.graphql.GraphQlProperties;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,34 +33,90 @@ import java.util.UUID;
 public class RawMaterialsController {
 
     private final RawMaterialsServices rawMaterialsServices;
+    private final StockLedgerService stockLedgerService;
+    private final CatalogVersions catalogVersions;
+    private final LowStockMonitor lowStockMonitor;
 
-    public RawMaterialsController(RawMaterialsServices rawMaterialsServices) {
+    public RawMaterialsController(RawMaterialsServices rawMaterialsServices, StockLedgerService stockLedgerService,
+                                  CatalogVersions catalogVersions, LowStockMonitor lowStockMonitor) {
         this.rawMaterialsServices = rawMaterialsServices;
+        this.stockLedgerService = stockLedgerService;
+        this.catalogVersions = catalogVersions;
+        this.lowStockMonitor = lowStockMonitor;
     }
 
 
 
-    @Operation(summary = "Listar todas as matérias-primas", description = "Retorna todas as matérias-primas cadastradas.")
+    @Operation(summary = "Listar todas as matérias-primas", description = "Retorna todas as matérias-primas cadastradas. Responde 304 sem corpo quando o If-None-Match corresponde ao ETag atual.")
     @GetMapping
-    public ResponseEntity<List<RawMaterials>> getAllRawMaterials() {
-        List<RawMaterials> materials = rawMaterialsServices.findAll();
-        return ResponseEntity.ok(materials);
+    public ResponseEntity<List<RawMaterialResponse>> getAllRawMaterials(WebRequest request) {
+        String etag = catalogVersions.etag(CatalogAggregate.RAW_MATERIALS);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(etag).build();
+        }
+        List<RawMaterialResponse> materials = rawMaterialsServices.findAll();
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(materials);
+    }
+
+
+    @Operation(summary = "Listar matérias-primas paginadas", description = "Retorna uma página de matérias-primas ordenada por código, nome, estoque ou ID, com filtro por prefixo de código, por nome e por estoque abaixo de um limite. Use o nextCursor retornado para buscar a próxima página.")
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<RawMaterialResponse>> getRawMaterialPage(@RequestParam(required = false) String code,
+                                                                              @RequestParam(required = false) String name,
+                                                                              @RequestParam(required = false) Integer stockBelow,
+                                                                              @RequestParam(required = false) String sort,
+                                                                              @RequestParam(required = false) String direction,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(rawMaterialsServices.findPage(code, name, stockBelow, sort, direction, cursor, limit));
+    }
+
+
+    @Operation(summary = "Listar matérias-primas com estoque baixo", description = "Retorna as matérias-primas cujo estoque está abaixo do ponto de reposição, mantidas em memória a cada movimentação de estoque. Uma matéria-prima só sai da lista quando o estoque volta ao ponto de reposição mais a margem de histerese.")
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<RawMaterialResponse>> getLowStock() {
+        return ResponseEntity.ok(lowStockMonitor.getLowStock());
     }
 
 
     @Operation(summary = "Criar matéria-prima", description = "Cria uma nova matéria-prima.")
     @PostMapping
-    public ResponseEntity<RawMaterials> createRawMaterial(@Valid @RequestBody RawMaterialsRequest rawMaterials) {
+    public ResponseEntity<RawMaterialResponse> createRawMaterial(@Valid @RequestBody RawMaterialsRequest rawMaterials) {
         RawMaterials createdRawMaterial = rawMaterialsServices.save(rawMaterials);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdRawMaterial);
+        return ResponseEntity.status(HttpStatus.CREATED).body(RawMaterialsMapper.toResponse(createdRawMaterial));
     }
 
 
     @Operation(summary = "Buscar matéria-prima por ID", description = "Retorna uma matéria-prima específica pelo ID.")
     @GetMapping("/{id}")
-    public ResponseEntity<RawMaterials> getRawMaterialById(@PathVariable String id) {
+    public ResponseEntity<RawMaterialResponse> getRawMaterialById(@PathVariable String id) {
         RawMaterials rawMaterial = rawMaterialsServices.findById(UUID.fromString(id));
-        return ResponseEntity.ok().body(rawMaterial);
+        return ResponseEntity.ok().body(RawMaterialsMapper.toResponse(rawMaterial));
+    }
+
+
+    @Operation(summary = "Consultar estoque em uma data", description = "Retorna o estoque de uma matéria-prima no instante informado (ISO-8601, ex.: 2026-03-01T12:00:00Z), calculado a partir do snapshot mais próximo e das movimentações seguintes. Sem asOf, retorna o estoque atual.")
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockLevelResponse> getStockAsOf(@PathVariable UUID id,
+                                                           @RequestParam(required = false) Instant asOf) {
+        return ResponseEntity.ok(stockLedgerService.stockAsOf(id, asOf));
+    }
+
+
+    @Operation(summary = "Listar movimentações de estoque", description = "Retorna uma página do histórico de entradas, consumos e ajustes de uma matéria-prima, ordenada pela data da movimentação. Use o nextCursor retornado para buscar a próxima página.")
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<CursorPage<StockMovementResponse>> getStockMovements(@PathVariable UUID id,
+                                                                               @RequestParam(required = false) String direction,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(stockLedgerService.findMovementPage(id, direction, cursor, limit));
+    }
+
+
+    @Operation(summary = "Onde a matéria-prima é usada", description = "Retorna os produtos que usam a matéria-prima, diretamente ou por meio de subconjuntos, com a quantidade total consumida por unidade do produto, ordenados por código.")
+    @GetMapping("/{id}/where-used")
+    public ResponseEntity<List<WhereUsedResponse>> getWhereUsed(@PathVariable UUID id) {
+        return ResponseEntity.ok(rawMaterialsServices.findWhereUsed(id));
     }
 
 
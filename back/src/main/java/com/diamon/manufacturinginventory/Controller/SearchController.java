@@ -0,0 +1,33 @@
+package com.diamon.manufacturinginventory.Controller;
+
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+import com.diamon.manufacturinginventory.Services.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Busca", description = "Busca de produtos e matérias-primas por código ou nome")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+
+    @Operation(summary = "Buscar produtos e matérias-primas", description = "Retorna os produtos e matérias-primas cujo código ou nome começa com o termo informado, sem diferenciar maiúsculas: códigos exatos, nomes exatos, prefixos de código e prefixos de nome, nessa ordem. Se não houver resultados suficientes, completa a lista com nomes e códigos que contêm o termo ou se parecem com ele. O limite padrão é 20 e o máximo 100.")
+    @GetMapping
+    public ResponseEntity<List<SearchResult>> search(@RequestParam String q,
+                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, limit));
+    }
+}
@@ -0,0 +1,18 @@
+package com.diamon.manufacturinginventory.DTOs.Import;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1, not counting the CSV header; at most the
+ * configured number of errors is listed, {@code errorsTruncated} tells when some were left out.
+ */
+public record ImportReport(
+        long processed,
+        long inserted,
+        long updated,
+        long failed,
+        long elapsedMillis,
+        List<ImportRowError> errors,
+        boolean errorsTruncated
+) {
+}
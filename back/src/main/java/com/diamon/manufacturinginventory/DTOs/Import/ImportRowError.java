@@ -0,0 +1,8 @@
+package com.diamon.manufacturinginventory.DTOs.Import;
+
+public record ImportRowError(
+        long row,
+        String key,
+        String message
+) {
+}
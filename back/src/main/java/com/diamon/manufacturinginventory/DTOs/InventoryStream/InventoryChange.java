@@ -0,0 +1,24 @@
+package com.diamon.manufacturinginventory.DTOs.InventoryStream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Payload of one stream event; the SSE event name says what changed, and only the fields that
+ * change carries are written.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InventoryChange(
+        UUID id,
+        String code,
+        String name,
+        Integer stockQuantity,
+        BigDecimal price
+) {
+
+    public static InventoryChange of(UUID id) {
+        return new InventoryChange(id, null, null, null, null);
+    }
+}
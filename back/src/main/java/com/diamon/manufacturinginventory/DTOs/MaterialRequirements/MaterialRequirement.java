@@ -0,0 +1,13 @@
+package com.diamon.manufacturinginventory.DTOs.MaterialRequirements;
+
+import java.util.UUID;
+
+public record MaterialRequirement(
+        UUID rawMaterialId,
+        String code,
+        String name,
+        long required,
+        long stockQuantity,
+        long shortfall
+) {
+}
@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.DTOs.MaterialRequirements;
+
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Target quantities per product; the same product may appear on several lines.
+ */
+public record MaterialRequirementsRequest(
+        @NotEmpty(message = "At least one item is required") List<@Valid ProductionOrderItem> items
+) {
+}
@@ -0,0 +1,13 @@
+package com.diamon.manufacturinginventory.DTOs.MaterialRequirements;
+
+import java.util.List;
+
+/**
+ * Every raw material the targets need, largest shortfall first; {@code shortMaterials} of them
+ * have to be bought.
+ */
+public record MaterialRequirementsResponse(
+        List<MaterialRequirement> materials,
+        int shortMaterials
+) {
+}
@@ -0,0 +1,10 @@
+package com.diamon.manufacturinginventory.DTOs.Pagination;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasNext
+) {
+}
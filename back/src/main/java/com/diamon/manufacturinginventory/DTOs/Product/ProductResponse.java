@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.DTOs.Product;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProductResponse(
+        UUID id,
+        String code,
+        String name,
+        BigDecimal price
+) {
+}
@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.Product;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProductSummary(
+        UUID id,
+        String name,
+        BigDecimal price
+) {
+}
@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import java.util.UUID;
+
+/**
+ * One direct recipe line of a product; exactly one of {@code rawMaterialId}
+ * and {@code componentProductId} is set.
+ */
+public record BillOfMaterialLine(
+        UUID productId,
+        UUID rawMaterialId,
+        UUID componentProductId,
+        int requiredQuantity
+) {
+}
@@ -0,0 +1,13 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import java.util.List;
+
+/**
+ * Every raw material a product needs, with sub-assemblies expanded and repeated materials summed.
+ */
+public record ProductRecipeDetailsResponse(
+        String productId,
+        String productName,
+        List<ProductRecipeResponse.RawMaterialInfo> rawMaterials
+) {
+}
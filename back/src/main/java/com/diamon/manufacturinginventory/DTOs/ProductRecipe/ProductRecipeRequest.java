@@ -1,13 +1,35 @@
 package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
 
-import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Positive;
-import java.util.UUID;
 
+/**
+ * A recipe line uses either a raw material or another product (a sub-assembly) as its component.
+ */
 public record ProductRecipeRequest(
     String productId,
-    @NotNull(message = "Raw material ID must not be null") String rawMaterialId,
+    String rawMaterialId,
+    String componentProductId,
     @Positive(message = "Quantity must be positive") int quantity
 ) {
-}
 
+    public ProductRecipeRequest(String productId, String rawMaterialId, int quantity) {
+        this(productId, rawMaterialId, null, quantity);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of raw material ID or component product ID must be informed")
+    public boolean isSingleComponent() {
+        return isBlank(rawMaterialId) != isBlank(componentProductId);
+    }
+
+    @JsonIgnore
+    public boolean usesComponentProduct() {
+        return !isBlank(componentProductId);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import java.util.List;
+
+public record ProductionPlanResponse(
+        List<ProductProductionSuggestion> items,
+        double totalValue,
+        boolean optimal,
+        long elapsedMillis
+) {
+}
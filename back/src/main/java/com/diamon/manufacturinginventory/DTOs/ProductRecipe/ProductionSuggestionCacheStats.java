@@ -0,0 +1,10 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+public record ProductionSuggestionCacheStats(
+        long hits,
+        long misses,
+        long productRecomputes,
+        long fullLoads,
+        int cachedProducts
+) {
+}
@@ -0,0 +1,18 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import java.util.UUID;
+
+/**
+ * One recipe line with the names it is displayed with; exactly one of {@code rawMaterialId} and
+ * {@code componentProductId} is set, and {@code rawMaterialName} only with the former.
+ */
+public record RecipeDetailRow(
+        UUID recipeId,
+        UUID productId,
+        String productName,
+        UUID rawMaterialId,
+        String rawMaterialName,
+        UUID componentProductId,
+        int requiredQuantity
+) {
+}
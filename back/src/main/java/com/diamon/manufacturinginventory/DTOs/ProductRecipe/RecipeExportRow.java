@@ -0,0 +1,18 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import java.util.UUID;
+
+/**
+ * One direct recipe line; exactly one of the raw material and component product columns is set.
+ */
+public record RecipeExportRow(
+        UUID recipeId,
+        String productCode,
+        String productName,
+        String rawMaterialCode,
+        String rawMaterialName,
+        String componentProductCode,
+        String componentProductName,
+        int requiredQuantity
+) {
+}
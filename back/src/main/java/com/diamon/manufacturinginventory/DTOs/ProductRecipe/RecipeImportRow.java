@@ -0,0 +1,32 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * A recipe line in a bulk import; products and raw materials are referenced by code.
+ */
+public record RecipeImportRow(
+    @NotBlank(message = "The product code must not be blank") String productCode,
+    String rawMaterialCode,
+    String componentProductCode,
+    @Positive(message = "Quantity must be positive") int quantity
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of raw material code or component product code must be informed")
+    public boolean isSingleComponent() {
+        return isBlank(rawMaterialCode) != isBlank(componentProductCode);
+    }
+
+    @JsonIgnore
+    public boolean usesComponentProduct() {
+        return !isBlank(componentProductCode);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
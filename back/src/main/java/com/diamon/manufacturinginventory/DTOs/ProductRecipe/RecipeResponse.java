@@ -0,0 +1,18 @@
+package com.diamon.manufacturinginventory.DTOs.ProductRecipe;
+
+import java.util.UUID;
+
+/**
+ * One recipe line. Exactly one of the raw material and the component product is set.
+ */
+public record RecipeResponse(
+        UUID id,
+        UUID productId,
+        String productName,
+        UUID rawMaterialId,
+        String rawMaterialName,
+        UUID componentProductId,
+        String componentProductName,
+        int requiredQuantity
+) {
+}
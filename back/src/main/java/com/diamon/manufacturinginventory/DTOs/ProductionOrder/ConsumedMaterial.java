@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.DTOs.ProductionOrder;
+
+import java.util.UUID;
+
+public record ConsumedMaterial(
+        UUID rawMaterialId,
+        String code,
+        String name,
+        long consumed,
+        int remainingStock
+) {
+}
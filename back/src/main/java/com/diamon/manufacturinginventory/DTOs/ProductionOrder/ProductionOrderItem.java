@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.DTOs.ProductionOrder;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.UUID;
+
+public record ProductionOrderItem(
+        @NotNull(message = "Product ID is required") UUID productId,
+        @Positive(message = "Quantity must be positive") int quantity
+) {
+}
@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.ProductionOrder;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record ProductionOrderRequest(
+        @NotEmpty(message = "At least one item is required") List<@Valid ProductionOrderItem> items
+) {
+}
@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.ProductionOrder;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ProductionOrderResponse(
+        UUID orderId,
+        List<ProductionOrderItem> items,
+        List<ConsumedMaterial> consumed
+) {
+}
@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.util.UUID;
+
+public record RawMaterialResponse(
+        UUID id,
+        String code,
+        String name,
+        int stockQuantity,
+        int reorderThreshold
+) {
+}
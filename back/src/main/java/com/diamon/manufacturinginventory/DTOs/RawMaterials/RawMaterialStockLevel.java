@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.util.UUID;
+
+public record RawMaterialStockLevel(
+        UUID id,
+        String code,
+        String name,
+        int stockQuantity
+) {
+}
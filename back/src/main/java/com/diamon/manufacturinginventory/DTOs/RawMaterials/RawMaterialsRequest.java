@@ -9,6 +9,11 @@ import java.math.BigDecimal;
 public record RawMaterialsRequest(
     @NotBlank(message = "The code must not be blank!") String code,
     @NotBlank(message = "The name must not be blank!") String name,
-    @PositiveOrZero(message = "The stock quantity must be zero or positive!") int stockQuantity
+    @PositiveOrZero(message = "The stock quantity must be zero or positive!") int stockQuantity,
+    @PositiveOrZero(message = "The reorder threshold must be zero or positive!") Integer reorderThreshold
 ) {
+
+    public RawMaterialsRequest(String code, String name, int stockQuantity) {
+        this(code, name, stockQuantity, null);
+    }
 }
@@ -0,0 +1,9 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.util.UUID;
+
+public record StockBalance(
+        UUID rawMaterialId,
+        long balance
+) {
+}
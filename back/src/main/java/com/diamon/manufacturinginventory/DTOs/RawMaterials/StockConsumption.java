@@ -0,0 +1,16 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.util.List;
+
+/**
+ * Outcome of consuming several raw materials at once: the stock left on every material when all of
+ * them had enough, otherwise the materials that were short.
+ */
+public record StockConsumption(
+        List<RawMaterialStockLevel> remaining,
+        List<StockShortage> shortages
+) {
+    public boolean isComplete() {
+        return shortages.isEmpty();
+    }
+}
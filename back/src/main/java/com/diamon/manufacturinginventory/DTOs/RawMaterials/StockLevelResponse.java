@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record StockLevelResponse(
+        UUID rawMaterialId,
+        Instant asOf,
+        long stockQuantity
+) {
+}
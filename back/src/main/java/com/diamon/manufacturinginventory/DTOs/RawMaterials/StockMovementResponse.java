@@ -0,0 +1,16 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record StockMovementResponse(
+        UUID id,
+        UUID rawMaterialId,
+        StockMovementType type,
+        long quantity,
+        Instant occurredAt,
+        String reference
+) {
+}
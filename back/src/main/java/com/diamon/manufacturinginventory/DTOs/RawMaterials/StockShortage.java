@@ -0,0 +1,16 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.util.UUID;
+
+/**
+ * A raw material that could not cover a consumption; {@code code} and {@code name} are null when
+ * the material no longer exists.
+ */
+public record StockShortage(
+        UUID rawMaterialId,
+        String code,
+        String name,
+        long required,
+        int available
+) {
+}
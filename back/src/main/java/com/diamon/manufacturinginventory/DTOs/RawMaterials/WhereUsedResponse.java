@@ -0,0 +1,16 @@
+package com.diamon.manufacturinginventory.DTOs.RawMaterials;
+
+import java.util.UUID;
+
+/**
+ * A product that needs the raw material, directly or through its sub-assemblies.
+ * {@code quantityPerUnit} is what one unit of the product takes of it over all of its recipe tree.
+ */
+public record WhereUsedResponse(
+        UUID productId,
+        String code,
+        String name,
+        long quantityPerUnit,
+        boolean direct
+) {
+}
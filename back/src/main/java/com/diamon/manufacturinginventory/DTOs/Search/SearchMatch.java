@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.DTOs.Search;
+
+/**
+ * How a search result matched the query, best first.
+ */
+public enum SearchMatch {
+    EXACT_CODE,
+    EXACT_NAME,
+    CODE_PREFIX,
+    NAME_PREFIX,
+    FUZZY
+}
@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.DTOs.Search;
+
+import java.util.UUID;
+
+public record SearchResult(
+        SearchResultType type,
+        UUID id,
+        String code,
+        String name,
+        SearchMatch match
+) {
+}
@@ -0,0 +1,6 @@
+package com.diamon.manufacturinginventory.DTOs.Search;
+
+public enum SearchResultType {
+    PRODUCT,
+    RAW_MATERIAL
+}
@@ -0,0 +1,26 @@
+package com.diamon.manufacturinginventory.DTOs.Simulation;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.UUID;
+
+/**
+ * Replaces the quantity of one direct recipe line of a product, adding the line when the product
+ * does not use that component yet; a quantity of zero removes it.
+ */
+public record RecipeOverride(
+        @NotNull(message = "Product ID is required") UUID productId,
+        UUID rawMaterialId,
+        UUID componentProductId,
+        @PositiveOrZero(message = "Quantity must be zero or positive") int quantity
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Exactly one of raw material ID or component product ID must be informed")
+    public boolean isSingleComponent() {
+        return (rawMaterialId == null) != (componentProductId == null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.diamon.manufacturinginventory.DTOs.Simulation;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record SimulationRequest(
+        @NotEmpty(message = "At least one scenario is required")
+        @Size(max = 200, message = "At most 200 scenarios can be simulated at once")
+        List<@Valid SimulationScenario> scenarios
+) {
+}
@@ -0,0 +1,11 @@
+package com.diamon.manufacturinginventory.DTOs.Simulation;
+
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+
+import java.util.List;
+
+public record SimulationResult(
+        String scenario,
+        List<ProductProductionSuggestion> suggestions
+) {
+}
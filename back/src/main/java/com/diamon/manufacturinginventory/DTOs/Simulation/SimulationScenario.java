@@ -0,0 +1,24 @@
+package com.diamon.manufacturinginventory.DTOs.Simulation;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.List;
+
+/**
+ * Changes applied on top of the current inventory; nothing is written.
+ */
+public record SimulationScenario(
+        @NotBlank(message = "The scenario name must not be blank") String name,
+        List<@Valid StockDelta> stockDeltas,
+        List<@Valid RecipeOverride> recipeOverrides
+) {
+
+    public List<StockDelta> stockDeltas() {
+        return stockDeltas == null ? List.of() : stockDeltas;
+    }
+
+    public List<RecipeOverride> recipeOverrides() {
+        return recipeOverrides == null ? List.of() : recipeOverrides;
+    }
+}
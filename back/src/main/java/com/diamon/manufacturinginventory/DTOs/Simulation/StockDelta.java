@@ -0,0 +1,14 @@
+package com.diamon.manufacturinginventory.DTOs.Simulation;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Units added to (or, when negative, removed from) the current stock of a raw material.
+ */
+public record StockDelta(
+        @NotNull(message = "Raw material ID is required") UUID rawMaterialId,
+        long quantity
+) {
+}
@@ -0,0 +1,20 @@
+package com.diamon.manufacturinginventory.Entity;
+
+/**
+ * A list the clients poll as a whole; each has its own version in {@link CatalogVersion}.
+ */
+public enum CatalogAggregate {
+    PRODUCTS("products"),
+    RAW_MATERIALS("raw-materials"),
+    RECIPES("recipes");
+
+    private final String etagPrefix;
+
+    CatalogAggregate(String etagPrefix) {
+        this.etagPrefix = etagPrefix;
+    }
+
+    public String etagPrefix() {
+        return etagPrefix;
+    }
+}
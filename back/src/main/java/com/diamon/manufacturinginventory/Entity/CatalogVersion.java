@@ -0,0 +1,32 @@
+package com.diamon.manufacturinginventory.Entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate", length = 32)
+    private CatalogAggregate aggregate;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public CatalogVersion() {
+    }
+
+    public CatalogVersion(CatalogAggregate aggregate, long version) {
+        this.aggregate = aggregate;
+        this.version = version;
+    }
+
+    public CatalogAggregate getAggregate() {
+        return aggregate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
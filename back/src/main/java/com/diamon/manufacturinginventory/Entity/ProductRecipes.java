@@ -2,15 +2,23 @@ package com.diamon.manufacturinginventory.Entity;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Check;
 
 import java.util.UUID;
 
 @Entity
-@Table(name = "product_recipes")
+@Table(name = "product_recipes", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_product_recipes_product_raw_product", columnNames = {"product_id", "raw_product_id"}),
+        @UniqueConstraint(name = "uq_product_recipes_product_component", columnNames = {"product_id", "component_product_id"})
+}, indexes = {
+        @Index(name = "idx_product_recipes_raw_product_id", columnList = "raw_product_id"),
+        @Index(name = "idx_product_recipes_component_product_id", columnList = "component_product_id")
+})
+@Check(name = "ck_product_recipes_single_component", constraints = "(raw_product_id IS NULL) <> (component_product_id IS NULL)")
 public class ProductRecipes {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "required_quantity")
@@ -21,9 +29,13 @@ public class ProductRecipes {
     private Product product;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "raw_product_id", nullable = false, foreignKey = @ForeignKey(name = "fk_product_recipes_raw_product_id", foreignKeyDefinition = "FOREIGN KEY (raw_product_id) REFERENCES raw_materials(id) ON DELETE CASCADE"))
+    @JoinColumn(name = "raw_product_id", foreignKey = @ForeignKey(name = "fk_product_recipes_raw_product_id", foreignKeyDefinition = "FOREIGN KEY (raw_product_id) REFERENCES raw_materials(id) ON DELETE CASCADE"))
     private RawMaterials rawProduct;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "component_product_id", foreignKey = @ForeignKey(name = "fk_product_recipes_component_product_id", foreignKeyDefinition = "FOREIGN KEY (component_product_id) REFERENCES product(id) ON DELETE CASCADE"))
+    private Product componentProduct;
+
     public void setProduct(Product product) {
         this.product = product;
     }
@@ -32,6 +44,10 @@ public class ProductRecipes {
         this.rawProduct = rawProduct;
     }
 
+    public void setComponentProduct(Product componentProduct) {
+        this.componentProduct = componentProduct;
+    }
+
     public void setRequiredQuantity(int requiredQuantity) {
         this.requiredQuantity = requiredQuantity;
     }
@@ -48,6 +64,10 @@ public class ProductRecipes {
         return rawProduct;
     }
 
+    public Product getComponentProduct() {
+        return componentProduct;
+    }
+
     public int getRequiredQuantity() {
         return requiredQuantity;
     }
@@ -1,15 +1,19 @@
 package com.diamon.manufacturinginventory.Entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.UUID;
 
 @Entity
-@Table(name = "raw_materials")
+@Table(name = "raw_materials", indexes = {
+        @Index(name = "idx_raw_materials_name_id", columnList = "name, id"),
+        @Index(name = "idx_raw_materials_stock_quantity_id", columnList = "stock_quantity, id")
+})
 public class RawMaterials {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "code", unique = true)
@@ -21,6 +25,11 @@ public class RawMaterials {
     @Column(name = "stock_quantity")
     private int stockQuantity;
 
+    // as in the migration, so inserts that predate thresholds still work on a generated schema
+    @ColumnDefault("0")
+    @Column(name = "reorder_threshold", nullable = false)
+    private int reorderThreshold;
+
 
     public RawMaterials() {
     }
@@ -57,6 +66,14 @@ public class RawMaterials {
         this.stockQuantity = stockQuantity;
     }
 
+    public int getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public void setReorderThreshold(int reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+
     public RawMaterials(UUID id, String code, String name, int stockQuantity) {
         this.id = id;
         this.code = code;
@@ -0,0 +1,78 @@
+package com.diamon.manufacturinginventory.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One change of a raw material's stock. Rows are only ever appended; {@code quantity} is signed,
+ * negative for consumption. The raw material id is a plain column so the history outlives the
+ * material.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_raw_material_occurred_at", columnList = "raw_material_id, occurred_at, id")
+})
+public class StockMovement {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "raw_material_id", nullable = false)
+    private UUID rawMaterialId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private StockMovementType type;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "reference")
+    private String reference;
+
+    public StockMovement() {
+    }
+
+    public StockMovement(UUID id, UUID rawMaterialId, StockMovementType type, long quantity, Instant occurredAt, String reference) {
+        this.id = id;
+        this.rawMaterialId = rawMaterialId;
+        this.type = type;
+        this.quantity = quantity;
+        this.occurredAt = occurredAt;
+        this.reference = reference;
+    }
+
+    public static StockMovement now(UUID rawMaterialId, StockMovementType type, long quantity, String reference) {
+        return new StockMovement(UuidV7Generator.next(), rawMaterialId, type, quantity, Instant.now(), reference);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getRawMaterialId() {
+        return rawMaterialId;
+    }
+
+    public StockMovementType getType() {
+        return type;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+}
@@ -0,0 +1,7 @@
+package com.diamon.manufacturinginventory.Entity;
+
+public enum StockMovementType {
+    RECEIPT,
+    CONSUMPTION,
+    ADJUSTMENT
+}
@@ -0,0 +1,56 @@
+package com.diamon.manufacturinginventory.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Balance of a raw material at {@code takenAt}, i.e. including every movement that occurred up to
+ * and including that instant.
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+        @Index(name = "idx_stock_snapshots_raw_material_taken_at", columnList = "raw_material_id, taken_at")
+})
+public class StockSnapshot {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "raw_material_id", nullable = false)
+    private UUID rawMaterialId;
+
+    @Column(name = "balance", nullable = false)
+    private long balance;
+
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+
+    public StockSnapshot() {
+    }
+
+    public StockSnapshot(UUID id, UUID rawMaterialId, long balance, Instant takenAt) {
+        this.id = id;
+        this.rawMaterialId = rawMaterialId;
+        this.balance = balance;
+        this.takenAt = takenAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getRawMaterialId() {
+        return rawMaterialId;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+}
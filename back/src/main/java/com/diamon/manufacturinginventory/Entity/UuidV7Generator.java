@@ -0,0 +1,59 @@
+package com.diamon.manufacturinginventory.Entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48 bits of Unix milliseconds, then a 12-bit counter (the
+ * {@code rand_a} field used as a dedicated counter) and 62 random bits.
+ * <p>
+ * Timestamp and counter are advanced together through one atomic value, so ids are strictly
+ * increasing within the JVM even for many ids in the same millisecond or when the clock steps
+ * back; a counter overflow carries into the timestamp. PostgreSQL compares uuids byte by byte,
+ * so that order is also the index order.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long VERSION = 0x7000L;
+    private static final int COUNTER_BITS = 12;
+
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long unixMillis) {
+        long candidate = unixMillis << COUNTER_BITS;
+        long stamp;
+        while (true) {
+            long last = LAST_STAMP.get();
+            stamp = candidate > last ? candidate : last + 1;
+            if (LAST_STAMP.compareAndSet(last, stamp)) break;
+        }
+        long millis = stamp >>> COUNTER_BITS;
+        long counter = stamp & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = (millis << 16) | VERSION | counter;
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
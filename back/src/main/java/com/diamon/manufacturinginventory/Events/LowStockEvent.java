@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.Events;
+
+import java.util.UUID;
+
+/**
+ * Published once when a raw material's stock drops below its reorder threshold.
+ */
+public record LowStockEvent(
+        UUID rawMaterialId,
+        String code,
+        String name,
+        int stockQuantity,
+        int reorderThreshold
+) {
+}
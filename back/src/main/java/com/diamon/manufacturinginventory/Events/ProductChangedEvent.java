@@ -0,0 +1,12 @@
+package com.diamon.manufacturinginventory.Events;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ProductChangedEvent(
+        UUID productId,
+        String code,
+        String name,
+        BigDecimal price
+) {
+}
@@ -0,0 +1,21 @@
+package com.diamon.manufacturinginventory.Events;
+
+import java.util.UUID;
+
+/**
+ * Published by every write that changes a raw material or its stock, with the values it wrote.
+ * {@code reorderThreshold} is {@code null} when the write left the threshold as it was, as the
+ * stock consumptions and imports do.
+ */
+public record RawMaterialChangedEvent(
+        UUID rawMaterialId,
+        String code,
+        String name,
+        int stockQuantity,
+        Integer reorderThreshold
+) {
+
+    public RawMaterialChangedEvent(UUID rawMaterialId, String code, String name, int stockQuantity) {
+        this(rawMaterialId, code, name, stockQuantity, null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.diamon.manufacturinginventory.Events;
+
+import java.util.UUID;
+
+public record RawMaterialDeletedEvent(UUID rawMaterialId) {
+}
@@ -0,0 +1,9 @@
+package com.diamon.manufacturinginventory.Events;
+
+import java.util.UUID;
+
+/**
+ * Published whenever the recipe lines of a product were created, changed or moved away from it.
+ */
+public record RecipeChangedEvent(UUID productId) {
+}
@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.Events;
+
+import java.util.UUID;
+
+/**
+ * Published once when a raw material that was low is back above its threshold and hysteresis band.
+ */
+public record StockReplenishedEvent(
+        UUID rawMaterialId,
+        String code,
+        String name,
+        int stockQuantity,
+        int reorderThreshold
+) {
+}
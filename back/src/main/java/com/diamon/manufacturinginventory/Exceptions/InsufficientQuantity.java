@@ -1,7 +1,23 @@
 package com.diamon.manufacturinginventory.Exceptions;
 
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockShortage;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class InsufficientQuantity extends RuntimeException {
     public InsufficientQuantity(String message) {
         super(message);
     }
+
+    public static InsufficientQuantity forShortages(List<StockShortage> shortages) {
+        return new InsufficientQuantity("Insufficient stock for raw materials: " + shortages.stream()
+                .map(InsufficientQuantity::describe)
+                .collect(Collectors.joining(", ")));
+    }
+
+    private static String describe(StockShortage shortage) {
+        String material = shortage.name() != null ? shortage.name() : shortage.rawMaterialId().toString();
+        return material + " (required " + shortage.required() + ", available " + shortage.available() + ")";
+    }
 }
@@ -0,0 +1,7 @@
+package com.diamon.manufacturinginventory.Exceptions;
+
+public class InvalidImportException extends RuntimeException {
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.diamon.manufacturinginventory.Exceptions;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
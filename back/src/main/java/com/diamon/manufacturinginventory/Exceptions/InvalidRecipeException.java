@@ -0,0 +1,7 @@
+package com.diamon.manufacturinginventory.Exceptions;
+
+public class InvalidRecipeException extends RuntimeException {
+    public InvalidRecipeException(String message) {
+        super(message);
+    }
+}
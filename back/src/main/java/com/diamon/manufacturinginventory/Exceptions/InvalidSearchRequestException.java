@@ -0,0 +1,7 @@
+package com.diamon.manufacturinginventory.Exceptions;
+
+public class InvalidSearchRequestException extends RuntimeException {
+    public InvalidSearchRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.diamon.manufacturinginventory.Exceptions;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String message) {
+        super(message);
+    }
+}
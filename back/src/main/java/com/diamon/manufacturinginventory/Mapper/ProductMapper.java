@@ -1,6 +1,7 @@
 package com.diamon.manufacturinginventory.Mapper;
 
 import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
 import com.diamon.manufacturinginventory.Entity.Product;
 
 public class ProductMapper {
@@ -8,4 +9,8 @@ public class ProductMapper {
     public static Product toEntity(ProductRequest request) {
         return new Product(null, request.code(), request.name(), request.price());
     }
+
+    public static ProductResponse toResponse(Product product) {
+        return new ProductResponse(product.getId(), product.getCode(), product.getName(), product.getPrice());
+    }
 }
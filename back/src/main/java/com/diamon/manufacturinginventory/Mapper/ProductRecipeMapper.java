@@ -0,0 +1,28 @@
+package com.diamon.manufacturinginventory.Mapper;
+
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse;
+import com.diamon.manufacturinginventory.Entity.Product;
+import com.diamon.manufacturinginventory.Entity.ProductRecipes;
+import com.diamon.manufacturinginventory.Entity.RawMaterials;
+
+public class ProductRecipeMapper {
+
+    /**
+     * Reads the names of the associations, so they must already be loaded: fetched with the
+     * recipe or set from loaded instances.
+     */
+    public static RecipeResponse toResponse(ProductRecipes recipe) {
+        Product product = recipe.getProduct();
+        RawMaterials rawMaterial = recipe.getRawProduct();
+        Product component = recipe.getComponentProduct();
+        return new RecipeResponse(
+                recipe.getId(),
+                product.getId(),
+                product.getName(),
+                rawMaterial == null ? null : rawMaterial.getId(),
+                rawMaterial == null ? null : rawMaterial.getName(),
+                component == null ? null : component.getId(),
+                component == null ? null : component.getName(),
+                recipe.getRequiredQuantity());
+    }
+}
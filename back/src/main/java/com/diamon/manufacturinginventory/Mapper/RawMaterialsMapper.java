@@ -1,13 +1,30 @@
 package com.diamon.manufacturinginventory.Mapper;
 
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
 import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialsRequest;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockMovementResponse;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
 
 import java.math.BigDecimal;
 
 public class RawMaterialsMapper {
 
     public static RawMaterials toEntity(RawMaterialsRequest rawMaterialsRequest) {
-        return new RawMaterials(null, rawMaterialsRequest.code(), rawMaterialsRequest.name(), rawMaterialsRequest.stockQuantity());
+        RawMaterials rawMaterial = new RawMaterials(null, rawMaterialsRequest.code(), rawMaterialsRequest.name(), rawMaterialsRequest.stockQuantity());
+        if (rawMaterialsRequest.reorderThreshold() != null) {
+            rawMaterial.setReorderThreshold(rawMaterialsRequest.reorderThreshold());
+        }
+        return rawMaterial;
+    }
+
+    public static RawMaterialResponse toResponse(RawMaterials rawMaterial) {
+        return new RawMaterialResponse(rawMaterial.getId(), rawMaterial.getCode(), rawMaterial.getName(),
+                rawMaterial.getStockQuantity(), rawMaterial.getReorderThreshold());
+    }
+
+    public static StockMovementResponse toResponse(StockMovement movement) {
+        return new StockMovementResponse(movement.getId(), movement.getRawMaterialId(), movement.getType(),
+                movement.getQuantity(), movement.getOccurredAt(), movement.getReference());
     }
 }
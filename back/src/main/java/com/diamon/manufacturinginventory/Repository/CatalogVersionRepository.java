@@ -0,0 +1,26 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, CatalogAggregate> {
+
+    @Query("select v.version from CatalogVersion v where v.aggregate = :aggregate")
+    Optional<Long> findVersion(@Param("aggregate") CatalogAggregate aggregate);
+
+    /**
+     * Flushes pending entity changes first, so the row lock on the version is the last one the
+     * transaction takes.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update CatalogVersion v set v.version = v.version + 1 where v.aggregate = :aggregate")
+    int increment(@Param("aggregate") CatalogAggregate aggregate);
+}
@@ -0,0 +1,14 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+
+import java.util.List;
+
+public interface FuzzySearchRepository {
+
+    /**
+     * Products and raw materials whose code or name resembles the query or contains it, most
+     * similar first, through the trigram indexes.
+     */
+    List<SearchResult> fuzzySearch(String query, int limit);
+}
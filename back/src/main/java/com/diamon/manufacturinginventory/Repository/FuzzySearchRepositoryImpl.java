@@ -0,0 +1,56 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.Search.SearchMatch;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResultType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One query over both tables. The {@code %} similarity operator catches typos and the
+ * {@code ilike} catches the query in the middle of a code or name; both are served by the
+ * {@code gin_trgm_ops} indexes, so no table is scanned.
+ */
+public class FuzzySearchRepositoryImpl implements FuzzySearchRepository {
+
+    private static final String FUZZY_SEARCH = """
+            select 'PRODUCT' as type, id, code, name,
+                   greatest(similarity(code, :query), similarity(name, :query)) as score
+            from product
+            where code % :query or name % :query or code ilike :contains or name ilike :contains
+            union all
+            select 'RAW_MATERIAL' as type, id, code, name,
+                   greatest(similarity(code, :query), similarity(name, :query)) as score
+            from raw_materials
+            where code % :query or name % :query or code ilike :contains or name ilike :contains
+            order by score desc, code, id
+            limit :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public FuzzySearchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<SearchResult> fuzzySearch(String query, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("contains", "%" + escapeLike(query) + "%")
+                .addValue("limit", limit);
+        return jdbcTemplate.query(FUZZY_SEARCH, params, (rs, row) -> new SearchResult(
+                SearchResultType.valueOf(rs.getString("type")),
+                rs.getObject("id", UUID.class),
+                rs.getString("code"),
+                rs.getString("name"),
+                SearchMatch.FUZZY));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,61 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.Entity.ProductRecipes;
+import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Filters for the paged list endpoints. A {@code null} argument means "no filter", so they can be
+ * chained with {@link Specification#and(Specification)} straight from optional request parameters.
+ */
+public final class InventorySpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private InventorySpecifications() {
+    }
+
+    /**
+     * Prefix match on the code; the lower bound lets the database use the code index for the range.
+     */
+    public static <T> Specification<T> codeStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) return null;
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("code"), prefix),
+                cb.like(root.get("code"), escapeLike(prefix) + "%", LIKE_ESCAPE));
+    }
+
+    public static <T> Specification<T> nameContains(String text) {
+        if (text == null || text.isBlank()) return null;
+        String pattern = "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<RawMaterials> stockBelow(Integer threshold) {
+        if (threshold == null) return null;
+        return (root, query, cb) -> cb.lessThan(root.get("stockQuantity"), threshold);
+    }
+
+    public static Specification<ProductRecipes> recipeOfProduct(UUID productId) {
+        if (productId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("product").get("id"), productId);
+    }
+
+    public static Specification<ProductRecipes> recipeUsingRawMaterial(UUID rawMaterialId) {
+        if (rawMaterialId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("rawProduct").get("id"), rawMaterialId);
+    }
+
+    public static Specification<StockMovement> movementOfRawMaterial(UUID rawMaterialId) {
+        if (rawMaterialId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("rawMaterialId"), rawMaterialId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
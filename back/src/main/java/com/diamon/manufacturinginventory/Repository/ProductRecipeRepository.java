@@ -1,9 +1,93 @@
 package com.diamon.manufacturinginventory.Repository;
 
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeDetailRow;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeExportRow;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse;
 import com.diamon.manufacturinginventory.Entity.ProductRecipes;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ProductRecipeRepository extends JpaRepository<ProductRecipes, UUID> {
-}
+public interface ProductRecipeRepository extends JpaRepository<ProductRecipes, UUID>, JpaSpecificationExecutor<ProductRecipes>, WhereUsedRepository,
+        RecipeExplosionRepository {
+
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine(
+                pr.product.id, r.id, c.id, pr.requiredQuantity)
+            from ProductRecipes pr
+            left join pr.rawProduct r
+            left join pr.componentProduct c
+            """)
+    List<BillOfMaterialLine> findAllBillOfMaterialLines();
+
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine(
+                pr.product.id, r.id, c.id, pr.requiredQuantity)
+            from ProductRecipes pr
+            left join pr.rawProduct r
+            left join pr.componentProduct c
+            where pr.product.id = :productId
+            """)
+    List<BillOfMaterialLine> findBillOfMaterialLinesByProductId(@Param("productId") UUID productId);
 
+    /**
+     * Every recipe line with its product and raw material names, grouped by product.
+     */
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeDetailRow(
+                pr.id, p.id, p.name, r.id, r.name, c.id, pr.requiredQuantity)
+            from ProductRecipes pr
+            join pr.product p
+            left join pr.rawProduct r
+            left join pr.componentProduct c
+            order by p.name, p.id, pr.id
+            """)
+    List<RecipeDetailRow> findAllRecipeDetailRows();
+
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse(
+                pr.id, p.id, p.name, r.id, r.name, c.id, c.name, pr.requiredQuantity)
+            from ProductRecipes pr
+            join pr.product p
+            left join pr.rawProduct r
+            left join pr.componentProduct c
+            order by pr.id
+            """)
+    List<RecipeResponse> findAllResponses();
+
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse(
+                pr.id, p.id, p.name, r.id, r.name, c.id, c.name, pr.requiredQuantity)
+            from ProductRecipes pr
+            join pr.product p
+            left join pr.rawProduct r
+            left join pr.componentProduct c
+            where pr.id = :id
+            """)
+    Optional<RecipeResponse> findResponseById(@Param("id") UUID id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeExportRow(
+                pr.id, p.code, p.name, r.code, r.name, c.code, c.name, pr.requiredQuantity)
+            from ProductRecipes pr
+            join pr.product p
+            left join pr.rawProduct r
+            left join pr.componentProduct c
+            order by pr.id
+            """)
+    Stream<RecipeExportRow> streamAllForExport();
+}
@@ -1,11 +1,44 @@
 package com.diamon.manufacturinginventory.Repository;
 
+import com.diamon.manufacturinginventory.DTOs.Product.ProductExportRow;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
 import com.diamon.manufacturinginventory.Entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product,UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        FuzzySearchRepository, ProductSummaryRepository {
+
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.Product.ProductSummary(p.id, p.name, p.price)
+            from Product p
+            where exists (select 1 from ProductRecipes pr where pr.product = p)
+            """)
+    List<ProductSummary> findAllSummariesWithRecipes();
+
+    @Query("select new com.diamon.manufacturinginventory.DTOs.Product.ProductResponse(p.id, p.code, p.name, p.price) from Product p order by p.code")
+    List<ProductResponse> findAllResponses();
+
+    @Query("select new com.diamon.manufacturinginventory.DTOs.Product.ProductSummary(p.id, p.name, p.price) from Product p where p.id = :id")
+    Optional<ProductSummary> findSummaryById(@Param("id") UUID id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.diamon.manufacturinginventory.DTOs.Product.ProductExportRow(p.id, p.code, p.name, p.price) from Product p order by p.code")
+    Stream<ProductExportRow> streamAllForExport();
 }
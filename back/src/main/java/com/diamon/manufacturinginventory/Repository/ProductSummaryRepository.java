@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductSummaryRepository {
+
+    /**
+     * The summaries of the given products that exist, in one statement however many ids there are.
+     */
+    List<ProductSummary> findSummariesByIdIn(Collection<UUID> ids);
+}
@@ -0,0 +1,38 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The ids go in as one uuid array rather than a JPQL {@code in} list, which Hibernate expands
+ * into a bind parameter per id and PostgreSQL rejects past 65535 of them.
+ */
+public class ProductSummaryRepositoryImpl implements ProductSummaryRepository {
+
+    private static final String SUMMARIES = """
+            select id, name, price
+            from product
+            where id = any(:ids)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductSummaryRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ProductSummary> findSummariesByIdIn(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        MapSqlParameterSource params = SqlArrays.addUuids(new MapSqlParameterSource(), "ids", ids);
+        return jdbcTemplate.query(SUMMARIES, params, (rs, row) -> new ProductSummary(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getBigDecimal("price")));
+    }
+}
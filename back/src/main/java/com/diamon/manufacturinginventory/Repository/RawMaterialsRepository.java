@@ -1,11 +1,54 @@
 package com.diamon.manufacturinginventory.Repository;
 
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialExportRow;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface RawMaterialsRepository extends JpaRepository<RawMaterials, UUID> {
+public interface RawMaterialsRepository extends JpaRepository<RawMaterials, UUID>, JpaSpecificationExecutor<RawMaterials>, StockConsumptionRepository {
+
+    /**
+     * Locks the row until the end of the transaction, for changes computed from the current stock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RawMaterials r where r.id = :id")
+    Optional<RawMaterials> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select new com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity, r.reorderThreshold) from RawMaterials r order by r.code")
+    List<RawMaterialResponse> findAllResponses();
+
+    @Query("select new com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity, r.reorderThreshold) from RawMaterials r where r.id = :id")
+    Optional<RawMaterialResponse> findResponseById(@Param("id") UUID id);
+
+    @Query("select new com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity, r.reorderThreshold) from RawMaterials r where r.reorderThreshold > 0")
+    List<RawMaterialResponse> findAllWithReorderThreshold();
+
+    @Query("select new com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock(r.id, r.stockQuantity) from RawMaterials r")
+    List<RawMaterialStock> findAllStock();
+
+    @Query("select coalesce(sum(r.stockQuantity), 0) from RawMaterials r")
+    long sumStockQuantity();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialExportRow(r.id, r.code, r.name, r.stockQuantity) from RawMaterials r order by r.code")
+    Stream<RawMaterialExportRow> streamAllForExport();
 }
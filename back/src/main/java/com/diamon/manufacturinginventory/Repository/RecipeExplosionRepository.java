@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface RecipeExplosionRepository {
+
+    /**
+     * The raw materials one unit of each product needs, through all levels of sub-assemblies, read
+     * from the stored recipe lines: product id to raw material id to quantity. Products without any
+     * raw material in their tree are left out.
+     */
+    Map<UUID, Map<UUID, Long>> explodeRecipes(Collection<UUID> productIds);
+}
@@ -0,0 +1,56 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One recursive query walking the recipe lines downwards from the products, multiplying the
+ * quantities along the way, with the depth capped like the where-used walk. Unlike the memoized
+ * explosion it sees the lines committed by every node, so it is the one the stock write paths use.
+ * The products are bound as one array, so the whole catalog can be exploded in one statement.
+ */
+public class RecipeExplosionRepositoryImpl implements RecipeExplosionRepository {
+
+    private static final int MAX_DEPTH = 64;
+    private static final String EXPLODE = """
+            with recursive tree (root_id, raw_product_id, component_product_id, quantity, depth) as (
+                select product_id, raw_product_id, component_product_id, cast(required_quantity as bigint), 1
+                from product_recipes
+                where product_id = any(:productIds)
+                union all
+                select t.root_id, r.raw_product_id, r.component_product_id, t.quantity * r.required_quantity, t.depth + 1
+                from product_recipes r
+                join tree t on r.product_id = t.component_product_id
+                where t.depth < :maxDepth
+            )
+            select root_id, raw_product_id, sum(quantity) as quantity
+            from tree
+            where raw_product_id is not null
+            group by root_id, raw_product_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RecipeExplosionRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<UUID, Map<UUID, Long>> explodeRecipes(Collection<UUID> productIds) {
+        Map<UUID, Map<UUID, Long>> requirements = new HashMap<>();
+        if (productIds.isEmpty()) return requirements;
+        MapSqlParameterSource params = SqlArrays.addUuids(new MapSqlParameterSource(), "productIds", productIds)
+                .addValue("maxDepth", MAX_DEPTH);
+        jdbcTemplate.query(EXPLODE, params, (ResultSet rs) -> {
+            requirements.computeIfAbsent(rs.getObject("root_id", UUID.class), id -> new HashMap<>())
+                    .put(rs.getObject("raw_product_id", UUID.class), rs.getLong("quantity"));
+        });
+        return requirements;
+    }
+}
@@ -0,0 +1,37 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Binds a set of ids as one SQL array, for {@code = any(:ids)}. An expanded {@code in (:ids)} list
+ * takes one bind parameter per value and fails past PostgreSQL's 65535 parameters per statement;
+ * the array is a single parameter however many ids it holds.
+ */
+public final class SqlArrays {
+
+    private SqlArrays() {
+    }
+
+    public static MapSqlParameterSource addUuids(MapSqlParameterSource params, String name, Collection<UUID> ids) {
+        return params.addValue(name, uuids(ids), Types.ARRAY);
+    }
+
+    private static SqlTypeValue uuids(Collection<UUID> ids) {
+        UUID[] values = Set.copyOf(ids).toArray(new UUID[0]);
+        return new AbstractSqlTypeValue() {
+            @Override
+            protected Object createTypeValue(Connection connection, int sqlType, String typeName) throws SQLException {
+                return connection.createArrayOf("uuid", values);
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface StockConsumptionRepository {
+
+    /**
+     * Takes the given quantities off the raw materials' stock with one conditional update per
+     * material, so a material is only decremented when it still has enough stock at that moment.
+     * Must run inside the caller's transaction: materials that did have enough are decremented even
+     * when others are short, and the caller is expected to roll back on an incomplete result.
+     */
+    StockConsumption consumeStock(Map<UUID, Long> quantities);
+
+    /**
+     * The current stock of the given materials that exist, in one statement however many ids
+     * there are.
+     */
+    List<RawMaterialStockLevel> findStockLevelsByIdIn(Collection<UUID> ids);
+}
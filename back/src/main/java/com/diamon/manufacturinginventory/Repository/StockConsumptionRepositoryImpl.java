@@ -0,0 +1,109 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockShortage;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * The updates go out as a single JDBC batch, sorted by id the way PostgreSQL orders uuids. Every
+ * transaction consuming stock takes the row locks in that same order, and so does the bulk import's
+ * {@code order by id for update}, so two of them can wait on each other but never deadlock.
+ * No entity is read or written, so the check and the decrement cannot be split by another
+ * transaction the way a read-modify-write through the persistence context can. The stock levels
+ * are read with the ids bound as one uuid array, so no lookup runs into PostgreSQL's limit of 65535
+ * bind parameters.
+ */
+public class StockConsumptionRepositoryImpl implements StockConsumptionRepository {
+
+    private static final String CONSUME = """
+            update raw_materials
+            set stock_quantity = stock_quantity - :quantity
+            where id = :id and stock_quantity >= :quantity
+            """;
+    private static final String STOCK_LEVELS = """
+            select id, code, name, stock_quantity
+            from raw_materials
+            where id = any(:ids)
+            """;
+
+    /**
+     * PostgreSQL compares uuids as unsigned bytes; {@link UUID#compareTo} compares signed longs,
+     * which puts {@code 8…} before {@code 7…} and disagrees with the database for random v4 ids.
+     */
+    static final Comparator<UUID> DATABASE_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StockConsumptionRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public StockConsumption consumeStock(Map<UUID, Long> quantities) {
+        if (quantities.isEmpty()) {
+            return new StockConsumption(List.of(), List.of());
+        }
+        TreeMap<UUID, Long> ordered = new TreeMap<>(DATABASE_ORDER);
+        ordered.putAll(quantities);
+        SqlParameterSource[] batch = new SqlParameterSource[ordered.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Long> entry : ordered.entrySet()) {
+            batch[i++] = new MapSqlParameterSource()
+                    .addValue("id", entry.getKey())
+                    .addValue("quantity", entry.getValue());
+        }
+        int[] counts = jdbcTemplate.batchUpdate(CONSUME, batch);
+
+        Map<UUID, RawMaterialStockLevel> levels = stockLevels(ordered);
+        List<StockShortage> shortages = new ArrayList<>();
+        i = 0;
+        for (Map.Entry<UUID, Long> entry : ordered.entrySet()) {
+            if (counts[i++] == 0) {
+                RawMaterialStockLevel level = levels.get(entry.getKey());
+                shortages.add(level == null
+                        ? new StockShortage(entry.getKey(), null, null, entry.getValue(), 0)
+                        : new StockShortage(level.id(), level.code(), level.name(), entry.getValue(), level.stockQuantity()));
+            }
+        }
+        return new StockConsumption(List.copyOf(levels.values()), shortages);
+    }
+
+    @Override
+    public List<RawMaterialStockLevel> findStockLevelsByIdIn(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        MapSqlParameterSource params = SqlArrays.addUuids(new MapSqlParameterSource(), "ids", ids);
+        return jdbcTemplate.query(STOCK_LEVELS, params, (rs, row) -> new RawMaterialStockLevel(
+                rs.getObject("id", UUID.class), rs.getString("code"), rs.getString("name"), rs.getInt("stock_quantity")));
+    }
+
+    private Map<UUID, RawMaterialStockLevel> stockLevels(TreeMap<UUID, Long> ordered) {
+        Map<UUID, RawMaterialStockLevel> found = new HashMap<>();
+        for (RawMaterialStockLevel level : findStockLevelsByIdIn(ordered.keySet())) {
+            found.put(level.id(), level);
+        }
+        Map<UUID, RawMaterialStockLevel> levels = new LinkedHashMap<>();
+        for (UUID id : ordered.keySet()) {
+            RawMaterialStockLevel level = found.get(id);
+            if (level != null) levels.put(id, level);
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,14 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+
+import java.util.Collection;
+
+public interface StockMovementAppender {
+
+    /**
+     * Inserts the movements with one JDBC batch in the caller's transaction, bypassing the
+     * persistence context; movements are never read back as entities in the same transaction.
+     */
+    void append(Collection<StockMovement> movements);
+}
@@ -0,0 +1,73 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Every movement passes through here, so this is also where the stock counters are kept: movements
+ * and units per movement type. The counters are registered up front and only incremented per call.
+ */
+public class StockMovementAppenderImpl implements StockMovementAppender {
+
+    private static final String INSERT_MOVEMENT = """
+            insert into stock_movements (id, raw_material_id, type, quantity, occurred_at, reference)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+    private static final int[] MOVEMENT_TYPES = {
+            Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP_WITH_TIMEZONE, Types.VARCHAR
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EnumMap<StockMovementType, Counter> movementCounters = new EnumMap<>(StockMovementType.class);
+    private final EnumMap<StockMovementType, Counter> unitCounters = new EnumMap<>(StockMovementType.class);
+
+    public StockMovementAppenderImpl(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (StockMovementType type : StockMovementType.values()) {
+            String tag = type.name().toLowerCase();
+            movementCounters.put(type, Counter.builder("inventory.stock.movements")
+                    .description("Stock movements written to the ledger")
+                    .tag("type", tag)
+                    .register(meterRegistry));
+            unitCounters.put(type, Counter.builder("inventory.stock.units")
+                    .description("Units moved in or out of stock, as an absolute quantity")
+                    .baseUnit("units")
+                    .tag("type", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Collection<StockMovement> movements) {
+        if (movements.isEmpty()) return;
+        List<Object[]> params = new ArrayList<>(movements.size());
+        for (StockMovement movement : movements) {
+            params.add(new Object[]{
+                    movement.getId(),
+                    movement.getRawMaterialId(),
+                    movement.getType().name(),
+                    movement.getQuantity(),
+                    movement.getOccurredAt().atOffset(ZoneOffset.UTC),
+                    movement.getReference()
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_MOVEMENT, params, MOVEMENT_TYPES);
+        for (StockMovement movement : movements) {
+            movementCounters.get(movement.getType()).increment();
+            unitCounters.get(movement.getType()).increment(Math.abs(movement.getQuantity()));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, UUID>, JpaSpecificationExecutor<StockMovement>, StockMovementAppender {
+
+    @Query("""
+            select coalesce(sum(m.quantity), 0) from StockMovement m
+            where m.rawMaterialId = :rawMaterialId and m.occurredAt > :from and m.occurredAt <= :to
+            """)
+    long sumBetween(@Param("rawMaterialId") UUID rawMaterialId, @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("""
+            select coalesce(sum(m.quantity), 0) from StockMovement m
+            where m.rawMaterialId = :rawMaterialId and m.occurredAt > :after
+            """)
+    long sumAfter(@Param("rawMaterialId") UUID rawMaterialId, @Param("after") Instant after);
+}
@@ -0,0 +1,54 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockBalance;
+import com.diamon.manufacturinginventory.Entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, UUID> {
+
+    Optional<StockSnapshot> findFirstByRawMaterialIdAndTakenAtLessThanEqualOrderByTakenAtDesc(UUID rawMaterialId, Instant takenAt);
+
+    /**
+     * Takes the transaction-scoped advisory lock that lets one node at a time take snapshots;
+     * {@code false} when another node holds it. Released when the transaction ends.
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('stock_snapshots'))", nativeQuery = true)
+    boolean tryLockSnapshots();
+
+    @Query("select max(s.takenAt) from StockSnapshot s")
+    Optional<Instant> findLatestTakenAt();
+
+    /**
+     * Balance of every raw material at {@code at}: the current stock minus what moved after it.
+     */
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.RawMaterials.StockBalance(
+                r.id, r.stockQuantity - coalesce(sum(m.quantity), 0))
+            from RawMaterials r
+            left join StockMovement m on m.rawMaterialId = r.id and m.occurredAt > :at
+            group by r.id, r.stockQuantity
+            """)
+    List<StockBalance> findAllBalancesAt(@Param("at") Instant at);
+
+    /**
+     * Same as {@link #findAllBalancesAt} for the raw materials that moved in {@code (since, at]} only.
+     */
+    @Query("""
+            select new com.diamon.manufacturinginventory.DTOs.RawMaterials.StockBalance(
+                r.id, r.stockQuantity - coalesce(sum(m.quantity), 0))
+            from RawMaterials r
+            left join StockMovement m on m.rawMaterialId = r.id and m.occurredAt > :at
+            where exists (
+                select 1 from StockMovement moved
+                where moved.rawMaterialId = r.id and moved.occurredAt > :since and moved.occurredAt <= :at)
+            group by r.id, r.stockQuantity
+            """)
+    List<StockBalance> findBalancesAtMovedSince(@Param("since") Instant since, @Param("at") Instant at);
+}
@@ -0,0 +1,15 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.WhereUsedResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface WhereUsedRepository {
+
+    /**
+     * Every product whose recipe tree contains the raw material, ordered by code, walking the recipe
+     * lines upwards from the material through the reverse indexes.
+     */
+    List<WhereUsedResponse> findWhereUsed(UUID rawMaterialId);
+}
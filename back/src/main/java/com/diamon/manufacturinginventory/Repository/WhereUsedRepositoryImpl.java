@@ -0,0 +1,55 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.WhereUsedResponse;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One recursive query: the lines using the material directly come from the raw material index, and
+ * each further level from the sub-assembly index. Both indexes include the parent product and the
+ * quantity, so the walk never reads the recipe table itself. Recipes cannot contain themselves, but
+ * the depth is capped anyway so a bad row cannot make the query run away.
+ */
+public class WhereUsedRepositoryImpl implements WhereUsedRepository {
+
+    private static final int MAX_DEPTH = 64;
+    private static final String WHERE_USED = """
+            with recursive uses (product_id, quantity, depth) as (
+                select product_id, cast(required_quantity as bigint), 1
+                from product_recipes
+                where raw_product_id = :rawMaterialId
+                union all
+                select r.product_id, u.quantity * r.required_quantity, u.depth + 1
+                from product_recipes r
+                join uses u on r.component_product_id = u.product_id
+                where u.depth < :maxDepth
+            )
+            select p.id, p.code, p.name, sum(u.quantity) as quantity, min(u.depth) = 1 as direct
+            from uses u
+            join product p on p.id = u.product_id
+            group by p.id, p.code, p.name
+            order by p.code, p.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public WhereUsedRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<WhereUsedResponse> findWhereUsed(UUID rawMaterialId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("rawMaterialId", rawMaterialId)
+                .addValue("maxDepth", MAX_DEPTH);
+        return jdbcTemplate.query(WHERE_USED, params, (rs, row) -> new WhereUsedResponse(
+                rs.getObject("id", UUID.class),
+                rs.getString("code"),
+                rs.getString("name"),
+                rs.getLong("quantity"),
+                rs.getBoolean("direct")));
+    }
+}
@@ -0,0 +1,287 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Multi-level bill of materials. Keeps the direct recipe lines of every product in memory
+ * and memoizes the flattened raw-material requirement of one unit of each product, so a deep
+ * sub-assembly tree is walked once and then read like a flat recipe.
+ * <p>
+ * When the recipe of a product changes only that product and its ancestors (the products
+ * that use it, directly or through other sub-assemblies) are invalidated. Listeners registered
+ * through {@link #addInvalidationListener(Consumer)} are told which products were affected;
+ * {@code null} means everything must be reloaded.
+ * <p>
+ * The change events only come from this node. Recipe lines written by another node move the stored
+ * recipes version instead, which {@link #refresh()} compares with the one the lines were loaded at;
+ * a read that needs the lines current calls it once before using them.
+ */
+@Component
+public class BillOfMaterialsExplosion {
+
+    private final ProductRecipeRepository productRecipeRepository;
+    private final CatalogVersions catalogVersions;
+    private final SeenVersions versions = new SeenVersions(CatalogAggregate.RECIPES);
+
+    private final Map<UUID, List<BillOfMaterialLine>> linesByProduct = new HashMap<>();
+    private final Map<UUID, Set<UUID>> parentsByComponent = new HashMap<>();
+    private final Map<UUID, Map<UUID, Long>> flattened = new HashMap<>();
+    private boolean loaded;
+
+    private final List<Consumer<Set<UUID>>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public BillOfMaterialsExplosion(ProductRecipeRepository productRecipeRepository, CatalogVersions catalogVersions) {
+        this.productRecipeRepository = productRecipeRepository;
+        this.catalogVersions = catalogVersions;
+        catalogVersions.addCommitListener(versions::committed);
+    }
+
+    public void addInvalidationListener(Consumer<Set<UUID>> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    /**
+     * Drops everything when another node changed the recipes since they were loaded, with one
+     * query for the stored versions.
+     */
+    public void refresh() {
+        refresh(catalogVersions.current());
+    }
+
+    void refresh(Map<CatalogAggregate, Long> current) {
+        synchronized (this) {
+            if (!loaded || versions.changed(current).isEmpty()) return;
+            loaded = false;
+        }
+        notifyListeners(null);
+    }
+
+    /**
+     * Raw material id to quantity needed for one unit of the product; empty when the product has no recipe.
+     */
+    public synchronized Map<UUID, Long> explode(UUID productId) {
+        ensureLoaded();
+        return explode(productId, new HashSet<>());
+    }
+
+    public synchronized boolean hasRecipe(UUID productId) {
+        ensureLoaded();
+        return linesByProduct.containsKey(productId);
+    }
+
+    public synchronized Set<UUID> productsWithRecipe() {
+        ensureLoaded();
+        return Set.copyOf(linesByProduct.keySet());
+    }
+
+    /**
+     * The direct lines and the flattened requirement of every product with a recipe.
+     */
+    public record Snapshot(Map<UUID, List<BillOfMaterialLine>> lines, Map<UUID, Map<UUID, Long>> requirements) {
+
+        /**
+         * Built from recipe lines the caller read itself, so that they agree with whatever else it
+         * read in the same transaction instead of with the memo.
+         */
+        public static Snapshot of(List<BillOfMaterialLine> recipeLines) {
+            Map<UUID, List<BillOfMaterialLine>> lines = new HashMap<>();
+            for (BillOfMaterialLine line : recipeLines) {
+                lines.computeIfAbsent(line.productId(), id -> new ArrayList<>()).add(line);
+            }
+            lines.replaceAll((productId, productLines) -> List.copyOf(productLines));
+            Map<UUID, Map<UUID, Long>> requirements = new HashMap<>();
+            for (UUID productId : lines.keySet()) {
+                explode(productId, lines, requirements, new HashSet<>());
+            }
+            return new Snapshot(Map.copyOf(lines), Map.copyOf(requirements));
+        }
+    }
+
+    /**
+     * True when using {@code componentProductId} inside the recipe of {@code productId} would make a
+     * product (indirectly) contain itself. Refreshes the lines first.
+     */
+    public boolean createsCycle(UUID productId, UUID componentProductId) {
+        refresh();
+        return createsCycle(productId, componentProductId, id -> null);
+    }
+
+    /**
+     * Same as {@link #createsCycle(UUID, UUID)}, also following component links that are about to be
+     * written but are not stored yet (from a product id to its pending component product ids, or
+     * null when it has none). Does not refresh, so a caller checking many links refreshes once.
+     */
+    public synchronized boolean createsCycle(UUID productId, UUID componentProductId,
+                                             Function<UUID, ? extends Collection<UUID>> pendingComponents) {
+        ensureLoaded();
+        Deque<UUID> pending = new ArrayDeque<>();
+        Set<UUID> visited = new HashSet<>();
+        pending.push(componentProductId);
+        while (!pending.isEmpty()) {
+            UUID current = pending.pop();
+            if (current.equals(productId)) return true;
+            if (!visited.add(current)) continue;
+            for (BillOfMaterialLine line : linesByProduct.getOrDefault(current, List.of())) {
+                if (line.componentProductId() != null) pending.push(line.componentProductId());
+            }
+            Collection<UUID> notStoredYet = pendingComponents.apply(current);
+            if (notStoredYet != null) notStoredYet.forEach(pending::push);
+        }
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Set<UUID> affected;
+        synchronized (this) {
+            if (!loaded) return;
+            unlink(event.productId());
+            List<BillOfMaterialLine> lines = productRecipeRepository.findBillOfMaterialLinesByProductId(event.productId());
+            link(event.productId(), lines);
+            affected = invalidate(event.productId());
+        }
+        notifyListeners(affected);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        Set<UUID> affected;
+        synchronized (this) {
+            if (!loaded) return;
+            affected = invalidate(event.productId());
+            unlink(event.productId());
+            Set<UUID> parents = parentsByComponent.remove(event.productId());
+            if (parents != null) {
+                for (UUID parent : parents) {
+                    List<BillOfMaterialLine> remaining = linesByProduct.get(parent).stream()
+                            .filter(line -> !event.productId().equals(line.componentProductId()))
+                            .toList();
+                    if (remaining.isEmpty()) linesByProduct.remove(parent); else linesByProduct.put(parent, remaining);
+                }
+            }
+        }
+        notifyListeners(affected);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialDeleted(RawMaterialDeletedEvent event) {
+        synchronized (this) {
+            if (!loaded) return;
+            // the recipe lines using the material were removed by the database cascade
+            loaded = false;
+        }
+        notifyListeners(null);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        versions.loaded(catalogVersions.current());
+        linesByProduct.clear();
+        parentsByComponent.clear();
+        flattened.clear();
+        Map<UUID, List<BillOfMaterialLine>> grouped = new HashMap<>();
+        for (BillOfMaterialLine line : productRecipeRepository.findAllBillOfMaterialLines()) {
+            grouped.computeIfAbsent(line.productId(), id -> new ArrayList<>()).add(line);
+        }
+        grouped.forEach(this::link);
+        loaded = true;
+    }
+
+    private Map<UUID, Long> explode(UUID productId, Set<UUID> path) {
+        return explode(productId, linesByProduct, flattened, path);
+    }
+
+    private static Map<UUID, Long> explode(UUID productId, Map<UUID, List<BillOfMaterialLine>> linesByProduct,
+                                           Map<UUID, Map<UUID, Long>> flattened, Set<UUID> path) {
+        Map<UUID, Long> cached = flattened.get(productId);
+        if (cached != null) return cached;
+        if (!path.add(productId)) {
+            throw new IllegalStateException("Recipe cycle detected at product " + productId);
+        }
+
+        Map<UUID, Long> requirement = new HashMap<>();
+        for (BillOfMaterialLine line : linesByProduct.getOrDefault(productId, List.of())) {
+            if (line.rawMaterialId() != null) {
+                requirement.merge(line.rawMaterialId(), (long) line.requiredQuantity(), Long::sum);
+            } else {
+                Map<UUID, Long> component = explode(line.componentProductId(), linesByProduct, flattened, path);
+                for (Map.Entry<UUID, Long> entry : component.entrySet()) {
+                    requirement.merge(entry.getKey(), entry.getValue() * line.requiredQuantity(), Long::sum);
+                }
+            }
+        }
+        path.remove(productId);
+
+        Map<UUID, Long> result = Collections.unmodifiableMap(requirement);
+        flattened.put(productId, result);
+        return result;
+    }
+
+    private void link(UUID productId, List<BillOfMaterialLine> lines) {
+        if (lines.isEmpty()) return;
+        linesByProduct.put(productId, List.copyOf(lines));
+        for (BillOfMaterialLine line : lines) {
+            if (line.componentProductId() != null) {
+                parentsByComponent.computeIfAbsent(line.componentProductId(), id -> new HashSet<>()).add(productId);
+            }
+        }
+    }
+
+    private void unlink(UUID productId) {
+        List<BillOfMaterialLine> previous = linesByProduct.remove(productId);
+        if (previous == null) return;
+        for (BillOfMaterialLine line : previous) {
+            if (line.componentProductId() == null) continue;
+            Set<UUID> parents = parentsByComponent.get(line.componentProductId());
+            if (parents != null) {
+                parents.remove(productId);
+                if (parents.isEmpty()) parentsByComponent.remove(line.componentProductId());
+            }
+        }
+    }
+
+    /**
+     * Drops the memoized requirement of the product and of every ancestor, returning all of them.
+     */
+    private Set<UUID> invalidate(UUID productId) {
+        Set<UUID> affected = new LinkedHashSet<>();
+        Deque<UUID> pending = new ArrayDeque<>();
+        pending.push(productId);
+        while (!pending.isEmpty()) {
+            UUID current = pending.pop();
+            if (!affected.add(current)) continue;
+            flattened.remove(current);
+            pending.addAll(parentsByComponent.getOrDefault(current, Set.of()));
+        }
+        return affected;
+    }
+
+    private void notifyListeners(Set<UUID> affected) {
+        for (Consumer<Set<UUID>> listener : invalidationListeners) {
+            listener.accept(affected);
+        }
+    }
+}
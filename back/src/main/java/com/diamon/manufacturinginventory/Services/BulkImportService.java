@@ -0,0 +1,553 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Import.ImportReport;
+import com.diamon.manufacturinginventory.DTOs.Import.ImportRowError;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeImportRow;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialsRequest;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import com.diamon.manufacturinginventory.Entity.UuidV7Generator;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of raw materials, products and recipe lines from a streamed CSV or JSON array body.
+ * <p>
+ * Rows are validated with the same constraints as the single-row endpoints and written in chunks,
+ * one transaction per chunk. The codes of a chunk are looked up with a single query before
+ * writing, which tells inserts from updates, and each chunk is then written with one insert and one
+ * update over column arrays that return the rows they wrote, so duplicate codes are reported per
+ * row instead of failing the batch. A chunk the database rejects is rolled back and all its rows
+ * are reported; the chunks before and after it are kept.
+ * <p>
+ * Change events are published per written row, so the suggestion cache and the bill of materials
+ * pick the rows up after each chunk commits.
+ */
+@Service
+public class BulkImportService {
+
+    private static final String INSERT_RAW_MATERIALS = """
+            insert into raw_materials (id, code, name, stock_quantity)
+            select * from unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::integer[])
+            on conflict (code) do nothing
+            returning id, code""";
+    private static final String UPDATE_RAW_MATERIALS = """
+            update raw_materials r set name = t.name, stock_quantity = t.stock_quantity
+            from unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::integer[]) as t(id, code, name, stock_quantity)
+            where r.id = t.id
+            returning r.id, r.code""";
+    private static final String INSERT_PRODUCTS = """
+            insert into product (id, code, name, price)
+            select * from unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::numeric[])
+            on conflict (code) do nothing
+            returning id, code""";
+    private static final String UPDATE_PRODUCTS = """
+            update product p set name = t.name, price = t.price
+            from unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::numeric[]) as t(id, code, name, price)
+            where p.id = t.id
+            returning p.id, p.code""";
+    private static final String INSERT_RECIPES = """
+            insert into product_recipes (id, product_id, raw_product_id, component_product_id, required_quantity)
+            select * from unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::uuid[], ?::integer[])
+            on conflict do nothing
+            returning id""";
+
+    private static final String[] RAW_MATERIAL_TYPES = {"uuid", "varchar", "varchar", "int4"};
+    private static final String[] PRODUCT_TYPES = {"uuid", "varchar", "varchar", "numeric"};
+    private static final String[] RECIPE_TYPES = {"uuid", "uuid", "uuid", "uuid", "int4"};
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BillOfMaterialsExplosion billOfMaterials;
+    private final StockMovementRepository stockMovementRepository;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BulkImportService(NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             BillOfMaterialsExplosion billOfMaterials,
+                             StockMovementRepository stockMovementRepository,
+                             CatalogVersions catalogVersions,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${inventory.import.chunk-size:1000}") int chunkSize,
+                             @Value("${inventory.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.billOfMaterials = billOfMaterials;
+        this.stockMovementRepository = stockMovementRepository;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importRawMaterials(ImportFormat format, ImportMode mode, InputStream body) throws IOException {
+        return run(format, body, RawMaterialsRequest.class, RawMaterialsRequest::code,
+                chunk -> writeRawMaterials(chunk, mode));
+    }
+
+    public ImportReport importProducts(ImportFormat format, ImportMode mode, InputStream body) throws IOException {
+        return run(format, body, ProductRequest.class, ProductRequest::code,
+                chunk -> writeProducts(chunk, mode));
+    }
+
+    /**
+     * Recipe lines are only inserted: a product lists each raw material and each component once, so
+     * a line for a pair it already has is reported rather than updated. The component links of a
+     * chunk join the ones checked for cycles only once the chunk has committed.
+     */
+    public ImportReport importRecipes(ImportFormat format, InputStream body) throws IOException {
+        Map<UUID, Set<UUID>> committedComponents = new HashMap<>();
+        return run(format, body, RecipeImportRow.class, RecipeImportRow::productCode,
+                chunk -> writeRecipes(chunk, committedComponents),
+                result -> result.components.forEach((productId, components) ->
+                        committedComponents.computeIfAbsent(productId, id -> new HashSet<>()).addAll(components)));
+    }
+
+    private <T> ImportReport run(ImportFormat format, InputStream body, Class<T> type,
+                                 Function<T, String> key, Function<List<ImportRowReader.Row<T>>, ChunkResult> writer)
+            throws IOException {
+        return run(format, body, type, key, writer, result -> {
+        });
+    }
+
+    private <T> ImportReport run(ImportFormat format, InputStream body, Class<T> type,
+                                 Function<T, String> key, Function<List<ImportRowReader.Row<T>>, ChunkResult> writer,
+                                 Consumer<ChunkResult> committed)
+            throws IOException {
+        long start = System.nanoTime();
+        Report report = new Report(maxReportedErrors);
+        List<ImportRowReader.Row<T>> chunk = new ArrayList<>(chunkSize);
+        try (ImportRowReader<T> reader = ImportRowReader.open(format, body, type, objectMapper)) {
+            ImportRowReader.Row<T> row;
+            while ((row = reader.next()) != null) {
+                report.processed++;
+                if (row.error() != null) {
+                    report.fail(row.number(), null, row.error());
+                    continue;
+                }
+                String violations = validate(row.value());
+                if (violations != null) {
+                    report.fail(row.number(), key.apply(row.value()), violations);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    flush(chunk, key, writer, committed, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, key, writer, committed, report);
+        }
+        return report.toImportReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private <T> void flush(List<ImportRowReader.Row<T>> chunk, Function<T, String> key,
+                           Function<List<ImportRowReader.Row<T>>, ChunkResult> writer,
+                           Consumer<ChunkResult> committed, Report report) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> writer.apply(chunk));
+        } catch (DataAccessException e) {
+            String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (ImportRowReader.Row<T> row : chunk) {
+                report.fail(row.number(), key.apply(row.value()), message);
+            }
+            return;
+        }
+        committed.accept(result);
+        report.merge(result);
+    }
+
+    /**
+     * The existing rows of the chunk are locked while they are read, so the stock they had can be
+     * turned into exact ledger movements: a receipt for a new row, an adjustment for an updated one.
+     */
+    private ChunkResult writeRawMaterials(List<ImportRowReader.Row<RawMaterialsRequest>> chunk, ImportMode mode) {
+        ChunkResult result = new ChunkResult();
+        Map<String, Integer> stock = new HashMap<>();
+        List<PendingWrite<RawMaterialsRequest>> written = write(chunk, RawMaterialsRequest::code, mode,
+                codes -> lockRawMaterials(codes, stock),
+                INSERT_RAW_MATERIALS, UPDATE_RAW_MATERIALS, RAW_MATERIAL_TYPES,
+                (id, request) -> new Object[]{id, request.code(), request.name(), request.stockQuantity()},
+                result);
+        List<StockMovement> movements = new ArrayList<>();
+        for (PendingWrite<RawMaterialsRequest> write : written) {
+            RawMaterialsRequest request = write.row().value();
+            long change = (long) request.stockQuantity() - (write.update() ? stock.getOrDefault(write.code(), 0) : 0);
+            if (change != 0) {
+                movements.add(StockMovement.now(write.id(),
+                        write.update() ? StockMovementType.ADJUSTMENT : StockMovementType.RECEIPT, change, "import"));
+            }
+            eventPublisher.publishEvent(new RawMaterialChangedEvent(
+                    write.id(), request.code(), request.name(), request.stockQuantity()));
+        }
+        stockMovementRepository.append(movements);
+        markChanged(result, CatalogAggregate.RAW_MATERIALS);
+        return result;
+    }
+
+    private ChunkResult writeProducts(List<ImportRowReader.Row<ProductRequest>> chunk, ImportMode mode) {
+        ChunkResult result = new ChunkResult();
+        List<PendingWrite<ProductRequest>> written = write(chunk, ProductRequest::code, mode,
+                codes -> idsByCode("product", codes),
+                INSERT_PRODUCTS, UPDATE_PRODUCTS, PRODUCT_TYPES,
+                (id, request) -> new Object[]{id, request.code(), request.name(), request.price()},
+                result);
+        for (PendingWrite<ProductRequest> write : written) {
+            ProductRequest request = write.row().value();
+            eventPublisher.publishEvent(new ProductChangedEvent(
+                    write.id(), request.code(), request.name(), request.price()));
+        }
+        markChanged(result, CatalogAggregate.PRODUCTS);
+        return result;
+    }
+
+    private ChunkResult writeRecipes(List<ImportRowReader.Row<RecipeImportRow>> chunk,
+                                     Map<UUID, Set<UUID>> committedComponents) {
+        billOfMaterials.refresh();
+        ChunkResult result = new ChunkResult();
+        Set<String> productCodes = new HashSet<>();
+        Set<String> rawMaterialCodes = new HashSet<>();
+        for (ImportRowReader.Row<RecipeImportRow> row : chunk) {
+            productCodes.add(row.value().productCode());
+            if (row.value().usesComponentProduct()) {
+                productCodes.add(row.value().componentProductCode());
+            } else {
+                rawMaterialCodes.add(row.value().rawMaterialCode());
+            }
+        }
+        Map<String, UUID> productIds = idsByCode("product", productCodes);
+        Map<String, UUID> rawMaterialIds = idsByCode("raw_materials", rawMaterialCodes);
+
+        List<Object[]> params = new ArrayList<>(chunk.size());
+        List<ImportRowReader.Row<RecipeImportRow>> pending = new ArrayList<>(chunk.size());
+        for (ImportRowReader.Row<RecipeImportRow> row : chunk) {
+            RecipeImportRow line = row.value();
+            UUID productId = productIds.get(line.productCode());
+            if (productId == null) {
+                result.fail(row.number(), line.productCode(), "Product not found: " + line.productCode());
+                continue;
+            }
+            UUID rawMaterialId = null;
+            UUID componentId = null;
+            if (line.usesComponentProduct()) {
+                componentId = productIds.get(line.componentProductCode());
+                if (componentId == null) {
+                    result.fail(row.number(), line.productCode(), "Component product not found: " + line.componentProductCode());
+                    continue;
+                }
+                if (billOfMaterials.createsCycle(productId, componentId,
+                        id -> union(committedComponents.get(id), result.components.get(id)))) {
+                    result.fail(row.number(), line.productCode(),
+                            "Product " + line.componentProductCode() + " already contains " + line.productCode());
+                    continue;
+                }
+                result.components.computeIfAbsent(productId, id -> new HashSet<>()).add(componentId);
+            } else {
+                rawMaterialId = rawMaterialIds.get(line.rawMaterialCode());
+                if (rawMaterialId == null) {
+                    result.fail(row.number(), line.productCode(), "Raw material not found: " + line.rawMaterialCode());
+                    continue;
+                }
+            }
+            params.add(new Object[]{UuidV7Generator.next(), productId, rawMaterialId, componentId, line.quantity()});
+            pending.add(row);
+        }
+
+        // a line whose pair is already stored, or repeated earlier in the chunk, is skipped by the
+        // unique constraints and missing from the returned ids
+        Set<UUID> inserted = new HashSet<>();
+        if (!params.isEmpty()) {
+            writeColumns(INSERT_RECIPES, RECIPE_TYPES, params, rs -> {
+                inserted.add(rs.getObject("id", UUID.class));
+            });
+        }
+        Set<UUID> changedProducts = new LinkedHashSet<>();
+        for (int i = 0; i < params.size(); i++) {
+            RecipeImportRow line = pending.get(i).value();
+            if (inserted.contains((UUID) params.get(i)[0])) {
+                result.inserted++;
+                changedProducts.add((UUID) params.get(i)[1]);
+            } else {
+                result.fail(pending.get(i).number(), line.productCode(), "Product " + line.productCode() + " already uses "
+                        + (line.usesComponentProduct() ? line.componentProductCode() : line.rawMaterialCode()));
+            }
+        }
+        if (!changedProducts.isEmpty()) {
+            catalogVersions.changed(CatalogAggregate.RECIPES);
+        }
+        for (UUID productId : changedProducts) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(productId));
+        }
+        return result;
+    }
+
+    /**
+     * Writes the rows of a chunk by code and returns the ones written, in row order.
+     * <p>
+     * New codes go in with one insert that skips the ones already taken and existing codes with
+     * one update, and both return the rows they wrote, so the outcome of every row comes from the
+     * database itself. A code that another writer inserted after the lookup is reported as
+     * existing in insert mode; in upsert mode it is looked up again and updated.
+     */
+    private <T> List<PendingWrite<T>> write(List<ImportRowReader.Row<T>> chunk, Function<T, String> key, ImportMode mode,
+                                            Function<Collection<String>, Map<String, UUID>> lookup,
+                                            String insertSql, String updateSql, String[] types,
+                                            BiFunction<UUID, T, Object[]> columns, ChunkResult result) {
+        List<ImportRowReader.Row<T>> rows = distinctCodes(chunk, key, mode, result);
+        Map<String, UUID> ids = lookup.apply(rows.stream().map(row -> key.apply(row.value())).toList());
+        List<PendingWrite<T>> inserts = new ArrayList<>();
+        List<PendingWrite<T>> updates = new ArrayList<>();
+        for (ImportRowReader.Row<T> row : rows) {
+            String code = key.apply(row.value());
+            UUID id = ids.get(code);
+            if (id == null) {
+                inserts.add(new PendingWrite<>(row, code, UuidV7Generator.next(), false));
+            } else if (mode == ImportMode.INSERT) {
+                result.fail(row.number(), code, "Code already exists: " + code);
+            } else {
+                updates.add(new PendingWrite<>(row, code, id, true));
+            }
+        }
+
+        Map<String, PendingWrite<T>> written = new HashMap<>();
+        Set<String> inserted = writeReturningCodes(insertSql, types, inserts, columns);
+        List<PendingWrite<T>> raced = new ArrayList<>();
+        for (PendingWrite<T> write : inserts) {
+            if (inserted.contains(write.code())) written.put(write.code(), write); else raced.add(write);
+        }
+        if (mode == ImportMode.UPSERT && !raced.isEmpty()) {
+            Map<String, UUID> racedIds = lookup.apply(raced.stream().map(PendingWrite::code).toList());
+            for (PendingWrite<T> write : raced) {
+                UUID id = racedIds.get(write.code());
+                if (id != null) updates.add(new PendingWrite<>(write.row(), write.code(), id, true));
+            }
+        }
+        Set<String> updated = writeReturningCodes(updateSql, types, updates, columns);
+        for (PendingWrite<T> write : updates) {
+            if (updated.contains(write.code())) written.put(write.code(), write);
+        }
+
+        List<PendingWrite<T>> inRowOrder = new ArrayList<>(written.size());
+        for (ImportRowReader.Row<T> row : rows) {
+            String code = key.apply(row.value());
+            PendingWrite<T> write = written.get(code);
+            if (write != null) {
+                inRowOrder.add(write);
+                if (write.update()) result.updated++; else result.inserted++;
+            } else if (mode == ImportMode.UPSERT) {
+                result.fail(row.number(), code, "Code was deleted during the import: " + code);
+            } else if (!ids.containsKey(code)) {
+                result.fail(row.number(), code, "Code already exists: " + code);
+            }
+        }
+        return inRowOrder;
+    }
+
+    /**
+     * Keeps one row per code, since one statement cannot write the same row twice. In insert mode
+     * the first occurrence is kept and the repeats are reported as existing codes; in upsert mode
+     * the last occurrence wins and the ones it replaces count as updates.
+     */
+    private static <T> List<ImportRowReader.Row<T>> distinctCodes(List<ImportRowReader.Row<T>> chunk,
+                                                                  Function<T, String> key, ImportMode mode,
+                                                                  ChunkResult result) {
+        Map<String, ImportRowReader.Row<T>> byCode = new LinkedHashMap<>();
+        for (ImportRowReader.Row<T> row : chunk) {
+            String code = key.apply(row.value());
+            ImportRowReader.Row<T> previous = byCode.putIfAbsent(code, row);
+            if (previous == null) continue;
+            if (mode == ImportMode.INSERT) {
+                result.fail(row.number(), code, "Code already exists: " + code);
+            } else {
+                byCode.remove(code);
+                byCode.put(code, row);
+                result.superseded++;
+            }
+        }
+        return new ArrayList<>(byCode.values());
+    }
+
+    /**
+     * Runs one insert or update over column arrays and returns the codes of the rows it wrote.
+     */
+    private <T> Set<String> writeReturningCodes(String sql, String[] types, List<PendingWrite<T>> writes,
+                                                BiFunction<UUID, T, Object[]> columns) {
+        Set<String> codes = new HashSet<>();
+        if (writes.isEmpty()) return codes;
+        List<Object[]> rows = new ArrayList<>(writes.size());
+        for (PendingWrite<T> write : writes) {
+            rows.add(columns.apply(write.id(), write.row().value()));
+        }
+        writeColumns(sql, types, rows, rs -> {
+            codes.add(rs.getString("code"));
+        });
+        return codes;
+    }
+
+    /**
+     * Runs one statement with every column of the rows bound as an array, handing each row it
+     * returns to the handler.
+     */
+    private void writeColumns(String sql, String[] types, List<Object[]> rows, RowCallbackHandler handler) {
+        Object[][] values = new Object[types.length][rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            for (int column = 0; column < types.length; column++) {
+                values[column][i] = rows.get(i)[column];
+            }
+        }
+        jdbcTemplate.getJdbcTemplate().query(
+                (Connection connection) -> {
+                    PreparedStatement statement = connection.prepareStatement(sql);
+                    for (int column = 0; column < types.length; column++) {
+                        statement.setArray(column + 1, connection.createArrayOf(types[column], values[column]));
+                    }
+                    return statement;
+                },
+                handler);
+    }
+
+    private static Collection<UUID> union(Collection<UUID> first, Collection<UUID> second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        List<UUID> both = new ArrayList<>(first);
+        both.addAll(second);
+        return both;
+    }
+
+    /**
+     * Updated rows may have been renamed, which shows in the recipe details as well.
+     */
+    private void markChanged(ChunkResult result, CatalogAggregate aggregate) {
+        if (result.updated > 0) {
+            catalogVersions.changed(aggregate, CatalogAggregate.RECIPES);
+        } else if (result.inserted > 0) {
+            catalogVersions.changed(aggregate);
+        }
+    }
+
+    private Map<String, UUID> lockRawMaterials(Collection<String> codes, Map<String, Integer> stock) {
+        Map<String, UUID> ids = new HashMap<>();
+        if (codes.isEmpty()) return ids;
+        jdbcTemplate.query("select id, code, stock_quantity from raw_materials where code in (:codes) order by id for update",
+                Map.of("codes", Set.copyOf(codes)),
+                (ResultSet rs) -> {
+                    ids.put(rs.getString("code"), rs.getObject("id", UUID.class));
+                    stock.put(rs.getString("code"), rs.getInt("stock_quantity"));
+                });
+        return ids;
+    }
+
+    private Map<String, UUID> idsByCode(String table, Collection<String> codes) {
+        Map<String, UUID> ids = new HashMap<>();
+        if (codes.isEmpty()) return ids;
+        jdbcTemplate.query("select id, code from " + table + " where code in (:codes)",
+                Map.of("codes", Set.copyOf(codes)),
+                (ResultSet rs) -> {
+                    ids.put(rs.getString("code"), rs.getObject("id", UUID.class));
+                });
+        return ids;
+    }
+
+    private <T> String validate(T value) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record PendingWrite<T>(ImportRowReader.Row<T> row, String code, UUID id, boolean update) {
+    }
+
+    private static final class ChunkResult {
+        private long inserted;
+        private long updated;
+        private long superseded;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final Map<UUID, Set<UUID>> components = new HashMap<>();
+
+        private void fail(long row, String key, String message) {
+            errors.add(new ImportRowError(row, key, message));
+        }
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long processed;
+        private long inserted;
+        private long updated;
+        private long failed;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long row, String key, String message) {
+            failed++;
+            if (errors.size() < maxErrors) errors.add(new ImportRowError(row, key, message));
+        }
+
+        private void merge(ChunkResult result) {
+            inserted += result.inserted;
+            updated += result.updated + result.superseded;
+            for (ImportRowError error : result.errors) {
+                fail(error.row(), error.key(), error.message());
+            }
+        }
+
+        private ImportReport toImportReport(long elapsedMillis) {
+            return new ImportReport(processed, inserted, updated, failed, elapsedMillis,
+                    List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
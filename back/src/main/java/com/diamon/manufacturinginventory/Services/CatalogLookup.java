@@ -0,0 +1,76 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Entity.Product;
+import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cached lookups of products and raw materials by id, for resolving the references of new recipe
+ * lines. The returned instances are detached and shared between callers: they may be referenced
+ * from new recipe lines but must never be modified, and an entity changed by the current
+ * transaction must not be read through here. Updates go through the repositories, which return
+ * managed entities.
+ * <p>
+ * Every write path publishes a changed or deleted event, and the entry is evicted once that
+ * transaction has committed. Loads are synchronized per key, and an eviction waits for a load of
+ * the same key in progress, so a value read before a commit cannot be stored after that commit's
+ * eviction. Only this node's events evict, though: a write committed by another node shows up here
+ * only when the entry expires. The cached names, prices and stock are therefore never returned to
+ * clients; the read endpoints go to the repositories.
+ */
+@Component
+public class CatalogLookup {
+
+    public static final String PRODUCTS = "products";
+    public static final String RAW_MATERIALS = "rawMaterials";
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+
+    public CatalogLookup(ProductRepository productRepository, RawMaterialsRepository rawMaterialsRepository) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+    }
+
+    @Cacheable(cacheNames = PRODUCTS, sync = true)
+    public Optional<Product> product(UUID id) {
+        return productRepository.findById(id);
+    }
+
+    @Cacheable(cacheNames = RAW_MATERIALS, sync = true)
+    public Optional<RawMaterials> rawMaterial(UUID id) {
+        return rawMaterialsRepository.findById(id);
+    }
+
+    @CacheEvict(cacheNames = PRODUCTS, key = "#event.productId()")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+    }
+
+    @CacheEvict(cacheNames = PRODUCTS, key = "#event.productId()")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+    }
+
+    @CacheEvict(cacheNames = RAW_MATERIALS, key = "#event.rawMaterialId()")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+    }
+
+    @CacheEvict(cacheNames = RAW_MATERIALS, key = "#event.rawMaterialId()")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialDeleted(RawMaterialDeletedEvent event) {
+    }
+}
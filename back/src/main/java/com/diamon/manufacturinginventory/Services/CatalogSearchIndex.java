@@ -0,0 +1,186 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchMatch;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResultType;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over the codes and names of products and raw materials.
+ * <p>
+ * Each index is a sorted map from the lower-cased code or name, followed by the id to keep the keys
+ * unique, to the entity. The keys that start with a prefix are a contiguous range of it, and a
+ * term comes before all of its extensions there. Exact matches therefore come first, and the
+ * top {@code k} of a prefix are the first {@code k} entries of the range. This holds however many
+ * entities share the prefix. Reads do not lock. The maps are loaded with one query per table on
+ * first use and then follow the change events of the write paths once their transaction has
+ * committed. Stock changes do not touch the index, since the code and name stay the same.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparing((Hit hit) -> hit.result().match())
+            .thenComparing(Hit::key);
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+
+    private final ConcurrentSkipListMap<String, Entry> codes = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Entry> names = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private volatile boolean loaded;
+
+    public CatalogSearchIndex(ProductRepository productRepository, RawMaterialsRepository rawMaterialsRepository) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+    }
+
+    /**
+     * The best {@code limit} products and raw materials whose code or name starts with the query,
+     * ignoring case: exact codes, exact names, code prefixes and then name prefixes, each in
+     * alphabetical order. An entity matching in several ways is listed once, with its best match.
+     */
+    public List<SearchResult> search(String query, int limit) {
+        if (!loaded) {
+            synchronized (this) {
+                ensureLoaded();
+            }
+        }
+        String prefix = normalize(query);
+        if (prefix.indexOf(SEPARATOR) >= 0) return List.of();
+        Map<UUID, Hit> hits = new LinkedHashMap<>();
+        collect(codes, prefix, limit, hits, SearchMatch.EXACT_CODE, SearchMatch.CODE_PREFIX);
+        collect(names, prefix, limit, hits, SearchMatch.EXACT_NAME, SearchMatch.NAME_PREFIX);
+        return hits.values().stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(Hit::result)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        put(new Entry(SearchResultType.RAW_MATERIAL, event.rawMaterialId(), event.code(), event.name()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialDeleted(RawMaterialDeletedEvent event) {
+        remove(event.rawMaterialId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        put(new Entry(SearchResultType.PRODUCT, event.productId(), event.code(), event.name()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    // the first collected hits of an index are its best ones; a later hit only improves an entity already listed
+    private static void collect(ConcurrentSkipListMap<String, Entry> index, String prefix, int limit,
+                                Map<UUID, Hit> hits, SearchMatch exact, SearchMatch partial) {
+        int added = 0;
+        for (Map.Entry<String, Entry> candidate : index.tailMap(prefix).entrySet()) {
+            String key = candidate.getKey();
+            if (!key.startsWith(prefix)) break;
+            SearchMatch match = key.charAt(prefix.length()) == SEPARATOR ? exact : partial;
+            Hit hit = new Hit(candidate.getValue().toResult(match), key);
+            Hit previous = hits.get(hit.result().id());
+            if (previous == null) {
+                hits.put(hit.result().id(), hit);
+                if (++added == limit) return;
+            } else if (RANKING.compare(hit, previous) < 0) {
+                hits.put(hit.result().id(), hit);
+            }
+        }
+    }
+
+    private synchronized void put(Entry entry) {
+        // not loaded yet: the load reads the committed row
+        if (!loaded) return;
+        Entry previous = entries.put(entry.id(), entry);
+        if (entry.equals(previous)) return;
+        // the new keys go in before the old ones leave, so a concurrent search always finds the entity
+        index(codes, entry.code(), entry);
+        index(names, entry.name(), entry);
+        if (previous != null) {
+            unindex(codes, previous.code(), previous, entry.code());
+            unindex(names, previous.name(), previous, entry.name());
+        }
+    }
+
+    private synchronized void remove(UUID id) {
+        if (!loaded) return;
+        Entry previous = entries.remove(id);
+        if (previous == null) return;
+        unindex(codes, previous.code(), previous, null);
+        unindex(names, previous.name(), previous, null);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        for (ProductResponse product : productRepository.findAllResponses()) {
+            add(new Entry(SearchResultType.PRODUCT, product.id(), product.code(), product.name()));
+        }
+        for (RawMaterialResponse material : rawMaterialsRepository.findAllResponses()) {
+            add(new Entry(SearchResultType.RAW_MATERIAL, material.id(), material.code(), material.name()));
+        }
+        loaded = true;
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id(), entry);
+        index(codes, entry.code(), entry);
+        index(names, entry.name(), entry);
+    }
+
+    private static void index(ConcurrentSkipListMap<String, Entry> index, String term, Entry entry) {
+        if (term != null) index.put(key(term, entry.id()), entry);
+    }
+
+    private static void unindex(ConcurrentSkipListMap<String, Entry> index, String term, Entry entry, String currentTerm) {
+        if (term == null || Objects.equals(normalize(term), currentTerm == null ? null : normalize(currentTerm))) return;
+        index.remove(key(term, entry.id()));
+    }
+
+    private static String key(String term, UUID id) {
+        return normalize(term) + SEPARATOR + id;
+    }
+
+    static String normalize(String term) {
+        return term.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(SearchResultType type, UUID id, String code, String name) {
+
+        private SearchResult toResult(SearchMatch match) {
+            return new SearchResult(type, id, code, name, match);
+        }
+    }
+
+    private record Hit(SearchResult result, String key) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Entity.CatalogVersion;
+import com.diamon.manufacturinginventory.Repository.CatalogVersionRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Versions of the polled catalog lists, kept in the database so every node sees the same value
+ * and they survive restarts. They drive the ETags of the list endpoints.
+ * <p>
+ * A write path calls {@link #changed} inside its transaction. The versions are incremented just
+ * before that transaction commits, once per aggregate however many rows changed, so the version
+ * and the data it describes become visible together. Writers of the same aggregate queue on the
+ * version row only for the time it takes to commit.
+ * <p>
+ * The in-memory views compare the versions they were built at with {@link #current()} to notice
+ * what other nodes committed. The commit listeners are told the version each of this node's
+ * commits left behind, so a view whose change events already covered that commit can skip the
+ * reload.
+ */
+@Component
+public class CatalogVersions implements SmartInitializingSingleton {
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<BiConsumer<CatalogAggregate, Long>> commitListeners = new CopyOnWriteArrayList<>();
+
+    public CatalogVersions(CatalogVersionRepository catalogVersionRepository, TransactionTemplate transactionTemplate) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void changed(CatalogAggregate... aggregates) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            pendingChanges().aggregates.addAll(Arrays.asList(aggregates));
+            return;
+        }
+        EnumSet<CatalogAggregate> ordered = EnumSet.noneOf(CatalogAggregate.class);
+        ordered.addAll(Arrays.asList(aggregates));
+        notifyCommitted(transactionTemplate.execute(status -> increment(ordered)));
+    }
+
+    public void addCommitListener(BiConsumer<CatalogAggregate, Long> listener) {
+        commitListeners.add(listener);
+    }
+
+    /**
+     * The stored version of every aggregate, with one query.
+     */
+    public Map<CatalogAggregate, Long> current() {
+        Map<CatalogAggregate, Long> versions = new EnumMap<>(CatalogAggregate.class);
+        for (CatalogVersion version : catalogVersionRepository.findAll()) {
+            versions.put(version.getAggregate(), version.getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * A strong ETag for the current state of the aggregate: one primary key lookup, no list query.
+     */
+    public String etag(CatalogAggregate aggregate) {
+        long version = catalogVersionRepository.findVersion(aggregate).orElse(0L);
+        return "\"" + aggregate.etagPrefix() + "-" + version + "\"";
+    }
+
+    /**
+     * A response body together with the ETag of the catalog state it was built from. Read both in one
+     * repeatable-read transaction, so the tag never describes newer or older data than the body.
+     */
+    public record Versioned<T>(String etag, T body) {
+    }
+
+    /**
+     * Creates the missing version rows. They start from the current time in microseconds rather
+     * than zero, so a recreated schema never hands out an ETag a client may still hold.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long initial = System.currentTimeMillis() * 1_000;
+        for (CatalogAggregate aggregate : CatalogAggregate.values()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!catalogVersionRepository.existsById(aggregate)) {
+                        catalogVersionRepository.save(new CatalogVersion(aggregate, initial));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // created by another node starting at the same time
+            }
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Increments the versions and returns their new values, which nobody else can change before
+     * this transaction ends since it holds the rows' locks.
+     */
+    private Map<CatalogAggregate, Long> increment(EnumSet<CatalogAggregate> aggregates) {
+        Map<CatalogAggregate, Long> versions = new EnumMap<>(CatalogAggregate.class);
+        for (CatalogAggregate aggregate : aggregates) {
+            catalogVersionRepository.increment(aggregate);
+            catalogVersionRepository.findVersion(aggregate).ifPresent(version -> versions.put(aggregate, version));
+        }
+        return versions;
+    }
+
+    private void notifyCommitted(Map<CatalogAggregate, Long> versions) {
+        if (versions == null) return;
+        versions.forEach((aggregate, version) -> {
+            for (BiConsumer<CatalogAggregate, Long> listener : commitListeners) {
+                listener.accept(aggregate, version);
+            }
+        });
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final EnumSet<CatalogAggregate> aggregates = EnumSet.noneOf(CatalogAggregate.class);
+        private Map<CatalogAggregate, Long> versions;
+
+        private CatalogVersions owner() {
+            return CatalogVersions.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            versions = increment(aggregates);
+        }
+
+        @Override
+        public void afterCommit() {
+            notifyCommitted(versions);
+        }
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    }
+}
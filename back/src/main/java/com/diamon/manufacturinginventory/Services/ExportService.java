@@ -0,0 +1,143 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductExportRow;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeExportRow;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialExportRow;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes full-table dumps row by row from a database cursor. Rows are DTO projections, so nothing
+ * is kept in the persistence context, and the output is flushed every {@value #FLUSH_EVERY} rows;
+ * heap use stays flat whatever the size of the table.
+ * <p>
+ * Called from a {@code StreamingResponseBody}, so the read-only transaction that keeps the cursor
+ * open is started here and not in the request thread.
+ */
+@Service
+public class ExportService {
+
+    static final int FLUSH_EVERY = 1000;
+
+    private static final String[] PRODUCT_COLUMNS = {"id", "code", "name", "price"};
+    private static final String[] RAW_MATERIAL_COLUMNS = {"id", "code", "name", "stockQuantity"};
+    private static final String[] RECIPE_COLUMNS = {
+            "recipeId", "productCode", "productName", "rawMaterialCode", "rawMaterialName",
+            "componentProductCode", "componentProductName", "requiredQuantity"
+    };
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final ObjectWriter jsonWriter;
+
+    public ExportService(ProductRepository productRepository,
+                         RawMaterialsRepository rawMaterialsRepository,
+                         ProductRecipeRepository productRecipeRepository,
+                         ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.productRecipeRepository = productRecipeRepository;
+        this.jsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.CLOSE_CLOSEABLE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportProducts(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<ProductExportRow> rows = productRepository.streamAllForExport()) {
+            write(rows, format, out, PRODUCT_COLUMNS, row -> new Object[]{
+                    row.id(), row.code(), row.name(), row.price()
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportRawMaterials(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<RawMaterialExportRow> rows = rawMaterialsRepository.streamAllForExport()) {
+            write(rows, format, out, RAW_MATERIAL_COLUMNS, row -> new Object[]{
+                    row.id(), row.code(), row.name(), row.stockQuantity()
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportRecipes(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<RecipeExportRow> rows = productRecipeRepository.streamAllForExport()) {
+            write(rows, format, out, RECIPE_COLUMNS, row -> new Object[]{
+                    row.recipeId(), row.productCode(), row.productName(), row.rawMaterialCode(),
+                    row.rawMaterialName(), row.componentProductCode(), row.componentProductName(),
+                    row.requiredQuantity()
+            });
+        }
+    }
+
+    private <T> void write(Stream<T> rows, ExportFormat format, OutputStream out,
+                           String[] columns, Function<T, Object[]> values) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsv(rows.iterator(), out, columns, values);
+        } else {
+            writeNdjson(rows.iterator(), out);
+        }
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long count = 0;
+            while (rows.hasNext()) {
+                jsonWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                if (++count % FLUSH_EVERY == 0) generator.flush();
+            }
+            generator.flush();
+        }
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, OutputStream out, String[] columns,
+                              Function<T, Object[]> values) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, columns);
+        long count = 0;
+        while (rows.hasNext()) {
+            writeCsvLine(writer, values.apply(rows.next()));
+            if (++count % FLUSH_EVERY == 0) writer.flush();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] != null) writer.write(csvField(values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
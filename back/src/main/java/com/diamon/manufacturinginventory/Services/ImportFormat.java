@@ -0,0 +1,24 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Exceptions.InvalidImportException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    CSV,
+    JSON;
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            throw new InvalidImportException("Content-Type must be text/csv or application/json");
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) return JSON;
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) return CSV;
+        } catch (InvalidMediaTypeException e) {
+            // reported below
+        }
+        throw new InvalidImportException("Content-Type must be text/csv or application/json");
+    }
+}
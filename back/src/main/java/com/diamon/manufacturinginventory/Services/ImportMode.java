@@ -0,0 +1,20 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Exceptions.InvalidImportException;
+
+import java.util.Locale;
+
+public enum ImportMode {
+    /** Rows whose code already exists are reported as errors. */
+    INSERT,
+    /** Rows whose code already exists overwrite the stored values. */
+    UPSERT;
+
+    public static ImportMode fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportException("Unsupported import mode: " + value);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Exceptions.InvalidImportException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads import rows one at a time from a CSV document (with a header naming the record
+ * properties) or from a JSON array, so the request body is never held in memory as a whole.
+ * A row that cannot be mapped is returned with an error instead of a value and reading goes on;
+ * a document that is no longer parseable ends the import with an error for the current row.
+ */
+abstract class ImportRowReader<T> implements Closeable {
+
+    record Row<T>(long number, T value, String error) {
+    }
+
+    static <T> ImportRowReader<T> open(ImportFormat format, InputStream in, Class<T> type, ObjectMapper objectMapper)
+            throws IOException {
+        return format == ImportFormat.CSV
+                ? new Csv<>(in, type, objectMapper)
+                : new Json<>(in, type, objectMapper);
+    }
+
+    /**
+     * @return the next row, or {@code null} at the end of the document
+     */
+    abstract Row<T> next() throws IOException;
+
+    private static final class Json<T> extends ImportRowReader<T> {
+        private final MappingIterator<T> iterator;
+        private long number;
+        private boolean broken;
+
+        private Json(InputStream in, Class<T> type, ObjectMapper objectMapper) throws IOException {
+            try {
+                this.iterator = objectMapper.readerFor(type).readValues(in);
+            } catch (JsonProcessingException e) {
+                throw new InvalidImportException("The body must be a JSON array of rows");
+            }
+        }
+
+        @Override
+        Row<T> next() throws IOException {
+            if (broken) return null;
+            try {
+                if (!iterator.hasNextValue()) return null;
+                number++;
+                return new Row<>(number, iterator.nextValue(), null);
+            } catch (JsonMappingException e) {
+                return new Row<>(number, null, e.getOriginalMessage());
+            } catch (JsonProcessingException e) {
+                broken = true;
+                return new Row<>(number + 1, null, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+
+    private static final class Csv<T> extends ImportRowReader<T> {
+        private final Reader reader;
+        private final Class<T> type;
+        private final ObjectMapper objectMapper;
+        private final List<String> header;
+        private final StringBuilder field = new StringBuilder();
+        private long number;
+
+        private Csv(InputStream in, Class<T> type, ObjectMapper objectMapper) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.type = type;
+            this.objectMapper = objectMapper;
+            this.header = readRecord();
+            if (header == null || header.isEmpty()) {
+                throw new InvalidImportException("The CSV document must start with a header row");
+            }
+            header.replaceAll(String::trim);
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+        }
+
+        @Override
+        Row<T> next() throws IOException {
+            List<String> values = readRecord();
+            while (values != null && values.size() == 1 && values.get(0).isEmpty()) {
+                values = readRecord();
+            }
+            if (values == null) return null;
+            number++;
+            if (values.size() != header.size()) {
+                return new Row<>(number, null, "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, String> properties = new LinkedHashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                String value = values.get(i);
+                properties.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            try {
+                return new Row<>(number, objectMapper.convertValue(properties, type), null);
+            } catch (IllegalArgumentException e) {
+                String message = e.getCause() instanceof JsonMappingException mapping ? mapping.getOriginalMessage() : e.getMessage();
+                return new Row<>(number, null, message);
+            }
+        }
+
+        /**
+         * One RFC 4180 record: quoted fields may contain separators, doubled quotes and line breaks.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) return null;
+            List<String> values = new ArrayList<>();
+            boolean quoted = false;
+            field.setLength(0);
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(field.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
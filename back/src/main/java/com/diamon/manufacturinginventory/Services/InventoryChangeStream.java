@@ -0,0 +1,226 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.InventoryStream.InventoryChange;
+import com.diamon.manufacturinginventory.Events.LowStockEvent;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
+import com.diamon.manufacturinginventory.Events.StockReplenishedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes inventory changes to Server-Sent Events subscribers, so clients no longer poll the lists.
+ * <p>
+ * The write paths already publish change events; they are picked up here once their transaction has
+ * committed, so a rolled back write is never streamed. Each change is encoded into an SSE frame once
+ * and the same frame is offered to every subscriber. Offering only touches the subscriber's buffer:
+ * the sending happens on a virtual thread per subscriber with pending frames, so a slow client never
+ * holds up the committing thread or the other clients.
+ * <p>
+ * The buffers are bounded. A newer change to the same entity replaces the pending one, and a
+ * subscriber that still falls {@code buffer-size} changes behind has its buffer dropped and receives a
+ * single {@code resync} event, after which it should reload the lists it shows.
+ */
+@Component
+public class InventoryChangeStream {
+
+    static final String RESYNC = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("inventory-stream-", 0).factory());
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter overflows;
+
+    public InventoryChangeStream(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${inventory.stream.buffer-size:256}") int bufferSize) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        Gauge.builder("inventory.stream.subscribers", subscribers, Set::size)
+                .description("Open inventory change streams")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("inventory.stream.overflows")
+                .description("Subscriber buffers dropped because the client fell behind")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter());
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // sends the response headers right away, before the first change
+        subscriber.offer("connected", SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        broadcast("raw-material-changed", new InventoryChange(event.rawMaterialId(), event.code(), event.name(),
+                event.stockQuantity(), null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialDeleted(RawMaterialDeletedEvent event) {
+        broadcast("raw-material-deleted", InventoryChange.of(event.rawMaterialId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        broadcast("product-changed", new InventoryChange(event.productId(), event.code(), event.name(),
+                null, event.price()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        broadcast("product-deleted", InventoryChange.of(event.productId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        broadcast("recipe-changed", InventoryChange.of(event.productId()));
+    }
+
+    // published by the low-stock monitor after the commit, outside any transaction
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        broadcast("low-stock", new InventoryChange(event.rawMaterialId(), event.code(), event.name(),
+                event.stockQuantity(), null));
+    }
+
+    @EventListener
+    public void onStockReplenished(StockReplenishedEvent event) {
+        broadcast("stock-replenished", new InventoryChange(event.rawMaterialId(), event.code(), event.name(),
+                event.stockQuantity(), null));
+    }
+
+    /**
+     * A comment line now and then, so proxies keep idle streams open and closed clients are noticed.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stream.heartbeat:PT30S}",
+            initialDelayString = "${inventory.stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) return;
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer("heartbeat", frame);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private void broadcast(String name, InventoryChange change) {
+        if (subscribers.isEmpty()) return;
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode inventory change " + name, e);
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(name)
+                .data(data)
+                .build();
+        String key = name + ":" + change.id();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(key, frame);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final LinkedHashMap<String, Set<ResponseBodyEmitter.DataWithMediaType>> pending = new LinkedHashMap<>();
+        private boolean sending;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(String key, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            synchronized (this) {
+                // the newest state of an entity replaces the one still waiting, at the end of the queue
+                pending.remove(key);
+                pending.put(key, frame);
+                if (pending.size() > bufferSize) {
+                    pending.clear();
+                    pending.put(RESYNC, SseEmitter.event().name(RESYNC).data("{}").build());
+                    overflows.increment();
+                }
+                if (sending) return;
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                List<Set<ResponseBodyEmitter.DataWithMediaType>> batch;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        sending = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+                try {
+                    for (Set<ResponseBodyEmitter.DataWithMediaType> frame : batch) {
+                        emitter.send(frame);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // the client went away; the emitter callbacks may not fire for a broken pipe
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        pending.clear();
+                        sending = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.DTOs.Simulation.RecipeOverride;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationScenario;
+import com.diamon.manufacturinginventory.DTOs.Simulation.StockDelta;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stock, recipe lines and flattened requirements frozen at one instant, for what-if scenarios.
+ * <p>
+ * Nothing in the snapshot changes after construction, so any number of scenarios can read it at
+ * the same time. A scenario is evaluated as an overlay: it holds only the stock levels and recipe
+ * lines it changes, re-explodes only the products whose tree contains a changed recipe, and reads
+ * everything else from the snapshot.
+ */
+final class InventorySnapshot {
+
+    private static final Comparator<ProductSummary> BY_VALUE_DESC = Comparator
+            .comparing(ProductSummary::price).reversed()
+            .thenComparing(ProductSummary::id);
+
+    private final Map<UUID, Long> stock;
+    private final List<ProductSummary> ranked;
+    private final Map<UUID, List<BillOfMaterialLine>> lines;
+    private final Map<UUID, Map<UUID, Long>> requirements;
+    private final Map<UUID, Set<UUID>> parentsByComponent;
+
+    InventorySnapshot(List<RawMaterialStock> stock, List<ProductSummary> products, BillOfMaterialsExplosion.Snapshot recipes) {
+        Map<UUID, Long> stockById = new HashMap<>();
+        for (RawMaterialStock material : stock) {
+            stockById.put(material.id(), (long) material.stockQuantity());
+        }
+        this.stock = Map.copyOf(stockById);
+        this.ranked = products.stream().sorted(BY_VALUE_DESC).toList();
+        this.lines = recipes.lines();
+        this.requirements = recipes.requirements();
+
+        Map<UUID, Set<UUID>> parents = new HashMap<>();
+        lines.forEach((productId, productLines) -> {
+            for (BillOfMaterialLine line : productLines) {
+                if (line.componentProductId() != null) {
+                    parents.computeIfAbsent(line.componentProductId(), id -> new HashSet<>()).add(productId);
+                }
+            }
+        });
+        this.parentsByComponent = Collections.unmodifiableMap(parents);
+    }
+
+    boolean hasRawMaterial(UUID rawMaterialId) {
+        return stock.containsKey(rawMaterialId);
+    }
+
+    /**
+     * The production suggestions the scenario would give, ranked by unit value like the live ones.
+     */
+    List<ProductProductionSuggestion> evaluate(SimulationScenario scenario) {
+        Overlay overlay = new Overlay(scenario);
+        List<ProductProductionSuggestion> suggestions = new ArrayList<>();
+        for (ProductSummary product : ranked) {
+            Map<UUID, Long> requirement = overlay.requirement(product.id(), new HashSet<>());
+            if (requirement.isEmpty()) continue;
+            long maxQuantity = Integer.MAX_VALUE;
+            for (Map.Entry<UUID, Long> line : requirement.entrySet()) {
+                long available = overlay.stock(line.getKey()) / line.getValue();
+                if (available < maxQuantity) maxQuantity = available;
+            }
+            if (maxQuantity > 0) {
+                double value = product.price().doubleValue();
+                suggestions.add(new ProductProductionSuggestion(product.name(), (int) maxQuantity, value, maxQuantity * value));
+            }
+        }
+        return suggestions;
+    }
+
+    private final class Overlay {
+        private final String name;
+        private final Map<UUID, Long> stockChanges = new HashMap<>();
+        private final Map<UUID, List<BillOfMaterialLine>> lineChanges = new HashMap<>();
+        private final Set<UUID> affected = new HashSet<>();
+        private final Map<UUID, Map<UUID, Long>> exploded = new HashMap<>();
+
+        private Overlay(SimulationScenario scenario) {
+            this.name = scenario.name();
+            for (StockDelta delta : scenario.stockDeltas()) {
+                stockChanges.merge(delta.rawMaterialId(), delta.quantity(), Math::addExact);
+            }
+            for (RecipeOverride override : scenario.recipeOverrides()) {
+                List<BillOfMaterialLine> current = lineChanges.getOrDefault(override.productId(),
+                        lines.getOrDefault(override.productId(), List.of()));
+                lineChanges.put(override.productId(), apply(current, override));
+            }
+            // a product whose own lines did not change is still affected when a descendant's did
+            Deque<UUID> pending = new ArrayDeque<>(lineChanges.keySet());
+            while (!pending.isEmpty()) {
+                UUID current = pending.pop();
+                if (affected.add(current)) {
+                    pending.addAll(parentsByComponent.getOrDefault(current, Set.of()));
+                }
+            }
+        }
+
+        private long stock(UUID rawMaterialId) {
+            long base = stock.getOrDefault(rawMaterialId, 0L);
+            Long change = stockChanges.get(rawMaterialId);
+            return change == null ? base : base + change;
+        }
+
+        private Map<UUID, Long> requirement(UUID productId, Set<UUID> path) {
+            if (!affected.contains(productId)) return requirements.getOrDefault(productId, Map.of());
+            Map<UUID, Long> cached = exploded.get(productId);
+            if (cached != null) return cached;
+            if (!path.add(productId)) {
+                throw new InvalidRecipeException("Scenario " + name + " makes product " + productId + " contain itself");
+            }
+
+            Map<UUID, Long> requirement = new HashMap<>();
+            for (BillOfMaterialLine line : lineChanges.getOrDefault(productId, lines.getOrDefault(productId, List.of()))) {
+                if (line.rawMaterialId() != null) {
+                    requirement.merge(line.rawMaterialId(), (long) line.requiredQuantity(), Long::sum);
+                } else {
+                    requirement(line.componentProductId(), path).forEach((rawMaterialId, perUnit) ->
+                            requirement.merge(rawMaterialId, perUnit * line.requiredQuantity(), Long::sum));
+                }
+            }
+            path.remove(productId);
+            exploded.put(productId, requirement);
+            return requirement;
+        }
+
+        private static List<BillOfMaterialLine> apply(List<BillOfMaterialLine> current, RecipeOverride override) {
+            List<BillOfMaterialLine> changed = new ArrayList<>(current.size() + 1);
+            for (BillOfMaterialLine line : current) {
+                boolean sameComponent = override.rawMaterialId() != null
+                        ? override.rawMaterialId().equals(line.rawMaterialId())
+                        : override.componentProductId().equals(line.componentProductId());
+                if (!sameComponent) changed.add(line);
+            }
+            if (override.quantity() > 0) {
+                changed.add(new BillOfMaterialLine(override.productId(), override.rawMaterialId(),
+                        override.componentProductId(), override.quantity()));
+            }
+            return changed;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
+import com.diamon.manufacturinginventory.Exceptions.InvalidPageRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination over a sortable property with the id as tie-breaker.
+ * <p>
+ * A page is read with {@code where (sort, id) > (last sort, last id) order by sort, id limit n},
+ * so with an index on {@code (sort, id)} the cost of a page does not depend on how deep it is.
+ * The cursor handed to clients is an opaque base64 token of the last row's keys; it is only
+ * valid for the sort it was issued with.
+ * <p>
+ * Sort values may be null. A null sorts after every value, which is where PostgreSQL puts it by
+ * default ({@code nulls last} ascending, {@code nulls first} descending); the order by says so
+ * explicitly and the predicate that skips past the cursor follows the same rule, so rows with a
+ * null or a repeated sort value are neither skipped nor returned twice.
+ * <p>
+ * Rows are mapped to their response inside the caller's transaction; associations the mapper
+ * reads are named in {@code fetch} so they are joined into the page query instead of being
+ * loaded one row at a time.
+ */
+final class KeysetPagination {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private static final String ID = "id";
+    private static final String NULL_VALUE = "N";
+    private static final String PRESENT_VALUE = "V";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Sortable properties of one resource and the Java type of their values, used to read cursors back.
+     */
+    record Sortable(String defaultProperty, Map<String, Class<?>> properties) {
+    }
+
+    /**
+     * Keys of the last row of a page: its sort value, possibly null, and its id.
+     */
+    record Position(Object value, UUID id) {
+    }
+
+    static <T, R> CursorPage<R> page(JpaSpecificationExecutor<T> repository,
+                                     Specification<T> filter,
+                                     Sortable sortable,
+                                     String sort,
+                                     String direction,
+                                     String cursor,
+                                     Integer limit,
+                                     Function<? super T, ? extends R> mapper,
+                                     String... fetch) {
+        String property = sort == null || sort.isBlank() ? sortable.defaultProperty() : sort;
+        Class<?> type = sortable.properties().get(property);
+        if (type == null) {
+            throw new InvalidPageRequestException("Unsupported sort property: " + property);
+        }
+        Sort.Direction sortDirection = parseDirection(direction);
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        Position after = cursor == null || cursor.isBlank() ? null : decode(cursor, property, type, sortDirection);
+
+        List<T> rows = repository.findBy(Specification.allOf(filter, keyset(property, sortDirection, after)), query -> {
+            FluentQuery.FetchableFluentQuery<T> limited = query.limit(size + 1);
+            return (fetch.length == 0 ? limited : limited.project(fetch)).all();
+        });
+
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(content.get(size - 1));
+            nextCursor = encode(property, sortDirection,
+                    new Position(last.getPropertyValue(property), (UUID) last.getPropertyValue(ID)));
+        }
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * Orders by the sort property and the id, nulls after every value, and when there is a cursor
+     * keeps only the rows that come after it in that order.
+     */
+    static <T> Specification<T> keyset(String property, Sort.Direction direction, Position after) {
+        boolean ascending = direction.isAscending();
+        return (root, query, cb) -> {
+            Path<UUID> id = root.get(ID);
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            if (ID.equals(property)) {
+                query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+                return after == null ? null : beyond(cb, id, after.id(), ascending);
+            }
+            Path<Comparable<Object>> key = root.get(property);
+            query.orderBy(ascending ? hcb.asc(key, false) : hcb.desc(key, true), ascending ? cb.asc(id) : cb.desc(id));
+            if (after == null) return null;
+            if (after.value() == null) {
+                // past a null only more nulls follow ascending; descending, every value follows
+                return ascending
+                        ? cb.and(cb.isNull(key), beyond(cb, id, after.id(), true))
+                        : cb.or(cb.isNotNull(key), beyond(cb, id, after.id(), false));
+            }
+            @SuppressWarnings("unchecked")
+            Comparable<Object> value = (Comparable<Object>) after.value();
+            Predicate next = cb.or(
+                    beyond(cb, key, value, ascending),
+                    cb.and(cb.equal(key, value), beyond(cb, id, after.id(), ascending)));
+            return ascending ? cb.or(next, cb.isNull(key)) : next;
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder cb, Path<? extends Y> path, Y value,
+                                                                     boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    static String encode(String property, Sort.Direction direction, Position position) {
+        Object value = position.value();
+        String token = direction.name() + "|" + property + "|" + position.id() + "|"
+                + (value == null ? NULL_VALUE : PRESENT_VALUE + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor, String property, Class<?> type, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(direction.name()) || !parts[1].equals(property)) {
+            throw new InvalidPageRequestException("Cursor does not match the requested sort");
+        }
+        try {
+            UUID id = UUID.fromString(parts[2]);
+            if (parts[3].equals(NULL_VALUE)) {
+                return new Position(null, id);
+            }
+            if (!parts[3].startsWith(PRESENT_VALUE)) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+            return new Position(convert(parts[3].substring(PRESENT_VALUE.length()), type), id);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class) return value;
+        if (type == Integer.class) return Integer.valueOf(value);
+        if (type == BigDecimal.class) return new BigDecimal(value);
+        if (type == UUID.class) return UUID.fromString(value);
+        if (type == Instant.class) return Instant.parse(value);
+        throw new IllegalArgumentException("Unsupported cursor type " + type.getSimpleName());
+    }
+
+    private static Sort.Direction parseDirection(String direction) {
+        if (direction == null || direction.isBlank()) return Sort.Direction.ASC;
+        try {
+            return Sort.Direction.fromString(direction.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Direction must be asc or desc");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
+import com.diamon.manufacturinginventory.Events.LowStockEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Events.StockReplenishedEvent;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * The raw materials whose stock is below their reorder threshold.
+ * <p>
+ * Nothing is polled: every write that changes stock already publishes a
+ * {@link RawMaterialChangedEvent} with the balance it left, and the threshold is checked against
+ * that balance once the transaction has committed. A material enters the low set when its stock
+ * drops below the threshold and leaves it only when the stock is back at the threshold plus a
+ * hysteresis band, so stock hovering around the threshold raises one {@link LowStockEvent} per
+ * crossing rather than one per write. The crossing events are published outside any transaction,
+ * so they are received with a plain {@code @EventListener}. Thresholds and the low set are loaded
+ * with one query on first use.
+ * <p>
+ * The listeners of concurrent transactions do not run in commit order, so an event may carry an
+ * older balance than one already applied. A material therefore only enters or leaves the low set
+ * on what its committed row says, read again whenever an event suggests a crossing; events that
+ * keep a material where it is are applied as they come. The set is kept ordered by code and the
+ * published list is rebuilt on the next read after it changed, not on every write.
+ */
+@Component
+public class LowStockMonitor {
+
+    private static final Comparator<RawMaterialResponse> BY_CODE = Comparator
+            .comparing(RawMaterialResponse::code)
+            .thenComparing(RawMaterialResponse::id);
+
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final double hysteresis;
+
+    private final Map<UUID, Integer> thresholds = new HashMap<>();
+    private final Map<UUID, RawMaterialResponse> low = new HashMap<>();
+    private final TreeSet<RawMaterialResponse> lowByCode = new TreeSet<>(BY_CODE);
+    private boolean loaded;
+
+    private volatile List<RawMaterialResponse> published;
+
+    public LowStockMonitor(RawMaterialsRepository rawMaterialsRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${inventory.low-stock.hysteresis:0.1}") double hysteresis) {
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.eventPublisher = eventPublisher;
+        this.hysteresis = hysteresis;
+        Gauge.builder("inventory.stock.low", this, monitor -> monitor.getLowStock().size())
+                .description("Raw materials below their reorder threshold")
+                .register(meterRegistry);
+    }
+
+    public List<RawMaterialResponse> getLowStock() {
+        List<RawMaterialResponse> current = published;
+        if (current != null) return current;
+        synchronized (this) {
+            ensureLoaded();
+            if (published == null) published = List.copyOf(lowByCode);
+            return published;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        Object crossing = evaluate(event);
+        // published outside the lock, so a slow listener does not hold up other stock changes
+        if (crossing != null) eventPublisher.publishEvent(crossing);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRawMaterialDeleted(RawMaterialDeletedEvent event) {
+        if (!loaded) return;
+        thresholds.remove(event.rawMaterialId());
+        removeLow(event.rawMaterialId());
+    }
+
+    /**
+     * The stock at which a low material counts as replenished again.
+     */
+    int recoveryLevel(int threshold) {
+        return threshold + (int) Math.ceil(threshold * hysteresis);
+    }
+
+    private synchronized Object evaluate(RawMaterialChangedEvent event) {
+        ensureLoaded();
+        UUID id = event.rawMaterialId();
+        if (event.reorderThreshold() != null) watch(id, event.reorderThreshold());
+        boolean wasLow = low.containsKey(id);
+        RawMaterialResponse current = new RawMaterialResponse(id, event.code(), event.name(), event.stockQuantity(),
+                thresholds.getOrDefault(id, 0));
+
+        if (isLow(current, wasLow) != wasLow) {
+            // the balance may be older than one already applied, so the crossing is checked on the row
+            Optional<RawMaterialResponse> stored = rawMaterialsRepository.findResponseById(id);
+            if (stored.isEmpty()) {
+                thresholds.remove(id);
+                removeLow(id);
+                return null;
+            }
+            current = stored.get();
+            watch(id, current.reorderThreshold());
+        }
+
+        if (isLow(current, wasLow)) {
+            putLow(current);
+            return wasLow ? null
+                    : new LowStockEvent(id, current.code(), current.name(), current.stockQuantity(), current.reorderThreshold());
+        }
+        if (!wasLow) return null;
+        removeLow(id);
+        // a material that is no longer watched leaves the set without a crossing
+        return current.reorderThreshold() == 0 ? null
+                : new StockReplenishedEvent(id, current.code(), current.name(), current.stockQuantity(), current.reorderThreshold());
+    }
+
+    private boolean isLow(RawMaterialResponse material, boolean wasLow) {
+        int threshold = material.reorderThreshold();
+        if (threshold <= 0) return false;
+        return material.stockQuantity() < (wasLow ? recoveryLevel(threshold) : threshold);
+    }
+
+    private void watch(UUID id, int threshold) {
+        if (threshold > 0) {
+            thresholds.put(id, threshold);
+        } else {
+            thresholds.remove(id);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        for (RawMaterialResponse material : rawMaterialsRepository.findAllWithReorderThreshold()) {
+            thresholds.put(material.id(), material.reorderThreshold());
+            if (material.stockQuantity() < material.reorderThreshold()) {
+                putLow(material);
+            }
+        }
+        loaded = true;
+    }
+
+    private void putLow(RawMaterialResponse material) {
+        RawMaterialResponse previous = low.put(material.id(), material);
+        if (material.equals(previous)) return;
+        if (previous != null) lowByCode.remove(previous);
+        lowByCode.add(material);
+        published = null;
+    }
+
+    private void removeLow(UUID id) {
+        RawMaterialResponse previous = low.remove(id);
+        if (previous == null) return;
+        lowByCode.remove(previous);
+        published = null;
+    }
+}
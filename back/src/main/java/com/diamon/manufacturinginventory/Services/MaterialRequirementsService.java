@@ -0,0 +1,128 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirement;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsRequest;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsResponse;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gross-to-net material requirements: how much of each raw material a set of target quantities
+ * needs, and how much of it is missing from the current stock.
+ * <p>
+ * Order lines are first summed per product into a mutable counter, so a large order book costs
+ * one map lookup per line and allocates nothing per line. Every distinct product's flattened
+ * requirement, a memoized {@code Map<UUID, Long>}, is then copied once into parallel arrays of
+ * material indexes and per-unit quantities, and the totals accumulate in a {@code long[]} indexed
+ * by material. The boxed values are only touched while copying: once per distinct product and
+ * material line, plus one {@code Integer} index per distinct material, never in the accumulation.
+ */
+@Service
+public class MaterialRequirementsService {
+
+    private static final Comparator<MaterialRequirement> LARGEST_SHORTFALL_FIRST = Comparator
+            .comparingLong(MaterialRequirement::shortfall).reversed()
+            .thenComparing(MaterialRequirement::code);
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final BillOfMaterialsExplosion billOfMaterials;
+
+    public MaterialRequirementsService(ProductRepository productRepository,
+                                       RawMaterialsRepository rawMaterialsRepository,
+                                       BillOfMaterialsExplosion billOfMaterials) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.billOfMaterials = billOfMaterials;
+    }
+
+    @Transactional(readOnly = true)
+    public MaterialRequirementsResponse calculate(MaterialRequirementsRequest request) {
+        billOfMaterials.refresh();
+        Map<UUID, Target> targets = new HashMap<>();
+        for (ProductionOrderItem item : request.items()) {
+            Target target = targets.get(item.productId());
+            if (target == null) {
+                target = new Target();
+                targets.put(item.productId(), target);
+            }
+            target.quantity = Math.addExact(target.quantity, item.quantity());
+        }
+        checkProducts(targets);
+
+        Map<UUID, Integer> materialIndex = new HashMap<>();
+        List<UUID> materials = new ArrayList<>();
+        targets.forEach((productId, target) -> {
+            Map<UUID, Long> requirement = billOfMaterials.explode(productId);
+            target.materials = new int[requirement.size()];
+            target.perUnit = new long[requirement.size()];
+            int k = 0;
+            for (Map.Entry<UUID, Long> line : requirement.entrySet()) {
+                Integer index = materialIndex.get(line.getKey());
+                if (index == null) {
+                    index = materials.size();
+                    materialIndex.put(line.getKey(), index);
+                    materials.add(line.getKey());
+                }
+                target.materials[k] = index;
+                target.perUnit[k] = line.getValue();
+                k++;
+            }
+        });
+
+        long[] required = new long[materials.size()];
+        for (Target target : targets.values()) {
+            for (int k = 0; k < target.materials.length; k++) {
+                int i = target.materials[k];
+                required[i] = Math.addExact(required[i], Math.multiplyExact(target.perUnit[k], target.quantity));
+            }
+        }
+
+        List<MaterialRequirement> result = new ArrayList<>(materials.size());
+        int shortMaterials = 0;
+        for (RawMaterialStockLevel level : rawMaterialsRepository.findStockLevelsByIdIn(materials)) {
+            long needed = required[materialIndex.get(level.id())];
+            long shortfall = Math.max(0, needed - level.stockQuantity());
+            if (shortfall > 0) shortMaterials++;
+            result.add(new MaterialRequirement(level.id(), level.code(), level.name(), needed, level.stockQuantity(), shortfall));
+        }
+        result.sort(LARGEST_SHORTFALL_FIRST);
+        return new MaterialRequirementsResponse(result, shortMaterials);
+    }
+
+    private void checkProducts(Map<UUID, Target> targets) {
+        Map<UUID, ProductSummary> found = new HashMap<>();
+        for (ProductSummary product : productRepository.findSummariesByIdIn(targets.keySet())) {
+            found.put(product.id(), product);
+        }
+        for (UUID productId : targets.keySet()) {
+            ProductSummary product = found.get(productId);
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found: " + productId);
+            }
+            if (!billOfMaterials.hasRecipe(productId)) {
+                throw new InvalidRecipeException("Product " + product.name() + " has no recipe");
+            }
+        }
+    }
+
+    private static final class Target {
+        private long quantity;
+        private int[] materials;
+        private long[] perUnit;
+    }
+}
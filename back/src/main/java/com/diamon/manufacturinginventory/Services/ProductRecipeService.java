@@ -1,110 +1,267 @@
 package com.diamon.manufacturinginventory.Services;
 
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeDetailsResponse;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeResponse;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionSuggestionCacheStats;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeDetailRow;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.ProductRecipes;
 import com.diamon.manufacturinginventory.Entity.Product;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
 import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+import com.diamon.manufacturinginventory.Mapper.ProductRecipeMapper;
+import com.diamon.manufacturinginventory.Repository.InventorySpecifications;
 import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
-import com.diamon.manufacturinginventory.Repository.ProductRepository;
 import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class ProductRecipeService {
 
+    private static final KeysetPagination.Sortable SORTABLE = new KeysetPagination.Sortable("id", Map.of("id", UUID.class));
+
     private final ProductRecipeRepository productRecipeRepository;
-    private final ProductRepository productRepository;
     private final RawMaterialsRepository rawMaterialsRepository;
+    private final CatalogLookup catalogLookup;
+    private final ProductionSuggestionCache productionSuggestionCache;
+    private final BillOfMaterialsExplosion billOfMaterials;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductRecipeService(ProductRecipeRepository productRecipeRepository,
-                                ProductRepository productRepository,
-                                RawMaterialsRepository rawMaterialsRepository) {
+                                RawMaterialsRepository rawMaterialsRepository,
+                                CatalogLookup catalogLookup,
+                                ProductionSuggestionCache productionSuggestionCache,
+                                BillOfMaterialsExplosion billOfMaterials,
+                                CatalogVersions catalogVersions,
+                                ApplicationEventPublisher eventPublisher) {
         this.productRecipeRepository = productRecipeRepository;
-        this.productRepository = productRepository;
         this.rawMaterialsRepository = rawMaterialsRepository;
+        this.catalogLookup = catalogLookup;
+        this.productionSuggestionCache = productionSuggestionCache;
+        this.billOfMaterials = billOfMaterials;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public ProductRecipes createRecipe(ProductRecipeRequest request) {
-        Product product = productRepository.findById(UUID.fromString(request.productId()))
+        Product product = catalogLookup.product(UUID.fromString(request.productId()))
             .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        RawMaterials rawMaterial = rawMaterialsRepository.findById(UUID.fromString(request.rawMaterialId()))
-            .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
         ProductRecipes recipe = new ProductRecipes();
         recipe.setProduct(product);
-        recipe.setRawProduct(rawMaterial);
+        applyComponent(recipe, product, request);
         recipe.setRequiredQuantity(request.quantity());
-        return productRecipeRepository.save(recipe);
+        ProductRecipes saved = productRecipeRepository.save(recipe);
+        catalogVersions.changed(CatalogAggregate.RECIPES);
+        eventPublisher.publishEvent(new RecipeChangedEvent(product.getId()));
+        return saved;
     }
 
-    public ProductRecipes getRecipeById(UUID id) {
-        return productRecipeRepository.findById(id)
+    @Transactional(readOnly = true)
+    public RecipeResponse getRecipeById(UUID id) {
+        return productRecipeRepository.findResponseById(id)
             .orElseThrow(() -> new EntityNotFoundException("Recipe not found"));
     }
 
-    public java.util.List<ProductRecipes> getAllRecipes() {
-        return productRecipeRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<RecipeResponse> getAllRecipes() {
+        return productRecipeRepository.findAllResponses();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<RecipeResponse> getRecipePage(UUID productId, UUID rawMaterialId, String direction, String cursor, Integer limit) {
+        Specification<ProductRecipes> filter = Specification.allOf(
+                InventorySpecifications.recipeOfProduct(productId),
+                InventorySpecifications.recipeUsingRawMaterial(rawMaterialId));
+        return KeysetPagination.page(productRecipeRepository, filter, SORTABLE, null, direction, cursor, limit,
+                ProductRecipeMapper::toResponse, "product", "rawProduct", "componentProduct");
     }
 
+    @Transactional
     public ProductRecipes updateRecipe(UUID id, ProductRecipeRequest request) {
         ProductRecipes recipe = productRecipeRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Recipe not found"));
-        Product product = productRepository.findById(UUID.fromString(request.productId()))
+        UUID previousProductId = recipe.getProduct().getId();
+        Product product = catalogLookup.product(UUID.fromString(request.productId()))
             .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        RawMaterials rawMaterial = rawMaterialsRepository.findById(UUID.fromString(request.rawMaterialId()))
-            .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
         recipe.setProduct(product);
-        recipe.setRawProduct(rawMaterial);
+        applyComponent(recipe, product, request);
         recipe.setRequiredQuantity(request.quantity());
-        return productRecipeRepository.save(recipe);
+        ProductRecipes saved = productRecipeRepository.save(recipe);
+        catalogVersions.changed(CatalogAggregate.RECIPES);
+        eventPublisher.publishEvent(new RecipeChangedEvent(product.getId()));
+        if (!Objects.equals(previousProductId, product.getId())) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(previousProductId));
+        }
+        return saved;
     }
 
-    public List<ProductRecipeResponse> getAllRecipeDetails() {
-        return productRecipeRepository.findAll().stream()
-            .map(recipe -> new ProductRecipeResponse(
-                recipe.getId().toString(), // Corrigido: UUID para String
-                recipe.getProduct().getName(),
-                List.of(
-                    new ProductRecipeResponse.RawMaterialInfo(
-                        recipe.getRawProduct().getName(),
-                        recipe.getRequiredQuantity()
-                    )
-                )
-            ))
-            .toList();
+    /**
+     * Lists one entry per recipe line. Lines that use a sub-assembly list the raw materials of
+     * the whole sub-assembly tree, exploded by the database in the same snapshot as the lines and
+     * the recipes version, so the ETag always matches the quantities.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CatalogVersions.Versioned<List<ProductRecipeResponse>> getAllRecipeDetails() {
+        String etag = catalogVersions.etag(CatalogAggregate.RECIPES);
+        List<RecipeDetailRow> rows = productRecipeRepository.findAllRecipeDetailRows();
+        Map<UUID, Map<UUID, Long>> components = explodeComponents(rows);
+        Map<UUID, String> rawMaterialNames = rawMaterialNames(rows, components);
+        List<ProductRecipeResponse> details = new ArrayList<>(rows.size());
+        for (RecipeDetailRow row : rows) {
+            details.add(new ProductRecipeResponse(
+                row.recipeId().toString(),
+                row.productName(),
+                rawMaterialsOf(row, components, rawMaterialNames)
+            ));
+        }
+        return new CatalogVersions.Versioned<>(etag, details);
+    }
+
+    /**
+     * Lists one entry per product with every raw material it needs, folded in one pass over the
+     * same rows as {@link #getAllRecipeDetails()}. A material reached through several lines or
+     * sub-assemblies appears once, with the quantities summed.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CatalogVersions.Versioned<List<ProductRecipeDetailsResponse>> getRecipeDetailsByProduct() {
+        String etag = catalogVersions.etag(CatalogAggregate.RECIPES);
+        List<RecipeDetailRow> rows = productRecipeRepository.findAllRecipeDetailRows();
+        Map<UUID, Map<UUID, Long>> components = explodeComponents(rows);
+        Map<UUID, String> rawMaterialNames = rawMaterialNames(rows, components);
+        Map<UUID, ProductDetails> products = new LinkedHashMap<>();
+        for (RecipeDetailRow row : rows) {
+            ProductDetails product = products.get(row.productId());
+            if (product == null) {
+                product = new ProductDetails(row.productName());
+                products.put(row.productId(), product);
+            }
+            if (row.componentProductId() == null) {
+                product.quantities.merge(row.rawMaterialId(), (long) row.requiredQuantity(), Long::sum);
+            } else {
+                Map<UUID, Long> quantities = product.quantities;
+                components.getOrDefault(row.componentProductId(), Map.of()).forEach((rawMaterialId, perUnit) ->
+                    quantities.merge(rawMaterialId, perUnit * row.requiredQuantity(), Long::sum));
+            }
+        }
+
+        List<ProductRecipeDetailsResponse> details = new ArrayList<>(products.size());
+        products.forEach((productId, product) -> {
+            List<ProductRecipeResponse.RawMaterialInfo> rawMaterials = new ArrayList<>(product.quantities.size());
+            product.quantities.forEach((rawMaterialId, quantity) -> rawMaterials.add(
+                new ProductRecipeResponse.RawMaterialInfo(rawMaterialNames.get(rawMaterialId), Math.toIntExact(quantity))));
+            details.add(new ProductRecipeDetailsResponse(productId.toString(), product.name, rawMaterials));
+        });
+        return new CatalogVersions.Versioned<>(etag, details);
     }
 
 
     public List<ProductProductionSuggestion> getProductionSuggestions() {
-        List<Product> products = productRepository.findAll();
-        List<ProductProductionSuggestion> suggestions = new java.util.ArrayList<>();
-        for (Product product : products) {
-            List<ProductRecipes> recipes = productRecipeRepository.findAll().stream()
-                .filter(r -> r.getProduct().getId().equals(product.getId()))
-                .toList();
-            if (recipes.isEmpty()) continue;
-            int maxQuantity = Integer.MAX_VALUE;
-            for (ProductRecipes recipe : recipes) {
-                RawMaterials raw = recipe.getRawProduct();
-                int available = raw.getStockQuantity() / recipe.getRequiredQuantity();
-                if (available < maxQuantity) maxQuantity = available;
+        return productionSuggestionCache.getSuggestions();
+    }
+
+    public ProductionSuggestionCacheStats getProductionSuggestionStats() {
+        return productionSuggestionCache.getStats();
+    }
+
+    private void applyComponent(ProductRecipes recipe, Product product, ProductRecipeRequest request) {
+        if (!request.isSingleComponent()) {
+            throw new InvalidRecipeException("Exactly one of raw material ID or component product ID must be informed");
+        }
+        if (request.usesComponentProduct()) {
+            Product component = catalogLookup.product(UUID.fromString(request.componentProductId()))
+                .orElseThrow(() -> new EntityNotFoundException("Component product not found"));
+            if (billOfMaterials.createsCycle(product.getId(), component.getId())) {
+                throw new InvalidRecipeException("Product " + component.getName() + " already contains " + product.getName());
             }
-            if (maxQuantity > 0) {
-                double totalValue = maxQuantity * product.getPrice().doubleValue();
-                suggestions.add(new ProductProductionSuggestion(
-                    product.getName(),
-                    maxQuantity,
-                    product.getPrice().doubleValue(),
-                    totalValue
-                ));
+            recipe.setComponentProduct(component);
+            recipe.setRawProduct(null);
+        } else {
+            RawMaterials rawMaterial = catalogLookup.rawMaterial(UUID.fromString(request.rawMaterialId()))
+                .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
+            recipe.setRawProduct(rawMaterial);
+            recipe.setComponentProduct(null);
+        }
+    }
+
+    /**
+     * The flattened requirement of every sub-assembly the rows use, with one recursive query.
+     */
+    private Map<UUID, Map<UUID, Long>> explodeComponents(List<RecipeDetailRow> rows) {
+        Set<UUID> componentIds = new HashSet<>();
+        for (RecipeDetailRow row : rows) {
+            if (row.componentProductId() != null) componentIds.add(row.componentProductId());
+        }
+        return componentIds.isEmpty() ? Map.of() : productRecipeRepository.explodeRecipes(componentIds);
+    }
+
+    /**
+     * Names of the raw materials the rows refer to. Direct lines carry their name; the materials
+     * only reached through sub-assemblies are looked up with one extra query.
+     */
+    private Map<UUID, String> rawMaterialNames(List<RecipeDetailRow> rows, Map<UUID, Map<UUID, Long>> components) {
+        Map<UUID, String> names = new HashMap<>();
+        Set<UUID> exploded = new HashSet<>();
+        for (RecipeDetailRow row : rows) {
+            if (row.componentProductId() == null) {
+                names.put(row.rawMaterialId(), row.rawMaterialName());
+            } else {
+                exploded.addAll(components.getOrDefault(row.componentProductId(), Map.of()).keySet());
+            }
+        }
+        exploded.removeAll(names.keySet());
+        if (!exploded.isEmpty()) {
+            for (RawMaterials rawMaterial : rawMaterialsRepository.findAllById(exploded)) {
+                names.put(rawMaterial.getId(), rawMaterial.getName());
             }
         }
-        suggestions.sort((a, b) -> Double.compare(b.productValue(), a.productValue()));
-        return suggestions;
+        return names;
+    }
+
+    private List<ProductRecipeResponse.RawMaterialInfo> rawMaterialsOf(RecipeDetailRow row, Map<UUID, Map<UUID, Long>> components,
+                                                                      Map<UUID, String> rawMaterialNames) {
+        if (row.componentProductId() == null) {
+            return List.of(new ProductRecipeResponse.RawMaterialInfo(
+                row.rawMaterialName(),
+                row.requiredQuantity()
+            ));
+        }
+        List<ProductRecipeResponse.RawMaterialInfo> infos = new ArrayList<>();
+        components.getOrDefault(row.componentProductId(), Map.of()).forEach((rawMaterialId, quantity) ->
+            infos.add(new ProductRecipeResponse.RawMaterialInfo(
+                rawMaterialNames.get(rawMaterialId),
+                Math.toIntExact(quantity * row.requiredQuantity())
+            )));
+        return infos;
+    }
+
+    private static final class ProductDetails {
+        private final String name;
+        private final Map<UUID, Long> quantities = new LinkedHashMap<>();
+
+        private ProductDetails(String name) {
+            this.name = name;
+        }
     }
 }
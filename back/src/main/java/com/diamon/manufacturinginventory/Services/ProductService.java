@@ -1,56 +1,110 @@
 package com.diamon.manufacturinginventory.Services;
 
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
 import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.Product;
 import com.diamon.manufacturinginventory.Entity.ProductRecipes;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
 import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
 import com.diamon.manufacturinginventory.Exceptions.InsufficientQuantity;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
 import com.diamon.manufacturinginventory.Mapper.ProductMapper;
+import com.diamon.manufacturinginventory.Repository.InventorySpecifications;
 import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import com.diamon.manufacturinginventory.Repository.ProductRepository;
 import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
-import jakarta.transaction.Transactional;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class ProductService {
 
+    private static final KeysetPagination.Sortable SORTABLE = new KeysetPagination.Sortable("code", Map.of(
+            "code", String.class,
+            "name", String.class,
+            "price", BigDecimal.class,
+            "id", UUID.class));
 
     private final ProductRepository productRepository;
     private final RawMaterialsRepository rawMaterialsRepository;
+    private final CatalogLookup catalogLookup;
     private final ProductRecipeRepository productRecipeRepository;
+    private final BillOfMaterialsExplosion billOfMaterials;
+    private final StockMovementRepository stockMovementRepository;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductService(
             ProductRepository productRepository,
             RawMaterialsRepository rawMaterialsRepository,
-            ProductRecipeRepository productRecipeRepository
+            CatalogLookup catalogLookup,
+            ProductRecipeRepository productRecipeRepository,
+            BillOfMaterialsExplosion billOfMaterials,
+            StockMovementRepository stockMovementRepository,
+            CatalogVersions catalogVersions,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.productRepository = productRepository;
         this.rawMaterialsRepository = rawMaterialsRepository;
+        this.catalogLookup = catalogLookup;
         this.productRecipeRepository = productRecipeRepository;
+        this.billOfMaterials = billOfMaterials;
+        this.stockMovementRepository = stockMovementRepository;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Read from the database rather than through the {@link CatalogLookup}, whose entry another node's
+     * update does not evict.
+     */
+    @Transactional(readOnly = true)
     public Product findById(UUID id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
     }
 
+    @Transactional
     public Product save(ProductRequest product) {
         Product entity = ProductMapper.toEntity(product);
-        return productRepository.save(entity);
+        Product saved = productRepository.save(entity);
+        catalogVersions.changed(CatalogAggregate.PRODUCTS);
+        publishChanged(saved);
+        return saved;
     }
 
+    @Transactional
     public void deleteById(UUID id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Product not found"));
         productRepository.deleteById(id);
+        catalogVersions.changed(CatalogAggregate.PRODUCTS, CatalogAggregate.RECIPES);
+        eventPublisher.publishEvent(new ProductDeletedEvent(id));
     }
 
+    @Transactional
     public void update(UUID id, ProductRequest product) {
         Product existingProduct = productRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Product not found"));
@@ -60,43 +114,107 @@ public class ProductService {
         existingProduct.setPrice(product.price());
 
         productRepository.save(existingProduct);
+        catalogVersions.changed(CatalogAggregate.PRODUCTS, CatalogAggregate.RECIPES);
+        publishChanged(existingProduct);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> findAll() {
+        return productRepository.findAllResponses();
     }
 
-    public List<Product> findAll() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> findPage(String code, String name, String sort, String direction, String cursor, Integer limit) {
+        Specification<Product> filter = Specification.allOf(
+                InventorySpecifications.codeStartsWith(code),
+                InventorySpecifications.nameContains(name));
+        return KeysetPagination.page(productRepository, filter, SORTABLE, sort, direction, cursor, limit, ProductMapper::toResponse);
     }
+
+    /**
+     * Creates the product and its recipe lines and consumes the stock they need. Lines that use a
+     * sub-assembly consume the raw materials of its whole tree, exploded from the stored recipe lines
+     * inside the transaction rather than from the memoized explosion, which may lag behind other nodes.
+     * Stock is taken with one conditional update per material, so concurrent requests cannot both
+     * spend the same units; when any material is short the whole request is rolled back. Each
+     * consumed material gets a consumption movement in the stock ledger.
+     */
     @Transactional
     public Product createProductWithRecipe(ProductRequest productRequest, List<ProductRecipeRequest> recipeRequests) {
         Product product = ProductMapper.toEntity(productRequest);
         product = productRepository.save(product);
+        publishChanged(product);
 
+        Map<UUID, Long> consumption = new LinkedHashMap<>();
+        Set<UUID> changedRecipeProducts = new LinkedHashSet<>();
         for (ProductRecipeRequest recipeRequest : recipeRequests) {
-            RawMaterials rawMaterial = rawMaterialsRepository.findById(UUID.fromString(recipeRequest.rawMaterialId()))
-                .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
-            if (rawMaterial.getStockQuantity() < recipeRequest.quantity()) {
-                throw new InsufficientQuantity("Insufficient stock for raw material: " + rawMaterial.getName());
-            }
-            rawMaterial.setStockQuantity(rawMaterial.getStockQuantity() - recipeRequest.quantity());
-            rawMaterialsRepository.save(rawMaterial);
-
             ProductRecipes recipe = new ProductRecipes();
             Product recipeProduct = product;
             String prodIdStr = recipeRequest.productId();
             if (prodIdStr != null && !prodIdStr.isBlank()) {
                 try {
                     UUID recipeProductId = UUID.fromString(prodIdStr);
-                    recipeProduct = productRepository.findById(recipeProductId)
+                    recipeProduct = catalogLookup.product(recipeProductId)
                         .orElseThrow(() -> new EntityNotFoundException("Product not found for recipe"));
                 } catch (Exception e) {
                     throw new EntityNotFoundException("Invalid product ID format");
                 }
             }
             recipe.setProduct(recipeProduct);
-            recipe.setRawProduct(rawMaterial);
+
+            if (recipeRequest.usesComponentProduct()) {
+                Product component = catalogLookup.product(UUID.fromString(recipeRequest.componentProductId()))
+                    .orElseThrow(() -> new EntityNotFoundException("Component product not found"));
+                if (billOfMaterials.createsCycle(recipeProduct.getId(), component.getId())) {
+                    throw new InvalidRecipeException("Product " + component.getName() + " already contains " + recipeProduct.getName());
+                }
+                recipe.setComponentProduct(component);
+                productRecipeRepository.explodeRecipes(Set.of(component.getId()))
+                    .getOrDefault(component.getId(), Map.of())
+                    .forEach((rawMaterialId, perUnit) ->
+                        consumption.merge(rawMaterialId, perUnit * recipeRequest.quantity(), Long::sum));
+            } else {
+                RawMaterials rawMaterial = catalogLookup.rawMaterial(UUID.fromString(recipeRequest.rawMaterialId()))
+                    .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
+                recipe.setRawProduct(rawMaterial);
+                consumption.merge(rawMaterial.getId(), (long) recipeRequest.quantity(), Long::sum);
+            }
+
             recipe.setRequiredQuantity(recipeRequest.quantity());
             productRecipeRepository.save(recipe);
+            changedRecipeProducts.add(recipeProduct.getId());
+        }
+
+        StockConsumption stock = rawMaterialsRepository.consumeStock(consumption);
+        if (!stock.isComplete()) {
+            throw InsufficientQuantity.forShortages(stock.shortages());
+        }
+        catalogVersions.changed(CatalogAggregate.PRODUCTS, CatalogAggregate.RECIPES, CatalogAggregate.RAW_MATERIALS);
+        String reference = "product " + product.getCode();
+        stockMovementRepository.append(consumption.entrySet().stream()
+                .map(entry -> StockMovement.now(entry.getKey(), StockMovementType.CONSUMPTION, -entry.getValue(), reference))
+                .toList());
+        for (RawMaterialStockLevel level : stock.remaining()) {
+            eventPublisher.publishEvent(new RawMaterialChangedEvent(
+                    level.id(),
+                    level.code(),
+                    level.name(),
+                    level.stockQuantity()
+            ));
+        }
+        for (UUID changedProductId : changedRecipeProducts) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(changedProductId));
         }
 
         return product;
     }
+
+    private void publishChanged(Product product) {
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                product.getId(),
+                product.getCode(),
+                product.getName(),
+                product.getPrice()
+        ));
+    }
 }
@@ -0,0 +1,117 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ConsumedMaterial;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderRequest;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Entity.Product;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import com.diamon.manufacturinginventory.Entity.UuidV7Generator;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InsufficientQuantity;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Consumes the raw materials needed to make existing products. Requirements are exploded from the
+ * stored recipe lines with one recursive query inside the transaction, not from the memoized bill
+ * of materials, which may not have caught up with a recipe changed on another node; sub-assemblies
+ * are flattened on the way. The products are checked with one query and all materials are taken
+ * with one batched conditional update, in a single transaction.
+ */
+@Service
+public class ProductionOrderService {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductionOrderService(ProductRepository productRepository,
+                                  RawMaterialsRepository rawMaterialsRepository,
+                                  StockMovementRepository stockMovementRepository,
+                                  ProductRecipeRepository productRecipeRepository,
+                                  CatalogVersions catalogVersions,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.productRecipeRepository = productRecipeRepository;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public ProductionOrderResponse produce(ProductionOrderRequest request) {
+        Set<UUID> productIds = new LinkedHashSet<>();
+        for (ProductionOrderItem item : request.items()) {
+            productIds.add(item.productId());
+        }
+        Map<UUID, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+        for (UUID productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new EntityNotFoundException("Product not found: " + productId);
+            }
+        }
+        Map<UUID, Map<UUID, Long>> recipes = productRecipeRepository.explodeRecipes(productIds);
+
+        Map<UUID, Long> requirements = new HashMap<>();
+        for (ProductionOrderItem item : request.items()) {
+            Product product = products.get(item.productId());
+            Map<UUID, Long> perUnit = recipes.getOrDefault(product.getId(), Map.of());
+            if (perUnit.isEmpty()) {
+                throw new InvalidRecipeException("Product " + product.getName() + " has no recipe");
+            }
+            perUnit.forEach((rawMaterialId, quantity) ->
+                    requirements.merge(rawMaterialId, Math.multiplyExact(quantity, (long) item.quantity()), Math::addExact));
+        }
+
+        StockConsumption stock = rawMaterialsRepository.consumeStock(requirements);
+        if (!stock.isComplete()) {
+            throw InsufficientQuantity.forShortages(stock.shortages());
+        }
+
+        UUID orderId = UuidV7Generator.next();
+        String reference = "production order " + orderId;
+        List<StockMovement> movements = new ArrayList<>(requirements.size());
+        List<ConsumedMaterial> consumed = new ArrayList<>(requirements.size());
+        for (RawMaterialStockLevel level : stock.remaining()) {
+            long quantity = requirements.get(level.id());
+            movements.add(StockMovement.now(level.id(), StockMovementType.CONSUMPTION, -quantity, reference));
+            consumed.add(new ConsumedMaterial(level.id(), level.code(), level.name(), quantity, level.stockQuantity()));
+            eventPublisher.publishEvent(new RawMaterialChangedEvent(
+                    level.id(),
+                    level.code(),
+                    level.name(),
+                    level.stockQuantity()
+            ));
+        }
+        stockMovementRepository.append(movements);
+        catalogVersions.changed(CatalogAggregate.RAW_MATERIALS);
+        return new ProductionOrderResponse(orderId, request.items(), consumed);
+    }
+}
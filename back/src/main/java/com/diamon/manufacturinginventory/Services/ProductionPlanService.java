@@ -0,0 +1,148 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionPlanResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the most valuable mix of products the current stock can make. Products, stock and recipes
+ * are read in one read-only repeatable-read transaction, so the plan never combines a stock level
+ * with a recipe or a product list from a different moment; the solver then runs outside it, without
+ * holding a connection for its time budget.
+ */
+@Service
+public class ProductionPlanService {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final long defaultTimeBudgetMs;
+    private final long maxTimeBudgetMs;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public ProductionPlanService(ProductRepository productRepository,
+                                 RawMaterialsRepository rawMaterialsRepository,
+                                 ProductRecipeRepository productRecipeRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${inventory.production-plan.time-budget-ms:2000}") long defaultTimeBudgetMs,
+                                 @Value("${inventory.production-plan.max-time-budget-ms:30000}") long maxTimeBudgetMs,
+                                 @Value("${inventory.production-plan.parallelism:0}") int parallelism) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.productRecipeRepository = productRecipeRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.defaultTimeBudgetMs = defaultTimeBudgetMs;
+        this.maxTimeBudgetMs = maxTimeBudgetMs;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "production-plan-solver-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ProductionPlanResponse getProductionPlan(Long timeBudgetMs) {
+        long budget = timeBudgetMs != null && timeBudgetMs > 0 ? Math.min(timeBudgetMs, maxTimeBudgetMs) : defaultTimeBudgetMs;
+        long start = System.nanoTime();
+
+        PlanInput input = snapshotTransaction.execute(status -> {
+            List<ProductSummary> products = productRepository.findAllSummariesWithRecipes();
+            List<UUID> productIds = products.stream().map(ProductSummary::id).toList();
+            return PlanInput.from(products, rawMaterialsRepository.findAllStock(),
+                    productRecipeRepository.explodeRecipes(productIds));
+        });
+        ProductionPlanSolver.Solution solution = ProductionPlanSolver.solve(
+                input.problem(), TimeUnit.MILLISECONDS.toNanos(budget), executor, parallelism);
+
+        List<ProductProductionSuggestion> items = new ArrayList<>();
+        for (int j = 0; j < input.names().size(); j++) {
+            int quantity = solution.quantities()[j];
+            if (quantity > 0) {
+                double price = input.problem().prices()[j];
+                items.add(new ProductProductionSuggestion(input.names().get(j), quantity, price, quantity * price));
+            }
+        }
+        items.sort((a, b) -> Double.compare(b.totalValue(), a.totalValue()));
+
+        return new ProductionPlanResponse(
+                items,
+                solution.value(),
+                solution.optimal(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record PlanInput(ProductionPlanSolver.Problem problem, List<String> names) {
+
+        /**
+         * A material missing from the stock list counts as out of stock, and a product without a
+         * price is worth nothing; the solver does not make either.
+         */
+        private static PlanInput from(List<ProductSummary> products, List<RawMaterialStock> stock,
+                                      Map<UUID, Map<UUID, Long>> requirements) {
+            Map<UUID, Integer> materialIndex = new HashMap<>();
+            long[] capacities = new long[stock.size()];
+            for (RawMaterialStock material : stock) {
+                capacities[materialIndex.size()] = material.stockQuantity();
+                materialIndex.put(material.id(), materialIndex.size());
+            }
+
+            int n = products.size();
+            double[] prices = new double[n];
+            int[][] materials = new int[n][];
+            long[][] required = new long[n][];
+            List<String> names = new ArrayList<>(n);
+            for (int j = 0; j < n; j++) {
+                ProductSummary product = products.get(j);
+                prices[j] = product.price() == null ? 0 : product.price().doubleValue();
+                names.add(product.name());
+                Map<UUID, Long> requirement = requirements.getOrDefault(product.id(), Map.of());
+                materials[j] = new int[requirement.size()];
+                required[j] = new long[requirement.size()];
+                int k = 0;
+                for (Map.Entry<UUID, Long> line : requirement.entrySet()) {
+                    Integer index = materialIndex.get(line.getKey());
+                    if (index == null) {
+                        index = materialIndex.size();
+                        materialIndex.put(line.getKey(), index);
+                        capacities = Arrays.copyOf(capacities, index + 1);
+                    }
+                    materials[j][k] = index;
+                    required[j][k] = line.getValue();
+                    k++;
+                }
+            }
+            return new PlanInput(new ProductionPlanSolver.Problem(prices, materials, required, capacities), names);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.diamon.manufacturinginventory.Services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Branch-and-bound solver for the integer production-mix problem:
+ * maximize {@code sum(price[j] * x[j])} subject to {@code sum(required[j][i] * x[j]) <= stock[i]}
+ * for every raw material {@code i}.
+ * <p>
+ * Every worker runs a depth-first search over its own product ordering. The bound of a node is
+ * the fractional knapsack over a surrogate constraint (all material limits folded with positive
+ * weights), which never underestimates the LP relaxation. Workers use different surrogate
+ * weights, so they explore the tree in different orders while sharing the incumbent used for
+ * pruning. The first leaf of every worker is the greedy solution and a plan is always published,
+ * even with a zero budget; after that the best plan found is returned when the deadline passes.
+ */
+public final class ProductionPlanSolver {
+
+    private static final double EPSILON = 1e-9;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private ProductionPlanSolver() {
+    }
+
+    /**
+     * @param prices     value of one unit of each product
+     * @param materials  raw material indexes used by each product
+     * @param required   quantity of each of those materials per unit, aligned with {@code materials}
+     * @param capacities available stock per raw material index
+     */
+    public record Problem(double[] prices, int[][] materials, long[][] required, long[] capacities) {
+
+        public int productCount() {
+            return prices.length;
+        }
+    }
+
+    public record Solution(int[] quantities, double value, boolean optimal) {
+    }
+
+    public static Solution solve(Problem problem, long timeBudgetNanos, ExecutorService executor, int workers) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int n = problem.productCount();
+        int[] upperBounds = new int[n];
+        List<Integer> candidates = new ArrayList<>();
+        for (int j = 0; j < n; j++) {
+            upperBounds[j] = maxUnits(problem, j, problem.capacities());
+            if (upperBounds[j] > 0 && problem.prices()[j] > 0) candidates.add(j);
+        }
+
+        AtomicReference<Solution> incumbent = new AtomicReference<>(new Solution(new int[n], 0, false));
+        if (candidates.isEmpty()) {
+            return new Solution(new int[n], 0, true);
+        }
+
+        AtomicBoolean provenOptimal = new AtomicBoolean(false);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            Worker worker = new Worker(problem, candidates, upperBounds, surrogateWeights(problem, w),
+                    incumbent, provenOptimal, deadline);
+            futures.add(executor.submit(worker::run));
+        }
+
+        // workers check the deadline themselves, so waiting for them is bounded by the budget
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Production plan worker failed", e.getCause());
+            }
+        }
+
+        Solution best = incumbent.get();
+        return new Solution(best.quantities(), best.value(), provenOptimal.get());
+    }
+
+    private static int maxUnits(Problem problem, int product, long[] capacities) {
+        int[] materials = problem.materials()[product];
+        long[] required = problem.required()[product];
+        if (materials.length == 0) return 0;
+        long max = Integer.MAX_VALUE;
+        for (int k = 0; k < materials.length; k++) {
+            long units = capacities[materials[k]] / required[k];
+            if (units < max) max = units;
+        }
+        return (int) max;
+    }
+
+    /**
+     * Worker 0 normalizes every material by its stock; the others perturb those weights with a
+     * fixed seed so the orderings differ between workers but stay reproducible.
+     */
+    private static double[] surrogateWeights(Problem problem, int worker) {
+        long[] capacities = problem.capacities();
+        double[] weights = new double[capacities.length];
+        Random random = new Random(worker);
+        for (int i = 0; i < capacities.length; i++) {
+            double base = capacities[i] > 0 ? 1.0 / capacities[i] : 1.0;
+            weights[i] = worker == 0 ? base : base * Math.exp(random.nextGaussian() * 0.5);
+        }
+        return weights;
+    }
+
+    private static final class Worker {
+        private final Problem problem;
+        private final AtomicReference<Solution> incumbent;
+        private final AtomicBoolean provenOptimal;
+        private final long deadline;
+
+        private final double[] weights;
+        private final int n;
+        private final int[] order;
+        private final int[] caps;
+        private final double[] surrogate;
+        private final double[] cumulativeWeight;
+        private final double[] cumulativeValue;
+
+        private Worker(Problem problem, List<Integer> candidates, int[] upperBounds, double[] weights,
+                       AtomicReference<Solution> incumbent, AtomicBoolean provenOptimal, long deadline) {
+            this.problem = problem;
+            this.incumbent = incumbent;
+            this.provenOptimal = provenOptimal;
+            this.deadline = deadline;
+            this.weights = weights;
+            this.n = candidates.size();
+
+            double[] surrogateByProduct = new double[problem.productCount()];
+            for (int j : candidates) {
+                int[] materials = problem.materials()[j];
+                long[] required = problem.required()[j];
+                double s = 0;
+                for (int k = 0; k < materials.length; k++) {
+                    s += required[k] * weights[materials[k]];
+                }
+                surrogateByProduct[j] = s;
+            }
+
+            Integer[] sorted = candidates.toArray(new Integer[0]);
+            Arrays.sort(sorted, (a, b) -> {
+                int byDensity = Double.compare(problem.prices()[b] / surrogateByProduct[b],
+                        problem.prices()[a] / surrogateByProduct[a]);
+                return byDensity != 0 ? byDensity : Integer.compare(a, b);
+            });
+
+            this.order = new int[n];
+            this.caps = new int[n];
+            this.surrogate = new double[n];
+            this.cumulativeWeight = new double[n + 1];
+            this.cumulativeValue = new double[n + 1];
+            for (int d = 0; d < n; d++) {
+                int j = sorted[d];
+                order[d] = j;
+                caps[d] = upperBounds[j];
+                surrogate[d] = surrogateByProduct[j];
+                cumulativeWeight[d + 1] = cumulativeWeight[d] + caps[d] * surrogate[d];
+                cumulativeValue[d + 1] = cumulativeValue[d] + caps[d] * problem.prices()[j];
+            }
+        }
+
+        private void run() {
+            long[] remaining = problem.capacities().clone();
+            double capacity = 0;
+            for (int i = 0; i < remaining.length; i++) {
+                capacity += weights[i] * remaining[i];
+            }
+            int[] applied = new int[n];
+            int[] next = new int[n];
+            double value = 0;
+            long iterations = 0;
+            boolean reachedLeaf = false;
+
+            int d = 0;
+            next[0] = maxUnits(problem, order[0], remaining);
+            while (true) {
+                if (provenOptimal.get()) return;
+                // the deadline is only honoured once some worker has published a plan
+                if (++iterations % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline
+                        && (reachedLeaf || incumbent.get().value() > 0)) return;
+
+                if (d == n) {
+                    offer(applied, value);
+                    reachedLeaf = true;
+                    d--;
+                    continue;
+                }
+
+                int j = order[d];
+                if (applied[d] > 0) {
+                    int q = applied[d];
+                    release(j, q, remaining);
+                    value -= q * problem.prices()[j];
+                    capacity += q * surrogate[d];
+                    applied[d] = 0;
+                }
+
+                int q = next[d];
+                if (q < 0) {
+                    if (d == 0) break;
+                    d--;
+                    continue;
+                }
+                next[d] = q - 1;
+
+                if (q > 0) {
+                    consume(j, q, remaining);
+                    value += q * problem.prices()[j];
+                    capacity -= q * surrogate[d];
+                    applied[d] = q;
+                }
+
+                if (value + bound(d + 1, capacity) <= incumbent.get().value() + EPSILON) {
+                    // with products sorted by surrogate density, smaller quantities at this depth
+                    // cannot raise the bound either
+                    next[d] = -1;
+                    continue;
+                }
+
+                d++;
+                if (d < n) next[d] = maxUnits(problem, order[d], remaining);
+            }
+            provenOptimal.set(true);
+        }
+
+        /**
+         * Fractional knapsack over the products from {@code depth} on, using prefix sums so the
+         * bound costs a binary search instead of a scan.
+         */
+        private double bound(int depth, double capacity) {
+            if (depth >= n || capacity <= 0) return 0;
+            double base = cumulativeWeight[depth];
+            int lo = depth;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (cumulativeWeight[mid] - base <= capacity) lo = mid; else hi = mid - 1;
+            }
+            double result = cumulativeValue[lo] - cumulativeValue[depth];
+            if (lo < n) {
+                double left = capacity - (cumulativeWeight[lo] - base);
+                result += left * problem.prices()[order[lo]] / surrogate[lo];
+            }
+            return result;
+        }
+
+        private void offer(int[] applied, double value) {
+            while (true) {
+                Solution current = incumbent.get();
+                if (value <= current.value() + EPSILON) return;
+                int[] quantities = new int[problem.productCount()];
+                for (int d = 0; d < n; d++) {
+                    quantities[order[d]] = applied[d];
+                }
+                if (incumbent.compareAndSet(current, new Solution(quantities, value, false))) return;
+            }
+        }
+
+        private void consume(int product, int units, long[] remaining) {
+            int[] materials = problem.materials()[product];
+            long[] required = problem.required()[product];
+            for (int k = 0; k < materials.length; k++) {
+                remaining[materials[k]] -= units * required[k];
+            }
+        }
+
+        private void release(int product, int units, long[] remaining) {
+            int[] materials = problem.materials()[product];
+            long[] required = problem.required()[product];
+            for (int k = 0; k < materials.length; k++) {
+                remaining[materials[k]] += units * required[k];
+            }
+        }
+    }
+}
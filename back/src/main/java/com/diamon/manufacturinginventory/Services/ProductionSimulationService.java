@@ -0,0 +1,114 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.Simulation.RecipeOverride;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationRequest;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationResult;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationScenario;
+import com.diamon.manufacturinginventory.DTOs.Simulation.StockDelta;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Evaluates what-if scenarios without touching the data. The stock, the products and the recipe
+ * lines are read once, in one repeatable-read transaction, into an {@link InventorySnapshot} and
+ * every scenario is evaluated as an overlay on it, in parallel on a dedicated fork-join pool. The
+ * recipes come from the database rather than the {@link BillOfMaterialsExplosion} memo, which may
+ * be ahead of or behind the stock read here.
+ */
+@Service
+public class ProductionSimulationService {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final ForkJoinPool pool;
+
+    public ProductionSimulationService(ProductRepository productRepository,
+                                       RawMaterialsRepository rawMaterialsRepository,
+                                       ProductRecipeRepository productRecipeRepository,
+                                       @Value("${inventory.simulation.parallelism:0}") int parallelism) {
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.productRecipeRepository = productRecipeRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("production-simulation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<SimulationResult> simulate(SimulationRequest request) {
+        List<SimulationScenario> scenarios = request.scenarios();
+        InventorySnapshot snapshot = snapshot(scenarios);
+        // a parallel stream started from inside the pool forks its tasks on that pool
+        return pool.submit(() -> scenarios.parallelStream()
+                .map(scenario -> new SimulationResult(scenario.name(), snapshot.evaluate(scenario)))
+                .toList()).join();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private InventorySnapshot snapshot(List<SimulationScenario> scenarios) {
+        BillOfMaterialsExplosion.Snapshot recipes =
+                BillOfMaterialsExplosion.Snapshot.of(productRecipeRepository.findAllBillOfMaterialLines());
+        List<ProductSummary> products = new ArrayList<>(productRepository.findAllSummariesWithRecipes());
+
+        Set<UUID> missingProducts = new HashSet<>();
+        for (SimulationScenario scenario : scenarios) {
+            for (RecipeOverride override : scenario.recipeOverrides()) {
+                missingProducts.add(override.productId());
+                if (override.componentProductId() != null) missingProducts.add(override.componentProductId());
+            }
+        }
+        for (ProductSummary product : products) {
+            missingProducts.remove(product.id());
+        }
+        if (!missingProducts.isEmpty()) {
+            // products that only get a recipe in some scenario
+            for (ProductSummary product : productRepository.findSummariesByIdIn(missingProducts)) {
+                products.add(product);
+                missingProducts.remove(product.id());
+            }
+            if (!missingProducts.isEmpty()) {
+                throw new EntityNotFoundException("Product not found: " + missingProducts.iterator().next());
+            }
+        }
+
+        InventorySnapshot snapshot = new InventorySnapshot(rawMaterialsRepository.findAllStock(), products, recipes);
+        for (SimulationScenario scenario : scenarios) {
+            for (StockDelta delta : scenario.stockDeltas()) {
+                requireRawMaterial(snapshot, delta.rawMaterialId());
+            }
+            for (RecipeOverride override : scenario.recipeOverrides()) {
+                if (override.rawMaterialId() != null) requireRawMaterial(snapshot, override.rawMaterialId());
+            }
+        }
+        return snapshot;
+    }
+
+    private static void requireRawMaterial(InventorySnapshot snapshot, UUID rawMaterialId) {
+        if (!snapshot.hasRawMaterial(rawMaterialId)) {
+            throw new EntityNotFoundException("Raw material not found: " + rawMaterialId);
+        }
+    }
+}
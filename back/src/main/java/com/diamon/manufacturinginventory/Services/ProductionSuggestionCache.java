@@ -0,0 +1,272 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionSuggestionCacheStats;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory materialized view of the buildable quantity of every product.
+ * <p>
+ * The view is loaded once and then kept in sync by the change events published from the
+ * write paths, after their transaction commits. Requirements come from the memoized
+ * {@link BillOfMaterialsExplosion}, which also reports the products whose recipe tree changed.
+ * A raw material reverse index limits a stock change to the products that actually use that
+ * material. Buildable products are kept ranked by value, so a read either returns the last
+ * published list or copies the ranked set.
+ * <p>
+ * The events only come from this node, so every read first compares the stored catalog versions
+ * with the ones the view is up to date with. Products changed by another node reload the view;
+ * stock changed by another node, which every production order does, reloads only the stock.
+ */
+@Component
+public class ProductionSuggestionCache {
+
+    private static final Comparator<ProductEntry> BY_VALUE_DESC = Comparator
+            .comparing((ProductEntry e) -> e.price).reversed()
+            .thenComparing(e -> e.productId);
+
+    private final BillOfMaterialsExplosion billOfMaterials;
+    private final ProductRepository productRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final CatalogVersions catalogVersions;
+    private final SeenVersions versions = new SeenVersions(CatalogAggregate.PRODUCTS, CatalogAggregate.RAW_MATERIALS);
+
+    private final Map<UUID, ProductEntry> products = new HashMap<>();
+    private final Map<UUID, Integer> stockByRawMaterial = new HashMap<>();
+    private final Map<UUID, Set<UUID>> productsByRawMaterial = new HashMap<>();
+    private final TreeSet<ProductEntry> ranked = new TreeSet<>(BY_VALUE_DESC);
+    private boolean loaded;
+
+    private volatile List<ProductProductionSuggestion> published;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong productRecomputes = new AtomicLong();
+    private final AtomicLong fullLoads = new AtomicLong();
+
+    public ProductionSuggestionCache(BillOfMaterialsExplosion billOfMaterials,
+                                     ProductRepository productRepository,
+                                     RawMaterialsRepository rawMaterialsRepository,
+                                     CatalogVersions catalogVersions) {
+        this.billOfMaterials = billOfMaterials;
+        this.productRepository = productRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.catalogVersions = catalogVersions;
+        billOfMaterials.addInvalidationListener(this::onRequirementsChanged);
+        catalogVersions.addCommitListener(versions::committed);
+    }
+
+    public List<ProductProductionSuggestion> getSuggestions() {
+        Map<CatalogAggregate, Long> stored = catalogVersions.current();
+        billOfMaterials.refresh(stored);
+        refresh(stored);
+        List<ProductProductionSuggestion> current = published;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        synchronized (this) {
+            if (published != null) {
+                hits.incrementAndGet();
+                return published;
+            }
+            misses.incrementAndGet();
+            ensureLoaded();
+            List<ProductProductionSuggestion> suggestions = new ArrayList<>(ranked.size());
+            for (ProductEntry entry : ranked) {
+                suggestions.add(entry.toSuggestion());
+            }
+            published = List.copyOf(suggestions);
+            return published;
+        }
+    }
+
+    public ProductionSuggestionCacheStats getStats() {
+        synchronized (this) {
+            return new ProductionSuggestionCacheStats(
+                    hits.get(),
+                    misses.get(),
+                    productRecomputes.get(),
+                    fullLoads.get(),
+                    products.size()
+            );
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRawMaterialChanged(RawMaterialChangedEvent event) {
+        if (!loaded) return;
+        stockByRawMaterial.put(event.rawMaterialId(), event.stockQuantity());
+        for (UUID productId : productsByRawMaterial.getOrDefault(event.rawMaterialId(), Set.of())) {
+            recompute(products.get(productId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRawMaterialDeleted(RawMaterialDeletedEvent event) {
+        if (!loaded) return;
+        stockByRawMaterial.remove(event.rawMaterialId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (!loaded) return;
+        ProductEntry entry = products.get(event.productId());
+        if (entry == null) return;
+        boolean wasRanked = ranked.remove(entry);
+        entry.name = event.name();
+        entry.price = event.price();
+        if (wasRanked) ranked.add(entry);
+        published = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductDeleted(ProductDeletedEvent event) {
+        if (!loaded) return;
+        removeProduct(event.productId());
+    }
+
+    /**
+     * Called by the bill of materials after a recipe tree changed; {@code null} means everything.
+     */
+    synchronized void onRequirementsChanged(Set<UUID> productIds) {
+        if (!loaded) return;
+        if (productIds == null) {
+            reset();
+            return;
+        }
+        for (UUID productId : productIds) {
+            ProductEntry previous = products.get(productId);
+            removeProduct(productId);
+            if (!billOfMaterials.hasRecipe(productId)) continue;
+            if (previous != null) {
+                index(productId, previous.name, previous.price);
+            } else {
+                productRepository.findSummaryById(productId)
+                        .ifPresent(summary -> index(summary.id(), summary.name(), summary.price()));
+            }
+        }
+    }
+
+    private synchronized void refresh(Map<CatalogAggregate, Long> stored) {
+        if (!loaded) return;
+        Set<CatalogAggregate> changed = versions.changed(stored);
+        if (changed.contains(CatalogAggregate.PRODUCTS)) {
+            reset();
+        } else if (changed.contains(CatalogAggregate.RAW_MATERIALS)) {
+            versions.loaded(stored);
+            stockByRawMaterial.clear();
+            for (RawMaterialStock stock : rawMaterialsRepository.findAllStock()) {
+                stockByRawMaterial.put(stock.id(), stock.stockQuantity());
+            }
+            for (ProductEntry entry : products.values()) {
+                recompute(entry);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        fullLoads.incrementAndGet();
+        versions.loaded(catalogVersions.current());
+        for (RawMaterialStock stock : rawMaterialsRepository.findAllStock()) {
+            stockByRawMaterial.put(stock.id(), stock.stockQuantity());
+        }
+        for (ProductSummary summary : productRepository.findAllSummariesWithRecipes()) {
+            index(summary.id(), summary.name(), summary.price());
+        }
+        loaded = true;
+    }
+
+    private void reset() {
+        products.clear();
+        stockByRawMaterial.clear();
+        productsByRawMaterial.clear();
+        ranked.clear();
+        loaded = false;
+        published = null;
+    }
+
+    private void index(UUID productId, String name, BigDecimal price) {
+        ProductEntry entry = new ProductEntry(productId, name, price, billOfMaterials.explode(productId));
+        if (entry.requirement.isEmpty()) return;
+        products.put(productId, entry);
+        for (UUID rawMaterialId : entry.requirement.keySet()) {
+            productsByRawMaterial.computeIfAbsent(rawMaterialId, id -> new HashSet<>()).add(productId);
+        }
+        recompute(entry);
+    }
+
+    private void removeProduct(UUID productId) {
+        ProductEntry entry = products.remove(productId);
+        if (entry == null) return;
+        for (UUID rawMaterialId : entry.requirement.keySet()) {
+            Set<UUID> users = productsByRawMaterial.get(rawMaterialId);
+            if (users != null) {
+                users.remove(productId);
+                if (users.isEmpty()) productsByRawMaterial.remove(rawMaterialId);
+            }
+        }
+        if (ranked.remove(entry)) published = null;
+    }
+
+    private void recompute(ProductEntry entry) {
+        productRecomputes.incrementAndGet();
+        long maxQuantity = Integer.MAX_VALUE;
+        for (Map.Entry<UUID, Long> line : entry.requirement.entrySet()) {
+            long available = stockByRawMaterial.getOrDefault(line.getKey(), 0) / line.getValue();
+            if (available < maxQuantity) maxQuantity = available;
+        }
+        if (maxQuantity == entry.maxQuantity) return;
+
+        entry.maxQuantity = (int) maxQuantity;
+        if (maxQuantity > 0) {
+            ranked.add(entry);
+        } else {
+            ranked.remove(entry);
+        }
+        published = null;
+    }
+
+    private static final class ProductEntry {
+        private final UUID productId;
+        private final Map<UUID, Long> requirement;
+        private String name;
+        private BigDecimal price;
+        private int maxQuantity = -1;
+
+        private ProductEntry(UUID productId, String name, BigDecimal price, Map<UUID, Long> requirement) {
+            this.productId = productId;
+            this.name = name;
+            this.price = price;
+            this.requirement = requirement;
+        }
+
+        private ProductProductionSuggestion toSuggestion() {
+            double value = price.doubleValue();
+            return new ProductProductionSuggestion(name, maxQuantity, value, maxQuantity * value);
+        }
+    }
+}
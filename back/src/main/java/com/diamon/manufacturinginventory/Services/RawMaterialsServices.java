@@ -1,54 +1,147 @@
 package com.diamon.manufacturinginventory.Services;
 
 
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
 import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialsRequest;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.WhereUsedResponse;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
 import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
 import com.diamon.manufacturinginventory.Mapper.RawMaterialsMapper;
+import com.diamon.manufacturinginventory.Repository.InventorySpecifications;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class RawMaterialsServices {
 
+    private static final KeysetPagination.Sortable SORTABLE = new KeysetPagination.Sortable("code", Map.of(
+            "code", String.class,
+            "name", String.class,
+            "stockQuantity", Integer.class,
+            "id", UUID.class));
+
     private final RawMaterialsRepository rawMaterialsRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RawMaterialsServices(RawMaterialsRepository rawMaterialsRepository) {
+    public RawMaterialsServices(RawMaterialsRepository rawMaterialsRepository,
+                                StockMovementRepository stockMovementRepository,
+                                ProductRecipeRepository productRecipeRepository,
+                                CatalogVersions catalogVersions,
+                                ApplicationEventPublisher eventPublisher) {
         this.rawMaterialsRepository = rawMaterialsRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.productRecipeRepository = productRecipeRepository;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Read from the database rather than through the {@link CatalogLookup}: the stock changes with
+     * every production order on any node, and the cached entry is only evicted by this node's events.
+     */
+    @Transactional(readOnly = true)
     public RawMaterials findById(UUID id) {
         return rawMaterialsRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
     }
 
+    @Transactional
     public RawMaterials save(RawMaterialsRequest rawMaterial) {
         RawMaterials entity = RawMaterialsMapper.toEntity(rawMaterial);
-        return rawMaterialsRepository.save(entity);
+        RawMaterials saved = rawMaterialsRepository.save(entity);
+        if (saved.getStockQuantity() != 0) {
+            stockMovementRepository.append(List.of(
+                    StockMovement.now(saved.getId(), StockMovementType.RECEIPT, saved.getStockQuantity(), null)));
+        }
+        catalogVersions.changed(CatalogAggregate.RAW_MATERIALS);
+        publishChanged(saved);
+        return saved;
     }
 
+    @Transactional
     public void deleteById(UUID id) {
         RawMaterials rawMaterial = rawMaterialsRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
         rawMaterialsRepository.deleteById(id);
+        catalogVersions.changed(CatalogAggregate.RAW_MATERIALS, CatalogAggregate.RECIPES);
+        eventPublisher.publishEvent(new RawMaterialDeletedEvent(id));
     }
 
+    /**
+     * The new stock is an absolute count, so the row is locked while the difference to the current
+     * stock is recorded as an adjustment.
+     */
+    @Transactional
     public void update(UUID id, RawMaterialsRequest rawMaterial) {
-        RawMaterials existingRawMaterial = rawMaterialsRepository.findById(id)
+        RawMaterials existingRawMaterial = rawMaterialsRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
 
+        long adjustment = (long) rawMaterial.stockQuantity() - existingRawMaterial.getStockQuantity();
+        if (adjustment != 0) {
+            stockMovementRepository.append(List.of(
+                    StockMovement.now(id, StockMovementType.ADJUSTMENT, adjustment, null)));
+        }
         existingRawMaterial.setName(rawMaterial.name());
         existingRawMaterial.setCode(rawMaterial.code());
         existingRawMaterial.setStockQuantity(rawMaterial.stockQuantity());
+        if (rawMaterial.reorderThreshold() != null) {
+            existingRawMaterial.setReorderThreshold(rawMaterial.reorderThreshold());
+        }
 
         rawMaterialsRepository.save(existingRawMaterial);
+        catalogVersions.changed(CatalogAggregate.RAW_MATERIALS, CatalogAggregate.RECIPES);
+        publishChanged(existingRawMaterial);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RawMaterialResponse> findAll () {
+     return rawMaterialsRepository.findAllResponses();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<RawMaterialResponse> findPage(String code, String name, Integer stockBelow,
+                                                    String sort, String direction, String cursor, Integer limit) {
+        Specification<RawMaterials> filter = Specification.allOf(
+                InventorySpecifications.codeStartsWith(code),
+                InventorySpecifications.nameContains(name),
+                InventorySpecifications.stockBelow(stockBelow));
+        return KeysetPagination.page(rawMaterialsRepository, filter, SORTABLE, sort, direction, cursor, limit, RawMaterialsMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WhereUsedResponse> findWhereUsed(UUID id) {
+        if (!rawMaterialsRepository.existsById(id)) {
+            throw new EntityNotFoundException("Raw material not found");
+        }
+        return productRecipeRepository.findWhereUsed(id);
     }
 
-    public List<RawMaterials> findAll () {
-     return rawMaterialsRepository.findAll();
+    private void publishChanged(RawMaterials rawMaterial) {
+        eventPublisher.publishEvent(new RawMaterialChangedEvent(
+                rawMaterial.getId(),
+                rawMaterial.getCode(),
+                rawMaterial.getName(),
+                rawMaterial.getStockQuantity(),
+                rawMaterial.getReorderThreshold()
+        ));
     }
 
 }
@@ -0,0 +1,59 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+import com.diamon.manufacturinginventory.Exceptions.InvalidSearchRequestException;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Search over product and raw material codes and names. Prefix matches come from the in-memory
+ * {@link CatalogSearchIndex} without touching the database. Only when they do not fill the page
+ * does the query go to the trigram indexes, for names containing the query and for typos.
+ */
+@Service
+public class SearchService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+    // trigram similarity needs three characters to say anything
+    static final int MIN_FUZZY_LENGTH = 3;
+
+    private final CatalogSearchIndex searchIndex;
+    private final ProductRepository productRepository;
+
+    public SearchService(CatalogSearchIndex searchIndex, ProductRepository productRepository) {
+        this.searchIndex = searchIndex;
+        this.productRepository = productRepository;
+    }
+
+    public List<SearchResult> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidSearchRequestException("Query must not be blank");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new InvalidSearchRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String term = query.strip();
+        List<SearchResult> results = searchIndex.search(term, size);
+        if (results.size() == size || term.length() < MIN_FUZZY_LENGTH) {
+            return results;
+        }
+
+        List<SearchResult> merged = new ArrayList<>(results);
+        Set<UUID> listed = new HashSet<>();
+        results.forEach(result -> listed.add(result.id()));
+        // the prefix matches are found again by the fuzzy query, so ask for enough rows to skip them
+        for (SearchResult fuzzy : productRepository.fuzzySearch(term, size + results.size())) {
+            if (merged.size() == size) break;
+            if (listed.add(fuzzy.id())) merged.add(fuzzy);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,55 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The catalog versions an in-memory view is up to date with, for the aggregates it is built from.
+ * <p>
+ * The view records the versions it read just before loading. A commit of this node moves a version
+ * by one and reaches the view through its change events, so that version counts as seen too. Any
+ * other difference from the stored versions is a commit of another node, which the view has to
+ * reload for.
+ */
+final class SeenVersions {
+
+    private final Set<CatalogAggregate> aggregates;
+    private final Map<CatalogAggregate, Long> seen = new EnumMap<>(CatalogAggregate.class);
+
+    SeenVersions(CatalogAggregate first, CatalogAggregate... rest) {
+        this.aggregates = EnumSet.of(first, rest);
+    }
+
+    synchronized void loaded(Map<CatalogAggregate, Long> current) {
+        seen.clear();
+        for (CatalogAggregate aggregate : aggregates) {
+            Long version = current.get(aggregate);
+            if (version != null) seen.put(aggregate, version);
+        }
+    }
+
+    /**
+     * The aggregates whose stored version is not the one seen.
+     */
+    synchronized Set<CatalogAggregate> changed(Map<CatalogAggregate, Long> current) {
+        Set<CatalogAggregate> changed = EnumSet.noneOf(CatalogAggregate.class);
+        for (CatalogAggregate aggregate : aggregates) {
+            if (!Objects.equals(seen.get(aggregate), current.get(aggregate))) changed.add(aggregate);
+        }
+        return changed;
+    }
+
+    /**
+     * A commit of this node left the aggregate at {@code version}. Skipped when another commit came
+     * in between, so the stored version stays ahead and the next read reloads.
+     */
+    synchronized void committed(CatalogAggregate aggregate, long version) {
+        Long previous = seen.get(aggregate);
+        if (previous != null && previous + 1 == version) seen.put(aggregate, version);
+    }
+}
@@ -0,0 +1,110 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockBalance;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockLevelResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockMovementResponse;
+import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockSnapshot;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Mapper.RawMaterialsMapper;
+import com.diamon.manufacturinginventory.Repository.InventorySpecifications;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import com.diamon.manufacturinginventory.Repository.StockSnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stock history on top of the append-only {@code stock_movements} ledger.
+ * <p>
+ * {@code raw_materials.stock_quantity} stays the current balance (it is what the conditional
+ * decrement checks), and every change to it appends a movement in the same transaction. So the
+ * balance at any instant is the current stock minus what moved after it, or, cheaper for old
+ * instants, the nearest earlier snapshot plus what moved since. Snapshots are taken periodically
+ * for the materials that moved, at a cutoff lagging {@code settle-time} behind the clock so that
+ * transactions still in flight at the cutoff have committed their movements.
+ */
+@Service
+public class StockLedgerService {
+
+    private static final KeysetPagination.Sortable SORTABLE = new KeysetPagination.Sortable("occurredAt", Map.of(
+            "occurredAt", Instant.class,
+            "id", UUID.class));
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final RawMaterialsRepository rawMaterialsRepository;
+    private final Duration settleTime;
+
+    public StockLedgerService(StockMovementRepository stockMovementRepository,
+                              StockSnapshotRepository stockSnapshotRepository,
+                              RawMaterialsRepository rawMaterialsRepository,
+                              @Value("${inventory.stock-snapshots.settle-time:PT1M}") Duration settleTime) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.rawMaterialsRepository = rawMaterialsRepository;
+        this.settleTime = settleTime;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public StockLevelResponse stockAsOf(UUID rawMaterialId, Instant asOf) {
+        RawMaterials rawMaterial = rawMaterialsRepository.findById(rawMaterialId)
+                .orElseThrow(() -> new EntityNotFoundException("Raw material not found"));
+        Instant at = asOf == null ? Instant.now() : asOf;
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository
+                .findFirstByRawMaterialIdAndTakenAtLessThanEqualOrderByTakenAtDesc(rawMaterialId, at);
+        long quantity = snapshot
+                .map(s -> s.getBalance() + stockMovementRepository.sumBetween(rawMaterialId, s.getTakenAt(), at))
+                .orElseGet(() -> rawMaterial.getStockQuantity() - stockMovementRepository.sumAfter(rawMaterialId, at));
+        return new StockLevelResponse(rawMaterialId, at, quantity);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<StockMovementResponse> findMovementPage(UUID rawMaterialId, String direction, String cursor, Integer limit) {
+        if (!rawMaterialsRepository.existsById(rawMaterialId)) {
+            throw new EntityNotFoundException("Raw material not found");
+        }
+        return KeysetPagination.page(stockMovementRepository, InventorySpecifications.movementOfRawMaterial(rawMaterialId),
+                SORTABLE, "occurredAt", direction, cursor, limit, RawMaterialsMapper::toResponse);
+    }
+
+    /**
+     * Folds the movements up to {@code now - settle-time} into one snapshot per raw material that
+     * moved since the previous run; the first run snapshots every material. Every node schedules
+     * the job, so it first takes an advisory lock and skips the run when another node holds it;
+     * whichever node runs next starts from the cutoff of the last committed run.
+     *
+     * @return the number of snapshots written
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock-snapshots.interval:PT15M}",
+            initialDelayString = "${inventory.stock-snapshots.interval:PT15M}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int takeSnapshots() {
+        if (!stockSnapshotRepository.tryLockSnapshots()) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(settleTime);
+        Optional<Instant> previous = stockSnapshotRepository.findLatestTakenAt();
+        if (previous.isPresent() && !cutoff.isAfter(previous.get())) {
+            return 0;
+        }
+        List<StockBalance> balances = previous
+                .map(since -> stockSnapshotRepository.findBalancesAtMovedSince(since, cutoff))
+                .orElseGet(() -> stockSnapshotRepository.findAllBalancesAt(cutoff));
+        stockSnapshotRepository.saveAll(balances.stream()
+                .map(balance -> new StockSnapshot(null, balance.rawMaterialId(), balance.balance(), cutoff))
+                .toList());
+        return balances.size();
+    }
+}
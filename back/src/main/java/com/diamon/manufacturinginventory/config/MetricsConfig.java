@@ -0,0 +1,73 @@
+package com.diamon.manufacturinginventory.config;
+
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final String SERVICES_PACKAGE = "com.diamon.manufacturinginventory.Services";
+
+    /**
+     * Applies {@link ServiceTimingInterceptor} to the public methods of every {@code @Service} in
+     * the services package. Registered as infrastructure so the auto-proxy creator that already
+     * wraps the transactional services picks it up.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(type -> type.getPackageName().equals(SERVICES_PACKAGE)
+                && type.isAnnotationPresent(Service.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new ServiceTimingInterceptor(meterRegistry));
+        advisor.setOrder(0);
+        return advisor;
+    }
+
+    /**
+     * Catalog size and total stock, read from the database when the registry is scraped.
+     */
+    @Bean
+    MeterBinder inventoryCatalogMetrics(ProductRepository productRepository,
+                                        RawMaterialsRepository rawMaterialsRepository,
+                                        ProductRecipeRepository productRecipeRepository) {
+        return registry -> {
+            catalogSize(registry, "product", productRepository::count);
+            catalogSize(registry, "raw_material", rawMaterialsRepository::count);
+            catalogSize(registry, "recipe_line", productRecipeRepository::count);
+            Gauge.builder("inventory.stock.total", rawMaterialsRepository::sumStockQuantity)
+                    .description("Units in stock across all raw materials")
+                    .baseUnit("units")
+                    .register(registry);
+        };
+    }
+
+    private static void catalogSize(MeterRegistry registry, String entity, Supplier<Number> count) {
+        Gauge.builder("inventory.catalog.size", count)
+                .description("Rows in the catalog")
+                .tag("entity", entity)
+                .register(registry);
+    }
+}
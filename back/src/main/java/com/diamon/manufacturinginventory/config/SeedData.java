@@ -9,16 +9,24 @@ import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.math.BigDecimal;
 
+/**
+ * A handful of materials and products to click around with, for the {@code dev} profile only. The
+ * schema is kept between runs now, so the seed is skipped once there is data.
+ */
 @Configuration
+@Profile("dev")
 public class SeedData {
     @Bean
     CommandLineRunner initDatabase(ProductRepository productRepository,
                                    RawMaterialsRepository rawMaterialsRepository,
                                    ProductRecipeRepository productRecipeRepository) {
         return args -> {
+            if (rawMaterialsRepository.count() > 0) return;
+
             RawMaterials steel = new RawMaterials();
             steel.setCode("RM001");
             steel.setName("Steel");
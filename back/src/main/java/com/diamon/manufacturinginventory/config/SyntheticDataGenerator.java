@@ -0,0 +1,272 @@
+package com.diamon.manufacturinginventory.config;
+
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Services.CatalogVersions;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty database with a large synthetic catalog for load tests, when the {@code loadtest}
+ * profile is active.
+ * <p>
+ * Every row is derived from the seed and its own index only, so the same settings always produce
+ * the same data whatever the number of threads or the chunk size. Ids are time-ordered v7 uuids
+ * computed from the index, which lets a recipe line reference its product and material without
+ * keeping any id in memory. Materials are picked with a Zipf distribution: a few are shared by a
+ * large part of the products, as fasteners and sheet metal are, and most are used by a handful.
+ * A share of the products also uses one earlier product as a sub-assembly, so the trees are acyclic.
+ * <p>
+ * Rows are streamed with PostgreSQL {@code COPY} as they are generated, one chunk per task on a
+ * connection of its own, materials and products first and then the recipe lines that reference
+ * them; a task holds no more than the driver's copy buffer, whatever the chunk size.
+ */
+@Component
+@Profile("loadtest")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // 2026-01-01T00:00:00Z; the index is added in milliseconds
+    private static final long BASE_MILLIS = 1_767_225_600_000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long VERSION = 0x7000L;
+    private static final int MATERIAL = 1;
+    private static final int PRODUCT = 2;
+    private static final int RECIPE = 3;
+    private static final int MAX_LINES_PER_PRODUCT = 255;
+
+    private static final String COPY_RAW_MATERIALS =
+            "COPY raw_materials (id, code, name, stock_quantity, reorder_threshold) FROM STDIN";
+    private static final String COPY_PRODUCTS =
+            "COPY product (id, code, name, price) FROM STDIN";
+    private static final String COPY_RECIPES =
+            "COPY product_recipes (id, product_id, raw_product_id, component_product_id, required_quantity) FROM STDIN";
+
+    private final DataSource dataSource;
+    private final CatalogVersions catalogVersions;
+    private final int rawMaterials;
+    private final int products;
+    private final int maxLines;
+    private final long seed;
+    private final int threads;
+    private final int chunkSize;
+    private final double subAssemblyRatio;
+    private final double[] materialWeights;
+
+    public SyntheticDataGenerator(DataSource dataSource,
+                                  CatalogVersions catalogVersions,
+                                  @Value("${inventory.generator.raw-materials:1000000}") int rawMaterials,
+                                  @Value("${inventory.generator.products:200000}") int products,
+                                  @Value("${inventory.generator.recipe-lines:5000000}") long recipeLines,
+                                  @Value("${inventory.generator.seed:42}") long seed,
+                                  @Value("${inventory.generator.threads:0}") int threads,
+                                  @Value("${inventory.generator.chunk-size:20000}") int chunkSize,
+                                  @Value("${inventory.generator.material-skew:1.1}") double materialSkew,
+                                  @Value("${inventory.generator.sub-assembly-ratio:0.1}") double subAssemblyRatio) {
+        if (rawMaterials < 1 || products < 1 || recipeLines < products) {
+            throw new IllegalArgumentException("The generator needs at least one material and one recipe line per product");
+        }
+        this.dataSource = dataSource;
+        this.catalogVersions = catalogVersions;
+        this.rawMaterials = rawMaterials;
+        this.products = products;
+        // line counts are uniform in [1, maxLines], so they average (1 + maxLines) / 2 per product
+        long average = recipeLines / products;
+        this.maxLines = (int) Math.min(Math.min(2 * average - 1, MAX_LINES_PER_PRODUCT), rawMaterials);
+        this.seed = seed;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.subAssemblyRatio = subAssemblyRatio;
+        this.materialWeights = cumulativeZipf(rawMaterials, materialSkew);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (hasData()) {
+            log.info("Synthetic data generation skipped: raw_materials is not empty");
+            return;
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> catalog = new ArrayList<>();
+            catalog.addAll(submitChunks(pool, rawMaterials, COPY_RAW_MATERIALS, this::rawMaterialRow));
+            catalog.addAll(submitChunks(pool, products, COPY_PRODUCTS, this::productRow));
+            long catalogRows = await(catalog);
+            long lines = await(submitChunks(pool, products, COPY_RECIPES, this::recipeRows));
+            analyze();
+            catalogVersions.changed(CatalogAggregate.values());
+            log.info("Generated {} materials and products and {} recipe lines in {} s with {} threads",
+                    catalogRows, lines, (System.nanoTime() - start) / 1_000_000_000, threads);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    String rawMaterialRow(int index) {
+        SplittableRandom random = random(MATERIAL, index);
+        int stock = 1_000 + random.nextInt(1_000_000);
+        int reorderThreshold = random.nextInt(20) == 0 ? 1_000 + random.nextInt(10_000) : 0;
+        return id(MATERIAL, index) + "\tRM%07d\tMaterial %d\t%d\t%d\n".formatted(index, index, stock, reorderThreshold);
+    }
+
+    String productRow(int index) {
+        SplittableRandom random = random(PRODUCT, index);
+        long cents = 100 + random.nextInt(100_000);
+        return id(PRODUCT, index) + "\tP%07d\tProduct %d\t%d.%02d\n".formatted(index, index, cents / 100, cents % 100);
+    }
+
+    String recipeRows(int product) {
+        StringBuilder rows = new StringBuilder();
+        for (RecipeLine line : recipeLines(product)) {
+            rows.append(id(RECIPE, (long) product * (MAX_LINES_PER_PRODUCT + 1) + line.position())).append('\t')
+                    .append(id(PRODUCT, product)).append('\t')
+                    .append(line.rawMaterial() < 0 ? "\\N" : id(MATERIAL, line.rawMaterial())).append('\t')
+                    .append(line.componentProduct() < 0 ? "\\N" : id(PRODUCT, line.componentProduct())).append('\t')
+                    .append(line.quantity()).append('\n');
+        }
+        return rows.toString();
+    }
+
+    /**
+     * The recipe of one product: distinct raw materials, and sometimes one earlier product as a
+     * sub-assembly. A material or component is {@code -1} when the line uses the other one.
+     */
+    List<RecipeLine> recipeLines(int product) {
+        SplittableRandom random = random(RECIPE, product);
+        int count = 1 + random.nextInt(maxLines);
+        List<RecipeLine> lines = new ArrayList<>(count);
+        if (product > 0 && random.nextDouble() < subAssemblyRatio) {
+            lines.add(new RecipeLine(0, -1, random.nextInt(product), 1 + random.nextInt(3)));
+        }
+        Set<Integer> used = new HashSet<>();
+        // the most used materials are drawn again and again, so give up on a line after a few tries
+        for (int attempt = 0; lines.size() < count && attempt < count * 8; attempt++) {
+            int material = sampleMaterial(random);
+            if (used.add(material)) {
+                lines.add(new RecipeLine(lines.size(), material, -1, 1 + random.nextInt(50)));
+            }
+        }
+        return lines;
+    }
+
+    int sampleMaterial(SplittableRandom random) {
+        double target = random.nextDouble() * materialWeights[materialWeights.length - 1];
+        int index = Arrays.binarySearch(materialWeights, target);
+        return index >= 0 ? index : Math.min(-index - 1, materialWeights.length - 1);
+    }
+
+    UUID id(int kind, long index) {
+        long mostSignificant = ((BASE_MILLIS + index) << 16) | VERSION | kind;
+        long leastSignificant = (mix(seed ^ kind, index) & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    record RecipeLine(int position, int rawMaterial, int componentProduct, int quantity) {
+    }
+
+    private List<Future<Long>> submitChunks(ExecutorService pool, int rows, String copy, IntFunction<String> row) {
+        List<Future<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows; from += chunkSize) {
+            int start = from;
+            int end = Math.min(rows, from + chunkSize);
+            chunks.add(pool.submit(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    return copyIn(connection, copy, start, end, row);
+                }
+            }));
+        }
+        return chunks;
+    }
+
+    static long copyIn(Connection connection, String copy, int start, int end, IntFunction<String> row)
+            throws SQLException, IOException {
+        PGCopyOutputStream out = new PGCopyOutputStream(connection.unwrap(PGConnection.class), copy);
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            for (int i = start; i < end; i++) {
+                writer.write(row.apply(i));
+            }
+            writer.flush();
+            return out.endCopy();
+        } catch (SQLException | IOException | RuntimeException e) {
+            // closing the stream would end the copy and commit the rows written so far
+            if (out.isActive()) out.cancelCopy();
+            throw e;
+        }
+    }
+
+    private static long await(List<Future<Long>> chunks) throws InterruptedException, ExecutionException {
+        long rows = 0;
+        for (Future<Long> chunk : chunks) {
+            rows += chunk.get();
+        }
+        return rows;
+    }
+
+    private boolean hasData() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select exists (select 1 from raw_materials)")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void analyze() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE raw_materials, product, product_recipes");
+        }
+    }
+
+    private SplittableRandom random(int kind, long index) {
+        return new SplittableRandom(mix(seed * 31 + kind, index));
+    }
+
+    private static long mix(long seed, long index) {
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double[] cumulativeZipf(int count, double exponent) {
+        double[] cumulative = new double[count];
+        double total = 0;
+        for (int rank = 0; rank < count; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        return cumulative;
+    }
+}
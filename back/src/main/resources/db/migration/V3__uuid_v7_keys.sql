@@ -0,0 +1,29 @@
+-- Time-ordered (RFC 9562 version 7) keys for rows inserted outside the application, e.g. from psql
+-- or a later data migration. The application generates its own v7 keys (UuidV7Generator).
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+DECLARE
+    unix_ms bigint := floor(extract(epoch FROM clock_timestamp()) * 1000);
+    bytes   bytea  := uuid_send(gen_random_uuid());
+BEGIN
+    bytes := overlay(bytes PLACING substring(int8send(unix_ms) FROM 3) FROM 1 FOR 6);
+    bytes := set_byte(bytes, 6, (get_byte(bytes, 6) & 15) | 112);
+    RETURN encode(bytes, 'hex')::uuid;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+-- Existing random (v4) keys are kept: they are valid uuids and are referenced by clients and by
+-- foreign keys. They stay where they are in the indexes while new keys are appended at the right
+-- edge; rekeying would mean rewriting every referencing column and breaking external links.
+DO $$
+BEGIN
+    IF to_regclass('product') IS NOT NULL THEN
+        ALTER TABLE product ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+    END IF;
+    IF to_regclass('raw_materials') IS NOT NULL THEN
+        ALTER TABLE raw_materials ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+    END IF;
+    IF to_regclass('product_recipes') IS NOT NULL THEN
+        ALTER TABLE product_recipes ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+    END IF;
+END
+$$;
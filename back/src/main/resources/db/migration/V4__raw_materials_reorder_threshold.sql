@@ -0,0 +1,8 @@
+-- Per-material reorder threshold for the low-stock alerts; 0 means the material is not watched.
+DO $$
+BEGIN
+    IF to_regclass('raw_materials') IS NOT NULL THEN
+        ALTER TABLE raw_materials ADD COLUMN IF NOT EXISTS reorder_threshold integer NOT NULL DEFAULT 0;
+    END IF;
+END
+$$;
@@ -0,0 +1,89 @@
+-- The schema the entities map to. Until now Hibernate created it on startup (ddl-auto=create); it is
+-- owned by these migrations from here on and Hibernate only validates it. On a new database the
+-- tables are created here. A database Hibernate created already has the tables, but possibly in the
+-- shape of an older version of the entities, so the statements at the end bring its columns and
+-- constraints up to date.
+CREATE TABLE IF NOT EXISTS product (
+    id    uuid           NOT NULL DEFAULT uuid_generate_v7(),
+    code  varchar(255),
+    name  varchar(255),
+    price numeric(38, 2),
+    CONSTRAINT product_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_product_code UNIQUE (code)
+);
+
+CREATE TABLE IF NOT EXISTS raw_materials (
+    id                uuid         NOT NULL DEFAULT uuid_generate_v7(),
+    code              varchar(255),
+    name              varchar(255),
+    stock_quantity    integer      NOT NULL,
+    reorder_threshold integer      NOT NULL DEFAULT 0,
+    CONSTRAINT raw_materials_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_raw_materials_code UNIQUE (code)
+);
+
+CREATE TABLE IF NOT EXISTS product_recipes (
+    id                   uuid    NOT NULL DEFAULT uuid_generate_v7(),
+    product_id           uuid    NOT NULL,
+    raw_product_id       uuid,
+    component_product_id uuid,
+    required_quantity    integer NOT NULL,
+    CONSTRAINT product_recipes_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_product_recipes_product_id
+        FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE,
+    CONSTRAINT fk_product_recipes_raw_product_id
+        FOREIGN KEY (raw_product_id) REFERENCES raw_materials (id) ON DELETE CASCADE,
+    CONSTRAINT fk_product_recipes_component_product_id
+        FOREIGN KEY (component_product_id) REFERENCES product (id) ON DELETE CASCADE,
+    CONSTRAINT ck_product_recipes_single_component
+        CHECK ((raw_product_id IS NULL) <> (component_product_id IS NULL))
+);
+
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    aggregate varchar(32) NOT NULL,
+    version   bigint      NOT NULL,
+    CONSTRAINT catalog_versions_pkey PRIMARY KEY (aggregate)
+);
+
+-- Stock history outlives the raw material it belongs to, so there is no foreign key.
+CREATE TABLE IF NOT EXISTS stock_movements (
+    id              uuid                        NOT NULL,
+    raw_material_id uuid                        NOT NULL,
+    type            varchar(16)                 NOT NULL,
+    quantity        bigint                      NOT NULL,
+    occurred_at     timestamp(6) with time zone NOT NULL,
+    reference       varchar(255),
+    CONSTRAINT stock_movements_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    id              uuid                        NOT NULL,
+    raw_material_id uuid                        NOT NULL,
+    balance         bigint                      NOT NULL,
+    taken_at        timestamp(6) with time zone NOT NULL,
+    CONSTRAINT stock_snapshots_pkey PRIMARY KEY (id)
+);
+
+-- Hibernate-created databases: recipe lines used to require a raw material and could not use a
+-- sub-assembly, and the reorder threshold came later (V4 adds it as well, when the table exists).
+-- Existing lines all use a raw material, so they satisfy the single-component check.
+ALTER TABLE raw_materials ADD COLUMN IF NOT EXISTS reorder_threshold integer NOT NULL DEFAULT 0;
+ALTER TABLE product_recipes ADD COLUMN IF NOT EXISTS component_product_id uuid;
+ALTER TABLE product_recipes ALTER COLUMN raw_product_id DROP NOT NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'fk_product_recipes_component_product_id' AND conrelid = 'product_recipes'::regclass) THEN
+        ALTER TABLE product_recipes
+            ADD CONSTRAINT fk_product_recipes_component_product_id
+                FOREIGN KEY (component_product_id) REFERENCES product (id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'ck_product_recipes_single_component' AND conrelid = 'product_recipes'::regclass) THEN
+        ALTER TABLE product_recipes
+            ADD CONSTRAINT ck_product_recipes_single_component
+                CHECK ((raw_product_id IS NULL) <> (component_product_id IS NULL));
+    END IF;
+END
+$$;
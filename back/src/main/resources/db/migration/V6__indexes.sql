@@ -0,0 +1,75 @@
+-- A product lists each raw material and each sub-assembly once. Duplicate lines are merged first:
+-- the explosion already added their quantities up, so the merged line requires the same amount.
+UPDATE product_recipes r
+SET required_quantity = d.total
+FROM (SELECT min(id::text) AS keep_id, sum(required_quantity) AS total
+      FROM product_recipes
+      WHERE raw_product_id IS NOT NULL
+      GROUP BY product_id, raw_product_id
+      HAVING count(*) > 1) d
+WHERE r.id::text = d.keep_id;
+
+DELETE FROM product_recipes r
+USING product_recipes k
+WHERE r.product_id = k.product_id
+  AND r.raw_product_id = k.raw_product_id
+  AND r.id::text > k.id::text;
+
+UPDATE product_recipes r
+SET required_quantity = d.total
+FROM (SELECT min(id::text) AS keep_id, sum(required_quantity) AS total
+      FROM product_recipes
+      WHERE component_product_id IS NOT NULL
+      GROUP BY product_id, component_product_id
+      HAVING count(*) > 1) d
+WHERE r.id::text = d.keep_id;
+
+DELETE FROM product_recipes r
+USING product_recipes k
+WHERE r.product_id = k.product_id
+  AND r.component_product_id = k.component_product_id
+  AND r.id::text > k.id::text;
+
+-- The unique indexes lead with product_id, so they also serve every lookup of a product's lines;
+-- the single-column index on product_id is redundant.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'uq_product_recipes_product_raw_product' AND conrelid = 'product_recipes'::regclass) THEN
+        ALTER TABLE product_recipes
+            ADD CONSTRAINT uq_product_recipes_product_raw_product UNIQUE (product_id, raw_product_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'uq_product_recipes_product_component' AND conrelid = 'product_recipes'::regclass) THEN
+        ALTER TABLE product_recipes
+            ADD CONSTRAINT uq_product_recipes_product_component UNIQUE (product_id, component_product_id);
+    END IF;
+END
+$$;
+DROP INDEX IF EXISTS idx_product_recipes_product_id;
+
+-- Reverse (where-used) indexes: which products use a raw material, and which use a sub-assembly.
+-- They carry the parent and the quantity, so the where-used walk is answered from the index alone.
+DROP INDEX IF EXISTS idx_product_recipes_raw_product_id;
+CREATE INDEX idx_product_recipes_raw_product_id
+    ON product_recipes (raw_product_id) INCLUDE (product_id, required_quantity);
+DROP INDEX IF EXISTS idx_product_recipes_component_product_id;
+CREATE INDEX idx_product_recipes_component_product_id
+    ON product_recipes (component_product_id) INCLUDE (product_id, required_quantity);
+
+-- Full lists are read in code order; covering indexes let them be index-only scans.
+CREATE INDEX IF NOT EXISTS idx_product_code_covering
+    ON product (code) INCLUDE (id, name, price);
+CREATE INDEX IF NOT EXISTS idx_raw_materials_code_covering
+    ON raw_materials (code) INCLUDE (id, name, stock_quantity, reorder_threshold);
+
+-- Keyset pagination by each sortable column, with the id as tie-breaker.
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON product (name, id);
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON product (price, id);
+CREATE INDEX IF NOT EXISTS idx_raw_materials_name_id ON raw_materials (name, id);
+CREATE INDEX IF NOT EXISTS idx_raw_materials_stock_quantity_id ON raw_materials (stock_quantity, id);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movements_raw_material_occurred_at
+    ON stock_movements (raw_material_id, occurred_at, id);
+CREATE INDEX IF NOT EXISTS idx_stock_snapshots_raw_material_taken_at
+    ON stock_snapshots (raw_material_id, taken_at);
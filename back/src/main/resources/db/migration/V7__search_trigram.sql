@@ -0,0 +1,8 @@
+-- Trigram indexes behind the fuzzy fallback of /api/search: they serve both the similarity
+-- operator (%) and ilike '%...%' on codes and names. Prefix matches are answered from memory.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_product_code_trgm ON product USING gin (code gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_raw_materials_code_trgm ON raw_materials USING gin (code gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_raw_materials_name_trgm ON raw_materials USING gin (name gin_trgm_ops);
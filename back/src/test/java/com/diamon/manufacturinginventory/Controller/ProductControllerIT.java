@@ -1,8 +1,8 @@
 package com.diamon.manufacturinginventory.Controller;
 
 import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
 import com.diamon.manufacturinginventory.DTOs.Product.ProductWithRecipesRequest;
-import com.diamon.manufacturinginventory.Entity.Product;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,7 +31,7 @@ public class ProductControllerIT {
     @Test
     void shouldCreateAndGetProduct() throws Exception {
         ProductWithRecipesRequest request = new ProductWithRecipesRequest(
-            new ProductRequest("Produto Teste", "CODE123", 10.0),
+            new ProductRequest("CODE123", "Produto Teste", new BigDecimal("10.00")),
             java.util.Collections.emptyList()
         );
 
@@ -48,22 +49,22 @@ public class ProductControllerIT {
     @Test
     void shouldUpdateAndDeleteProduct() throws Exception {
         ProductWithRecipesRequest request = new ProductWithRecipesRequest(
-            new ProductRequest("Produto Update", "CODEUPD", 20.0),
+            new ProductRequest("CODEUPD", "Produto Update", new BigDecimal("20.00")),
             java.util.Collections.emptyList()
         );
         String response = mockMvc.perform(post("/api/products")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andReturn().getResponse().getContentAsString();
-        Product created = objectMapper.readValue(response, Product.class);
+        ProductResponse created = objectMapper.readValue(response, ProductResponse.class);
 
-        ProductRequest updateRequest = new ProductRequest("Produto Atualizado", "CODEUPD", 30.0);
-        mockMvc.perform(put("/api/products/" + created.getId())
+        ProductRequest updateRequest = new ProductRequest("CODEUPD", "Produto Atualizado", new BigDecimal("30.00"));
+        mockMvc.perform(put("/api/products/" + created.id())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isNoContent());
 
-        mockMvc.perform(delete("/api/products/" + created.getId()))
+        mockMvc.perform(delete("/api/products/" + created.id()))
                 .andExpect(status().isNoContent());
     }
 }
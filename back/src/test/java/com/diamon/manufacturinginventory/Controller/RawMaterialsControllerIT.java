@@ -1,7 +1,7 @@
 package com.diamon.manufacturinginventory.Controller;
 
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
 import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialsRequest;
-import com.diamon.manufacturinginventory.Entity.RawMaterials;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,7 +31,7 @@ public class RawMaterialsControllerIT {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
                 .andReturn().getResponse().getContentAsString();
-        RawMaterials created = objectMapper.readValue(response, RawMaterials.class);
+        RawMaterialResponse created = objectMapper.readValue(response, RawMaterialResponse.class);
 
         mockMvc.perform(get("/api/raw-materials"))
                 .andExpect(status().isOk())
@@ -45,15 +45,15 @@ public class RawMaterialsControllerIT {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andReturn().getResponse().getContentAsString();
-        RawMaterials created = objectMapper.readValue(response, RawMaterials.class);
+        RawMaterialResponse created = objectMapper.readValue(response, RawMaterialResponse.class);
 
         RawMaterialsRequest updateRequest = new RawMaterialsRequest("Matéria Prima Atualizada", "RM002", 300);
-        mockMvc.perform(put("/api/raw-materials/" + created.getId())
+        mockMvc.perform(put("/api/raw-materials/" + created.id())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isNoContent());
 
-        mockMvc.perform(delete("/api/raw-materials/" + created.getId()))
+        mockMvc.perform(delete("/api/raw-materials/" + created.id()))
                 .andExpect(status().isNoContent());
     }
 }
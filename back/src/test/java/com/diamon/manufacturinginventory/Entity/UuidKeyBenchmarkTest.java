@@ -0,0 +1,85 @@
+package com.diamon.manufacturinginventory.Entity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Inserts the same number of rows keyed by random (v4) and by time-ordered (v7) uuids into two
+ * scratch tables and reports insert throughput and primary key index size. Needs a PostgreSQL
+ * database, so it is part of the benchmark profile only:
+ * {@code mvn test -Pbenchmark -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/manu_facturing}
+ * (with {@code benchmark.jdbc.user} and {@code benchmark.jdbc.password} when they are not root/root).
+ */
+@Tag("benchmark")
+class UuidKeyBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH = 1_000;
+
+    @Test
+    void v7Keys_shouldBuildASmallerPrimaryKeyIndex() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc.url");
+        assumeTrue(url != null, "benchmark.jdbc.url is not set");
+
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc.user", "root"),
+                System.getProperty("benchmark.jdbc.password", "root"))) {
+            Result v4 = run(connection, "uuid_bench_v4", UUID::randomUUID);
+            Result v7 = run(connection, "uuid_bench_v7", UuidV7Generator::next);
+
+            System.out.printf("rows=%d v4: %d rows/s, index %d kB | v7: %d rows/s, index %d kB%n",
+                    ROWS, v4.rowsPerSecond(), v4.indexBytes() / 1024, v7.rowsPerSecond(), v7.indexBytes() / 1024);
+
+            assertTrue(v7.indexBytes() < v4.indexBytes(), "v7 primary key index is not smaller than v4");
+        }
+    }
+
+    private record Result(long rowsPerSecond, long indexBytes) {
+    }
+
+    private static Result run(Connection connection, String table, Supplier<UUID> keys) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + table);
+            statement.execute("create table " + table + " (id uuid primary key, payload integer not null)");
+        }
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("insert into " + table + " (id, payload) values (?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, keys.get(), Types.OTHER);
+                insert.setInt(2, i);
+                insert.addBatch();
+                if (i % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            long indexBytes;
+            try (ResultSet rs = statement.executeQuery("select pg_relation_size('" + table + "_pkey')")) {
+                rs.next();
+                indexBytes = rs.getLong(1);
+            }
+            statement.execute("drop table " + table);
+            return new Result(ROWS * TimeUnit.SECONDS.toNanos(1) / elapsedNanos, indexBytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.diamon.manufacturinginventory.Entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_shouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1, "timestamp " + millis + " outside [" + before + ", " + after + "]");
+    }
+
+    @Test
+    void next_shouldIncreaseWithinTheSameMillisecondAndWhenTheClockStepsBack() {
+        long now = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            ids.add(UuidV7Generator.next(now));
+        }
+        ids.add(UuidV7Generator.next(now - 1_000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "ids out of order at " + i);
+            assertEquals(7, ids.get(i).version());
+        }
+    }
+
+    @Test
+    void next_shouldNotRepeatAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(UuidV7Generator.next()));
+
+        assertEquals(100_000, ids.size());
+    }
+}
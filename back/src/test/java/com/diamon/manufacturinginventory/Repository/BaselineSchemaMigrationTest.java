@@ -0,0 +1,122 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.ManufacturinginventoryApplication;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the Flyway migrations over the schema Hibernate created from the original entities
+ * (ddl-auto=create), with a recipe line in it, and starts the application on the result, which
+ * fails when the entities do not validate against it. Needs a real PostgreSQL database and works in
+ * a scratch schema:
+ * {@code mvn test -Dtest=BaselineSchemaMigrationTest -Dmigration.jdbc.url=jdbc:postgresql://localhost:5432/manu_facturing}
+ */
+class BaselineSchemaMigrationTest {
+
+    private static final String SCHEMA = "baseline_schema_migration";
+    private static final UUID PRODUCT_ID = UUID.fromString("00000000-0000-4000-8000-000000000001");
+    private static final UUID RAW_MATERIAL_ID = UUID.fromString("00000000-0000-4000-8000-000000000002");
+    private static final UUID RECIPE_ID = UUID.fromString("00000000-0000-4000-8000-000000000003");
+
+    private static String url;
+    private static String user;
+    private static String password;
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        String baseUrl = System.getProperty("migration.jdbc.url");
+        assumeTrue(baseUrl != null, "migration.jdbc.url is not set");
+        url = baseUrl + (baseUrl.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public";
+        user = System.getProperty("migration.jdbc.user", "root");
+        password = System.getProperty("migration.jdbc.password", "root");
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        jdbcTemplate.execute("create schema " + SCHEMA);
+        // what Hibernate generated for the baseline entities
+        jdbcTemplate.execute("""
+                create table %1$s.product (
+                    id uuid not null,
+                    code varchar(255) unique,
+                    name varchar(255),
+                    price numeric(38,2),
+                    primary key (id)
+                );
+                create table %1$s.raw_materials (
+                    id uuid not null,
+                    code varchar(255) unique,
+                    name varchar(255),
+                    stock_quantity integer not null,
+                    primary key (id)
+                );
+                create table %1$s.product_recipes (
+                    id uuid not null,
+                    required_quantity integer not null,
+                    product_id uuid not null,
+                    raw_product_id uuid not null,
+                    primary key (id)
+                );
+                alter table if exists %1$s.product_recipes add constraint fk_product_recipes_product_id
+                    FOREIGN KEY (product_id) REFERENCES %1$s.product(id) ON DELETE CASCADE;
+                alter table if exists %1$s.product_recipes add constraint fk_product_recipes_raw_product_id
+                    FOREIGN KEY (raw_product_id) REFERENCES %1$s.raw_materials(id) ON DELETE CASCADE
+                """.formatted(SCHEMA));
+        jdbcTemplate.update("insert into product (id, code, name, price) values (?, 'P001', 'Bike', 100)", PRODUCT_ID);
+        jdbcTemplate.update("insert into raw_materials (id, code, name, stock_quantity) values (?, 'RM001', 'Steel', 10)",
+                RAW_MATERIAL_ID);
+        jdbcTemplate.update("insert into product_recipes (id, required_quantity, product_id, raw_product_id) values (?, 2, ?, ?)",
+                RECIPE_ID, PRODUCT_ID, RAW_MATERIAL_ID);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource == null) return;
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        dataSource.close();
+    }
+
+    @Test
+    void migrate_shouldBringTheBaselineSchemaUpToTheEntities() {
+        try (ConfigurableApplicationContext ignored = new SpringApplicationBuilder(ManufacturinginventoryApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + password,
+                        "--spring.flyway.schemas=" + SCHEMA,
+                        "--spring.jpa.properties.hibernate.default_schema=" + SCHEMA,
+                        "--spring.jpa.show-sql=false")) {
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "select count(*) from product_recipes where id = ? and raw_product_id = ? and required_quantity = 2",
+                    Integer.class, RECIPE_ID, RAW_MATERIAL_ID));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "select reorder_threshold from raw_materials where id = ?", Integer.class, RAW_MATERIAL_ID));
+
+            UUID subAssemblyId = UUID.randomUUID();
+            jdbcTemplate.update("insert into product (id, code, name, price) values (?, 'P002', 'Frame', 40)", subAssemblyId);
+            jdbcTemplate.update("insert into product_recipes (product_id, component_product_id, required_quantity) values (?, ?, 1)",
+                    PRODUCT_ID, subAssemblyId);
+            assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                    "insert into product_recipes (product_id, required_quantity) values (?, 1)", subAssemblyId));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the two ways of consuming the stock of an order with a 50-line recipe against a real
+ * PostgreSQL database: the per-line path of {@code createProductWithRecipe} before production
+ * orders (one read and one write per line) and the single batched conditional update used by
+ * production orders. Part of the benchmark profile:
+ * {@code mvn test -Pbenchmark -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/manu_facturing}
+ */
+@Tag("benchmark")
+class ProductionOrderBenchmarkTest {
+
+    private static final String SCHEMA = "production_order_benchmark";
+    private static final int RECIPE_LINES = 50;
+    private static final int ORDERS = 2_000;
+    private static final int WARMUP_ORDERS = 200;
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactions;
+    private static Map<UUID, Long> recipe;
+
+    @BeforeAll
+    static void setUp() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        assumeTrue(url != null, "benchmark.jdbc.url is not set");
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+        config.setUsername(System.getProperty("benchmark.jdbc.user", "root"));
+        config.setPassword(System.getProperty("benchmark.jdbc.password", "root"));
+        config.setMaximumPoolSize(2);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        jdbcTemplate.execute("create schema " + SCHEMA);
+        jdbcTemplate.execute("""
+                create table %s.raw_materials (
+                    id uuid primary key,
+                    code varchar(255) unique,
+                    name varchar(255),
+                    stock_quantity integer not null
+                )""".formatted(SCHEMA));
+
+        recipe = new LinkedHashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < RECIPE_LINES; i++) {
+            UUID id = UUID.randomUUID();
+            recipe.put(id, 1L + i % 5);
+            rows.add(new Object[]{id, "RM" + i, "Material " + i, Integer.MAX_VALUE});
+        }
+        jdbcTemplate.batchUpdate("insert into raw_materials (id, code, name, stock_quantity) values (?, ?, ?, ?)", rows);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource == null) return;
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        dataSource.close();
+    }
+
+    @Test
+    void batchedConsumption_shouldBeatThePerLinePath() {
+        StockConsumptionRepositoryImpl repository = new StockConsumptionRepositoryImpl(new NamedParameterJdbcTemplate(dataSource));
+        Runnable batched = () -> transactions.executeWithoutResult(status -> {
+            if (!repository.consumeStock(recipe).isComplete()) status.setRollbackOnly();
+        });
+        Runnable perLine = () -> transactions.executeWithoutResult(status -> {
+            for (Map.Entry<UUID, Long> line : recipe.entrySet()) {
+                Integer stock = jdbcTemplate.queryForObject(
+                        "select stock_quantity from raw_materials where id = ?", Integer.class, line.getKey());
+                if (stock < line.getValue()) throw new IllegalStateException("out of stock");
+                jdbcTemplate.update("update raw_materials set stock_quantity = ? where id = ?",
+                        stock - line.getValue(), line.getKey());
+            }
+        });
+
+        long perLineRate = ordersPerSecond(perLine);
+        long batchedRate = ordersPerSecond(batched);
+        System.out.printf("%d-line orders: per-line %d orders/s, batched %d orders/s (%.1fx)%n",
+                RECIPE_LINES, perLineRate, batchedRate, (double) batchedRate / perLineRate);
+
+        assertTrue(batchedRate > perLineRate, "batched consumption was not faster than the per-line path");
+    }
+
+    private static long ordersPerSecond(Runnable order) {
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            order.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            order.run();
+        }
+        return ORDERS * TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,47 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.Entity.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockConsumptionRepositoryImplTest {
+
+    @Test
+    void consumeStock_shouldLockTheRowsInTheDatabaseOrderOfTheirIds() {
+        // v4 ids on both sides of the sign bit, and v7 ids, which all start below 8
+        List<UUID> ids = List.of(
+                UUID.fromString("80000000-0000-4000-8000-000000000000"),
+                UUID.fromString("7fffffff-ffff-4fff-bfff-ffffffffffff"),
+                UUID.fromString("ffffffff-0000-4000-8000-000000000000"),
+                UUID.fromString("00000001-0000-4000-8000-000000000000"),
+                UUID.fromString("12345678-0000-4000-c000-000000000000"),
+                UUID.fromString("12345678-0000-4000-8000-000000000000"),
+                UuidV7Generator.next(),
+                UuidV7Generator.next());
+        Map<UUID, Long> quantities = new LinkedHashMap<>();
+        ids.forEach(id -> quantities.put(id, 1L));
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        when(jdbcTemplate.batchUpdate(anyString(), batch.capture())).thenReturn(new int[ids.size()]);
+
+        new StockConsumptionRepositoryImpl(jdbcTemplate).consumeStock(quantities);
+
+        List<UUID> locked = Arrays.stream(batch.getValue()).map(row -> (UUID) row.getValue("id")).toList();
+        // lowercase hex compares like the unsigned bytes PostgreSQL compares
+        assertEquals(ids.stream().sorted(Comparator.comparing(UUID::toString)).toList(), locked);
+        assertNotEquals(ids.stream().sorted().toList(), locked);
+    }
+}
@@ -0,0 +1,157 @@
+package com.diamon.manufacturinginventory.Repository;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Hammers {@link StockConsumptionRepositoryImpl} from several threads against a real PostgreSQL
+ * database, in a scratch schema. Every transaction consumes a random handful of materials in
+ * random map order; stock must never go negative, every unit taken must be accounted for and no
+ * deadlock may abort a transaction. Part of the benchmark profile:
+ * {@code mvn test -Pbenchmark -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/manu_facturing}
+ */
+@Tag("benchmark")
+class StockConsumptionStressTest {
+
+    private static final String SCHEMA = "stock_consumption_stress";
+    private static final int MATERIALS = 200;
+    private static final int INITIAL_STOCK = 5_000;
+    private static final int TRANSACTIONS = 20_000;
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static List<UUID> materialIds;
+
+    @BeforeAll
+    static void setUp() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        assumeTrue(url != null, "benchmark.jdbc.url is not set");
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+        config.setUsername(System.getProperty("benchmark.jdbc.user", "root"));
+        config.setPassword(System.getProperty("benchmark.jdbc.password", "root"));
+        config.setMaximumPoolSize(THREADS[THREADS.length - 1]);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        jdbcTemplate.execute("create schema " + SCHEMA);
+        jdbcTemplate.execute("""
+                create table %s.raw_materials (
+                    id uuid primary key,
+                    code varchar(255) unique,
+                    name varchar(255),
+                    stock_quantity integer not null
+                )""".formatted(SCHEMA));
+        materialIds = new ArrayList<>();
+        for (int i = 0; i < MATERIALS; i++) {
+            materialIds.add(UUID.randomUUID());
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource == null) return;
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        dataSource.close();
+    }
+
+    @Test
+    void consumeStock_shouldNeverOversellAndScaleWithThreads() throws Exception {
+        StockConsumptionRepositoryImpl repository = new StockConsumptionRepositoryImpl(new NamedParameterJdbcTemplate(dataSource));
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        Map<Integer, Long> throughput = new LinkedHashMap<>();
+
+        for (int threads : THREADS) {
+            resetStock();
+            AtomicLong consumed = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < TRANSACTIONS / threads; i++) {
+                        Map<UUID, Long> request = randomRequest();
+                        boolean complete = Boolean.TRUE.equals(transactions.execute(status -> {
+                            StockConsumption result = repository.consumeStock(request);
+                            if (!result.isComplete()) status.setRollbackOnly();
+                            return result.isComplete();
+                        }));
+                        if (complete) {
+                            consumed.addAndGet(request.values().stream().mapToLong(Long::longValue).sum());
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            executor.shutdown();
+
+            long remaining = jdbcTemplate.queryForObject("select sum(stock_quantity) from raw_materials", Long.class);
+            Integer lowest = jdbcTemplate.queryForObject("select min(stock_quantity) from raw_materials", Integer.class);
+            long perSecond = (TRANSACTIONS / threads) * (long) threads * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            throughput.put(threads, perSecond);
+            System.out.printf("threads=%d transactions/s=%d rejected=%d lowest stock=%d%n",
+                    threads, perSecond, rejected.get(), lowest);
+
+            assertTrue(lowest >= 0, "stock went negative");
+            assertEquals((long) MATERIALS * INITIAL_STOCK, remaining + consumed.get(), "units lost or created");
+            assertTrue(rejected.get() > 0, "the run should exhaust some stock");
+        }
+
+        int most = THREADS[THREADS.length - 1];
+        assertTrue(throughput.get(most) > throughput.get(1),
+                "throughput with " + most + " threads did not exceed the single-threaded run: " + throughput);
+    }
+
+    private static void resetStock() {
+        jdbcTemplate.execute("truncate raw_materials");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < materialIds.size(); i++) {
+            rows.add(new Object[]{materialIds.get(i), "RM" + i, "Material " + i, INITIAL_STOCK});
+        }
+        jdbcTemplate.batchUpdate("insert into raw_materials (id, code, name, stock_quantity) values (?, ?, ?, ?)", rows);
+    }
+
+    private static Map<UUID, Long> randomRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<UUID, Long> request = new HashMap<>();
+        int lines = 1 + random.nextInt(5);
+        for (int i = 0; i < lines; i++) {
+            request.merge(materialIds.get(random.nextInt(MATERIALS)), 1L + random.nextInt(200), Long::sum);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,124 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Synthetic catalog for the JMH benchmarks and the load test: one raw material per ten products (at
+ * least ten), one to five raw material lines per product, and every tenth product also uses an
+ * earlier product as a sub-assembly. Generated from a fixed seed, so runs on different commits see
+ * the same data.
+ */
+public final class BenchmarkCatalog {
+
+    final List<ProductSummary> products = new ArrayList<>();
+    final List<String> productCodes = new ArrayList<>();
+    final List<RawMaterialStock> stock = new ArrayList<>();
+    final List<BillOfMaterialLine> lines = new ArrayList<>();
+
+    private BenchmarkCatalog() {
+    }
+
+    public static BenchmarkCatalog generate(int productCount, long seed) {
+        Random random = new Random(seed);
+        BenchmarkCatalog catalog = new BenchmarkCatalog();
+        int materialCount = Math.max(10, productCount / 10);
+        for (int i = 0; i < materialCount; i++) {
+            catalog.stock.add(new RawMaterialStock(new UUID(1, i), 1_000 + random.nextInt(1_000_000)));
+        }
+        for (int i = 0; i < productCount; i++) {
+            UUID productId = new UUID(2, i);
+            catalog.products.add(new ProductSummary(productId, "Product " + i,
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2)));
+            catalog.productCodes.add("P%07d".formatted(i));
+            int rawLines = 1 + random.nextInt(5);
+            Set<UUID> used = new HashSet<>();
+            for (int k = 0; k < rawLines; k++) {
+                UUID rawMaterialId = catalog.stock.get(random.nextInt(materialCount)).id();
+                int quantity = 1 + random.nextInt(20);
+                // a product lists each material once (uq_product_recipes_product_raw_product)
+                if (used.add(rawMaterialId)) {
+                    catalog.lines.add(new BillOfMaterialLine(productId, rawMaterialId, null, quantity));
+                }
+            }
+            if (i > 0 && i % 10 == 0) {
+                catalog.lines.add(new BillOfMaterialLine(productId, null, new UUID(2, random.nextInt(i)), 1 + random.nextInt(2)));
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * The same catalog with every material stocked at {@code quantity}.
+     */
+    public BenchmarkCatalog withStock(int quantity) {
+        BenchmarkCatalog catalog = new BenchmarkCatalog();
+        catalog.products.addAll(products);
+        catalog.productCodes.addAll(productCodes);
+        catalog.lines.addAll(lines);
+        for (RawMaterialStock material : stock) {
+            catalog.stock.add(new RawMaterialStock(material.id(), quantity));
+        }
+        return catalog;
+    }
+
+    public void insertInto(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(stock.size());
+        for (int i = 0; i < stock.size(); i++) {
+            rows.add(new Object[]{stock.get(i).id(), "RM%07d".formatted(i), "Material " + i, stock.get(i).stockQuantity()});
+        }
+        jdbcTemplate.batchUpdate("insert into raw_materials (id, code, name, stock_quantity) values (?, ?, ?, ?)",
+                rows, new int[]{Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER});
+
+        rows = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            ProductSummary product = products.get(i);
+            rows.add(new Object[]{product.id(), productCodes.get(i), product.name(), product.price()});
+        }
+        jdbcTemplate.batchUpdate("insert into product (id, code, name, price) values (?, ?, ?, ?)",
+                rows, new int[]{Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC});
+
+        rows = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            BillOfMaterialLine line = lines.get(i);
+            rows.add(new Object[]{new UUID(3, i), line.productId(), line.rawMaterialId(), line.componentProductId(), line.requiredQuantity()});
+        }
+        jdbcTemplate.batchUpdate("""
+                        insert into product_recipes (id, product_id, raw_product_id, component_product_id, required_quantity)
+                        values (?, ?, ?, ?, ?)""",
+                rows, new int[]{Types.OTHER, Types.OTHER, Types.OTHER, Types.OTHER, Types.INTEGER});
+    }
+
+    /**
+     * A repository backed by fixed query results, keyed by method name; any other call fails.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " over benchmark catalog";
+                };
+            }
+            if (!results.containsKey(method.getName())) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return results.get(method.getName());
+        });
+    }
+}
@@ -0,0 +1,369 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Import.ImportReport;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Entity.StockMovement;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkImportServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+    @Mock
+    private CatalogVersions catalogVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<StockMovement>> movements;
+
+    private final Map<String, UUID> storedCodes = new HashMap<>();
+    private final Map<String, Integer> storedStock = new HashMap<>();
+    private final Map<String, UUID> concurrentCodes = new HashMap<>();
+    private final Map<String, Integer> concurrentStock = new HashMap<>();
+    private final List<List<String>> insertedCodes = new ArrayList<>();
+    private final Set<List<UUID>> storedRecipeLines = new HashSet<>();
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            writeColumns(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (String code : (Iterable<String>) invocation.<Map<String, Object>>getArgument(1).get("codes")) {
+                UUID id = storedCodes.get(code);
+                if (id == null) continue;
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("code")).thenReturn(code);
+                when(rs.getObject("id", UUID.class)).thenReturn(id);
+                when(rs.getInt("stock_quantity")).thenReturn(storedStock.getOrDefault(code, 0));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(namedJdbcTemplate).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+
+        bulkImportService = new BulkImportService(
+                namedJdbcTemplate,
+                transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                new BillOfMaterialsExplosion(productRecipeRepository, catalogVersions),
+                stockMovementRepository,
+                catalogVersions,
+                eventPublisher,
+                2,
+                100);
+    }
+
+    @Test
+    void importRawMaterials_shouldReportInvalidAndExistingRows() throws Exception {
+        storedCodes.put("RM001", UUID.randomUUID());
+        String csv = """
+                code,name,stockQuantity
+                RM001,Steel,100
+                RM010,"Bolt, M8",250
+                RM011,,5
+                RM012,Rubber,abc
+                RM013,Glue,7
+                """;
+
+        ImportReport report = bulkImportService.importRawMaterials(ImportFormat.CSV, ImportMode.INSERT, body(csv));
+
+        assertEquals(5, report.processed());
+        assertEquals(2, report.inserted());
+        assertEquals(0, report.updated());
+        assertEquals(3, report.failed());
+        assertEquals(List.of(1L, 3L, 4L), report.errors().stream().map(e -> e.row()).toList());
+        assertEquals("Code already exists: RM001", report.errors().get(0).message());
+
+        ArgumentCaptor<RawMaterialChangedEvent> events = ArgumentCaptor.forClass(RawMaterialChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals("Bolt, M8", events.getAllValues().get(0).name());
+    }
+
+    @Test
+    void importRawMaterials_shouldUpdateExistingCodesInUpsertMode() throws Exception {
+        UUID existingId = UUID.randomUUID();
+        storedCodes.put("RM001", existingId);
+        storedStock.put("RM001", 1000);
+        String json = """
+                [{"code":"RM001","name":"Steel","stockQuantity":900},
+                 {"code":"RM002","name":"Plastic","stockQuantity":"many"},
+                 {"code":"RM003","name":"Glass","stockQuantity":40}]
+                """;
+
+        ImportReport report = bulkImportService.importRawMaterials(ImportFormat.JSON, ImportMode.UPSERT, body(json));
+
+        assertEquals(3, report.processed());
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.updated());
+        assertEquals(1, report.failed());
+        assertEquals(2, report.errors().get(0).row());
+        verify(eventPublisher).publishEvent(new RawMaterialChangedEvent(existingId, "RM001", "Steel", 900));
+
+        verify(stockMovementRepository).append(movements.capture());
+        List<StockMovement> appended = movements.getValue();
+        assertEquals(2, appended.size());
+        assertEquals(existingId, appended.get(0).getRawMaterialId());
+        assertEquals(StockMovementType.ADJUSTMENT, appended.get(0).getType());
+        assertEquals(-100, appended.get(0).getQuantity());
+        assertEquals(StockMovementType.RECEIPT, appended.get(1).getType());
+        assertEquals(40, appended.get(1).getQuantity());
+    }
+
+    @Test
+    void importRawMaterials_shouldReportEveryRowOfARolledBackChunk() throws Exception {
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        String csv = "code,name,stockQuantity\nRM001,Steel,1\nRM002,Plastic,2\n";
+
+        ImportReport report = bulkImportService.importRawMaterials(ImportFormat.CSV, ImportMode.INSERT, body(csv));
+
+        assertEquals(0, report.inserted());
+        assertEquals(2, report.failed());
+        assertTrue(report.errors().get(0).message().startsWith("Chunk rolled back"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void importRecipes_shouldRejectCyclesFormedInsideTheImport() throws Exception {
+        UUID bikeId = UUID.randomUUID();
+        UUID frameId = UUID.randomUUID();
+        storedCodes.put("BIKE", bikeId);
+        storedCodes.put("FRAME", frameId);
+        storedCodes.put("RM001", UUID.randomUUID());
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.<BillOfMaterialLine>of());
+        String csv = """
+                productCode,rawMaterialCode,componentProductCode,quantity
+                FRAME,RM001,,10
+                BIKE,,FRAME,2
+                FRAME,,BIKE,1
+                BIKE,RM404,,1
+                """;
+
+        ImportReport report = bulkImportService.importRecipes(ImportFormat.CSV, body(csv));
+
+        assertEquals(2, report.inserted());
+        assertEquals(2, report.failed());
+        assertEquals("Product BIKE already contains FRAME", report.errors().get(0).message());
+        assertEquals("Raw material not found: RM404", report.errors().get(1).message());
+        verify(eventPublisher).publishEvent(new RecipeChangedEvent(frameId));
+        verify(eventPublisher).publishEvent(new RecipeChangedEvent(bikeId));
+    }
+
+    @Test
+    void importRawMaterials_shouldKeepTheLastOccurrenceOfARepeatedCodeInUpsertMode() throws Exception {
+        String csv = "code,name,stockQuantity\nRM001,Steel,10\nRM001,Stainless steel,30\n";
+
+        ImportReport report = bulkImportService.importRawMaterials(ImportFormat.CSV, ImportMode.UPSERT, body(csv));
+
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.updated());
+        assertEquals(0, report.failed());
+        assertEquals(List.of(List.of("RM001")), insertedCodes);
+        verify(eventPublisher).publishEvent(new RawMaterialChangedEvent(storedCodes.get("RM001"), "RM001", "Stainless steel", 30));
+        verify(stockMovementRepository).append(movements.capture());
+        assertEquals(1, movements.getValue().size());
+        assertEquals(30, movements.getValue().get(0).getQuantity());
+    }
+
+    @Test
+    void importRawMaterials_shouldReportCodesInsertedConcurrentlyInInsertMode() throws Exception {
+        concurrentCodes.put("RM001", UUID.randomUUID());
+        String csv = "code,name,stockQuantity\nRM001,Steel,10\nRM002,Plastic,20\n";
+
+        ImportReport report = bulkImportService.importRawMaterials(ImportFormat.CSV, ImportMode.INSERT, body(csv));
+
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.failed());
+        assertEquals("Code already exists: RM001", report.errors().get(0).message());
+        verify(eventPublisher, times(1)).publishEvent(any(RawMaterialChangedEvent.class));
+        verify(stockMovementRepository).append(movements.capture());
+        assertEquals(List.of(storedCodes.get("RM002")),
+                movements.getValue().stream().map(StockMovement::getRawMaterialId).toList());
+    }
+
+    @Test
+    void importRawMaterials_shouldUpdateCodesInsertedConcurrentlyInUpsertMode() throws Exception {
+        UUID concurrentId = UUID.randomUUID();
+        concurrentCodes.put("RM001", concurrentId);
+        concurrentStock.put("RM001", 15);
+        String csv = "code,name,stockQuantity\nRM001,Steel,10\n";
+
+        ImportReport report = bulkImportService.importRawMaterials(ImportFormat.CSV, ImportMode.UPSERT, body(csv));
+
+        assertEquals(0, report.inserted());
+        assertEquals(1, report.updated());
+        verify(eventPublisher).publishEvent(new RawMaterialChangedEvent(concurrentId, "RM001", "Steel", 10));
+        verify(stockMovementRepository).append(movements.capture());
+        StockMovement movement = movements.getValue().get(0);
+        assertEquals(concurrentId, movement.getRawMaterialId());
+        assertEquals(StockMovementType.ADJUSTMENT, movement.getType());
+        assertEquals(-5, movement.getQuantity());
+    }
+
+    @Test
+    void importRecipes_shouldForgetTheComponentsOfARolledBackChunk() throws Exception {
+        UUID bikeId = UUID.randomUUID();
+        UUID frameId = UUID.randomUUID();
+        storedCodes.put("BIKE", bikeId);
+        storedCodes.put("FRAME", frameId);
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.<BillOfMaterialLine>of());
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .doAnswer(invocation -> {
+                    writeColumns(invocation.getArgument(0), invocation.getArgument(1));
+                    return null;
+                })
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        String csv = """
+                productCode,rawMaterialCode,componentProductCode,quantity
+                BIKE,,FRAME,2
+                BIKE,,FRAME,3
+                FRAME,,BIKE,1
+                """;
+
+        ImportReport report = bulkImportService.importRecipes(ImportFormat.CSV, body(csv));
+
+        assertEquals(1, report.inserted());
+        assertEquals(2, report.failed());
+        assertTrue(report.errors().stream().allMatch(error -> error.message().startsWith("Chunk rolled back")));
+    }
+
+    @Test
+    void importRecipes_shouldReportLinesThatAreAlreadyStoredOrRepeated() throws Exception {
+        UUID frameId = UUID.randomUUID();
+        UUID steelId = UUID.randomUUID();
+        UUID rubberId = UUID.randomUUID();
+        storedCodes.put("FRAME", frameId);
+        storedCodes.put("RM001", steelId);
+        storedCodes.put("RM002", rubberId);
+        storedRecipeLines.add(Arrays.asList(frameId, steelId, null));
+        String csv = """
+                productCode,rawMaterialCode,componentProductCode,quantity
+                FRAME,RM001,,10
+                FRAME,RM002,,5
+                FRAME,RM002,,6
+                """;
+
+        ImportReport report = bulkImportService.importRecipes(ImportFormat.CSV, body(csv));
+
+        assertEquals(1, report.inserted());
+        assertEquals(2, report.failed());
+        assertEquals(List.of(1L, 3L), report.errors().stream().map(e -> e.row()).toList());
+        assertEquals("Product FRAME already uses RM001", report.errors().get(0).message());
+        assertEquals("Product FRAME already uses RM002", report.errors().get(1).message());
+        verify(eventPublisher, times(1)).publishEvent(new RecipeChangedEvent(frameId));
+        verify(catalogVersions, times(1)).changed(CatalogAggregate.RECIPES);
+    }
+
+    /**
+     * Plays the array insert or update against the stored codes: an insert skips the codes already
+     * stored, including the ones another writer inserted after the lookup, and an update matches
+     * every stored row. A recipe insert skips the lines whose product already lists the same raw
+     * material or component, like the unique constraints do.
+     */
+    private void writeColumns(PreparedStatementCreator creator, RowCallbackHandler handler) throws Exception {
+        List<Object[]> columns = new ArrayList<>();
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.createArrayOf(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            columns.add(invocation.getArgument(1));
+            return mock(Array.class);
+        });
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        creator.createPreparedStatement(connection);
+        verify(connection).prepareStatement(sql.capture());
+        boolean insert = sql.getValue().strip().startsWith("insert");
+        if (sql.getValue().contains("product_recipes")) {
+            for (int i = 0; i < columns.get(0).length; i++) {
+                List<UUID> line = Arrays.asList((UUID) columns.get(1)[i], (UUID) columns.get(2)[i], (UUID) columns.get(3)[i]);
+                if (!storedRecipeLines.add(line)) continue;
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject("id", UUID.class)).thenReturn((UUID) columns.get(0)[i]);
+                handler.processRow(rs);
+            }
+            return;
+        }
+        List<String> written = new ArrayList<>();
+        for (int i = 0; i < columns.get(0).length; i++) {
+            UUID id = (UUID) columns.get(0)[i];
+            String code = (String) columns.get(1)[i];
+            if (insert) {
+                UUID concurrentId = concurrentCodes.remove(code);
+                if (concurrentId != null) {
+                    storedCodes.put(code, concurrentId);
+                    storedStock.put(code, concurrentStock.getOrDefault(code, 0));
+                    continue;
+                }
+                if (storedCodes.containsKey(code)) continue;
+                storedCodes.put(code, id);
+            }
+            written.add(code);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("code")).thenReturn(code);
+            handler.processRow(rs);
+        }
+        if (insert) insertedCodes.add(written);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Entity.Product;
+import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class CatalogLookupTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(CatalogLookup.class)
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CatalogLookup.PRODUCTS, CatalogLookup.RAW_MATERIALS);
+        }
+
+        @Bean
+        ProductRepository productRepository() {
+            return mock(ProductRepository.class);
+        }
+
+        @Bean
+        RawMaterialsRepository rawMaterialsRepository() {
+            return mock(RawMaterialsRepository.class);
+        }
+    }
+
+    @Autowired
+    private CatalogLookup catalogLookup;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        reset(productRepository, rawMaterialsRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void product_shouldQueryOncePerId() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.findById(id)).thenReturn(Optional.of(new Product(id, "P001", "Bike", new BigDecimal("300.00"))));
+
+        Product first = catalogLookup.product(id).orElseThrow();
+        Product second = catalogLookup.product(id).orElseThrow();
+
+        assertSame(first, second);
+        verify(productRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void rawMaterial_shouldReloadStockAfterChangedEvent() {
+        UUID id = UUID.randomUUID();
+        when(rawMaterialsRepository.findById(id))
+                .thenReturn(Optional.of(new RawMaterials(id, "RM001", "Steel", 100)))
+                .thenReturn(Optional.of(new RawMaterials(id, "RM001", "Steel", 40)));
+
+        assertEquals(100, catalogLookup.rawMaterial(id).orElseThrow().getStockQuantity());
+        eventPublisher.publishEvent(new RawMaterialChangedEvent(id, "RM001", "Steel", 40));
+
+        assertEquals(40, catalogLookup.rawMaterial(id).orElseThrow().getStockQuantity());
+        verify(rawMaterialsRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void product_shouldForgetDeletedProducts() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.findById(id))
+                .thenReturn(Optional.of(new Product(id, "P001", "Bike", new BigDecimal("300.00"))))
+                .thenReturn(Optional.empty());
+
+        assertTrue(catalogLookup.product(id).isPresent());
+        eventPublisher.publishEvent(new ProductDeletedEvent(id));
+
+        assertTrue(catalogLookup.product(id).isEmpty());
+    }
+}
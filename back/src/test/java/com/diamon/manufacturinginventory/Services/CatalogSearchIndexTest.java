@@ -0,0 +1,105 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchMatch;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResultType;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+
+    private CatalogSearchIndex index;
+
+    private final UUID bikeId = UUID.randomUUID();
+    private final UUID bikeRackId = UUID.randomUUID();
+    private final UUID steelId = UUID.randomUUID();
+    private final UUID boltId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new CatalogSearchIndex(productRepository, rawMaterialsRepository);
+        when(productRepository.findAllResponses()).thenReturn(List.of(
+                new ProductResponse(bikeId, "P001", "Bike", new BigDecimal("300.00")),
+                new ProductResponse(bikeRackId, "P002", "Bike rack", new BigDecimal("45.00"))));
+        when(rawMaterialsRepository.findAllResponses()).thenReturn(List.of(
+                new RawMaterialResponse(steelId, "RM001", "Steel", 1000, 0),
+                new RawMaterialResponse(boltId, "BIKE-BOLT", "Bolt", 500, 0)));
+    }
+
+    @Test
+    void search_shouldRankExactMatchesBeforePrefixesAndCodesBeforeNames() {
+        List<SearchResult> results = index.search("bike", 10);
+
+        assertEquals(List.of(
+                new SearchResult(SearchResultType.PRODUCT, bikeId, "P001", "Bike", SearchMatch.EXACT_NAME),
+                new SearchResult(SearchResultType.RAW_MATERIAL, boltId, "BIKE-BOLT", "Bolt", SearchMatch.CODE_PREFIX),
+                new SearchResult(SearchResultType.PRODUCT, bikeRackId, "P002", "Bike rack", SearchMatch.NAME_PREFIX)),
+                results);
+    }
+
+    @Test
+    void search_shouldLoadOnceAndCutAtTheLimit() {
+        assertEquals(List.of("P001", "P002"), index.search("p00", 2).stream().map(SearchResult::code).toList());
+        assertEquals(List.of("P001"), index.search(" P0 ", 1).stream().map(SearchResult::code).toList());
+        assertTrue(index.search("x", 10).isEmpty());
+
+        verify(productRepository, times(1)).findAllResponses();
+        verify(rawMaterialsRepository, times(1)).findAllResponses();
+        verifyNoMoreInteractions(productRepository, rawMaterialsRepository);
+    }
+
+    @Test
+    void search_shouldListAnEntityOnceWithItsBestMatch() {
+        index.search("p", 1);
+        index.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "STEEL", "Steel", 1000));
+
+        assertEquals(List.of(new SearchResult(SearchResultType.RAW_MATERIAL, steelId, "STEEL", "Steel", SearchMatch.EXACT_CODE)),
+                index.search("steel", 10));
+    }
+
+    @Test
+    void changes_shouldReplaceTheOldTermsAndDropDeletedEntities() {
+        index.search("p", 1);
+        index.onProductChanged(new ProductChangedEvent(bikeId, "P010", "Mountain bike", new BigDecimal("350.00")));
+        index.onProductDeleted(new ProductDeletedEvent(bikeRackId));
+        UUID chainId = UUID.randomUUID();
+        index.onRawMaterialChanged(new RawMaterialChangedEvent(chainId, "RM002", "Chain", 80, 10));
+
+        assertTrue(index.search("bike", 10).stream().noneMatch(result -> result.type() == SearchResultType.PRODUCT));
+        assertTrue(index.search("p001", 10).isEmpty());
+        assertEquals(List.of(bikeId), index.search("mountain", 10).stream().map(SearchResult::id).toList());
+        assertEquals(List.of(chainId), index.search("cha", 10).stream().map(SearchResult::id).toList());
+    }
+
+    @Test
+    void changes_shouldBeIgnoredUntilTheIndexIsLoaded() {
+        index.onProductDeleted(new ProductDeletedEvent(bikeId));
+        index.onRawMaterialChanged(new RawMaterialChangedEvent(UUID.randomUUID(), "RM009", "Glue", 5));
+
+        verifyNoInteractions(productRepository, rawMaterialsRepository);
+        assertEquals(List.of(bikeId), index.search("p001", 10).stream().map(SearchResult::id).toList());
+        assertTrue(index.search("glue", 10).isEmpty());
+    }
+}
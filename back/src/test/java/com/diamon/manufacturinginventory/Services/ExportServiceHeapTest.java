@@ -0,0 +1,68 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialExportRow;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exports one million synthetic rows. The {@code heap-bounded} surefire execution runs this with
+ * {@code -Xmx64m}, where the rows alone would not fit if they were collected into a list.
+ */
+@Tag("heap-bounded")
+class ExportServiceHeapTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP = 128L * 1024 * 1024;
+
+    @ParameterizedTest
+    @EnumSource(ExportFormat.class)
+    void export_shouldStreamOneMillionRowsInASmallHeap(ExportFormat format) throws Exception {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP, "run with a small -Xmx (mvn test runs it with 64m)");
+
+        RawMaterialsRepository rawMaterialsRepository = mock(RawMaterialsRepository.class);
+        when(rawMaterialsRepository.streamAllForExport()).thenReturn(syntheticRows());
+        ExportService exportService = new ExportService(
+                mock(ProductRepository.class), rawMaterialsRepository, mock(ProductRecipeRepository.class), new ObjectMapper());
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        exportService.exportRawMaterials(format, out);
+
+        long header = format == ExportFormat.CSV ? 1 : 0;
+        assertEquals(ROWS + header, out.lines);
+    }
+
+    private static Stream<RawMaterialExportRow> syntheticRows() {
+        return IntStream.range(0, ROWS).mapToObj(i -> new RawMaterialExportRow(
+                new UUID(0, i), "RM" + i, "Synthetic raw material " + i, i % 10_000));
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeExportRow;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialExportRow;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new ExportService(productRepository, rawMaterialsRepository, productRecipeRepository, objectMapper);
+    }
+
+    @Test
+    void exportRawMaterials_shouldWriteOneJsonObjectPerLine() throws Exception {
+        UUID steelId = UUID.randomUUID();
+        when(rawMaterialsRepository.streamAllForExport()).thenReturn(Stream.of(
+                new RawMaterialExportRow(steelId, "RM001", "Steel", 100),
+                new RawMaterialExportRow(UUID.randomUUID(), "RM002", "Rubber", 5)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportRawMaterials(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(steelId.toString(), first.get("id").asText());
+        assertEquals(100, first.get("stockQuantity").asInt());
+        assertEquals("Rubber", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void exportRecipes_shouldWriteCsvWithHeaderAndQuotedFields() throws Exception {
+        UUID recipeId = UUID.randomUUID();
+        when(productRecipeRepository.streamAllForExport()).thenReturn(Stream.of(
+                new RecipeExportRow(recipeId, "P001", "Bike, \"pro\"", "RM001", "Steel", null, null, 50)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportRecipes(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("recipeId,productCode,productName,rawMaterialCode,rawMaterialName,componentProductCode,componentProductName,requiredQuantity", lines[0]);
+        assertEquals(recipeId + ",P001,\"Bike, \"\"pro\"\"\",RM001,Steel,,,50", lines[1]);
+    }
+
+    @Test
+    void export_shouldCloseTheDatabaseStream() throws Exception {
+        Stream<RawMaterialExportRow> rows = Stream.of(new RawMaterialExportRow(UUID.randomUUID(), "RM001", "Steel", 1));
+        Runnable onClose = mock(Runnable.class);
+        when(rawMaterialsRepository.streamAllForExport()).thenReturn(rows.onClose(onClose));
+
+        exportService.exportRawMaterials(ExportFormat.CSV, new ByteArrayOutputStream());
+
+        verify(onClose).run();
+    }
+
+    @Test
+    void fromParameter_shouldRejectUnknownFormats() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromParameter("csv"));
+        assertThrows(com.diamon.manufacturinginventory.Exceptions.UnsupportedExportFormatException.class,
+                () -> ExportFormat.fromParameter("xml"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryChangeStreamTest {
+
+    private InventoryChangeStream stream;
+
+    private final UUID steelId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        stream = new InventoryChangeStream(new ObjectMapper(), new SimpleMeterRegistry(), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void broadcast_shouldSendTheSameEncodedFrameToEverySubscriber() throws InterruptedException {
+        RecordingEmitter first = new RecordingEmitter(2);
+        RecordingEmitter second = new RecordingEmitter(2);
+        stream.subscribe(first);
+        stream.subscribe(second);
+
+        stream.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 40));
+
+        assertTrue(first.await() && second.await());
+        assertSame(first.frames.get(1), second.frames.get(1));
+        String frame = text(first.frames.get(1));
+        assertTrue(frame.contains("event:raw-material-changed\n"), frame);
+        assertTrue(frame.contains("\"id\":\"" + steelId + "\",\"code\":\"RM001\",\"name\":\"Steel\",\"stockQuantity\":40}"), frame);
+        assertFalse(frame.contains("price"), frame);
+    }
+
+    @Test
+    void offer_shouldCoalesceChangesOfTheSameEntityWhileTheClientIsBusy() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(3);
+        slow.blockFirstSend();
+        stream.subscribe(slow);
+        slow.awaitBlocked();
+
+        stream.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 40));
+        stream.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 30));
+        stream.onProductDeleted(new ProductDeletedEvent(UUID.randomUUID()));
+        slow.release();
+
+        assertTrue(slow.await());
+        assertTrue(text(slow.frames.get(1)).contains("\"stockQuantity\":30"));
+        assertTrue(text(slow.frames.get(2)).contains("event:product-deleted\n"));
+        assertEquals(3, slow.frames.size());
+    }
+
+    @Test
+    void offer_shouldReplaceAnOverflowingBufferWithOneResync() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(2);
+        slow.blockFirstSend();
+        stream.subscribe(slow);
+        slow.awaitBlocked();
+
+        for (int i = 0; i < 10; i++) {
+            stream.onRawMaterialChanged(new RawMaterialChangedEvent(UUID.randomUUID(), "RM" + i, "Material " + i, i));
+        }
+        slow.release();
+
+        assertTrue(slow.await());
+        assertTrue(text(slow.frames.get(1)).contains("event:" + InventoryChangeStream.RESYNC + "\n"));
+        assertEquals(2, slow.frames.size());
+    }
+
+    @Test
+    void send_shouldDropSubscribersThatWentAway() throws InterruptedException {
+        RecordingEmitter gone = new RecordingEmitter(1);
+        gone.failSends();
+        stream.subscribe(gone);
+
+        assertTrue(gone.await());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stream.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, stream.subscriberCount());
+    }
+
+    private static String text(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        return frame.stream().map(part -> String.valueOf(part.getData())).collect(Collectors.joining());
+    }
+
+    /**
+     * Records the frames instead of writing them to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Set<DataWithMediaType>> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sent;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private boolean blockFirst;
+        private boolean fail;
+
+        private RecordingEmitter(int expectedFrames) {
+            this.sent = new CountDownLatch(expectedFrames);
+        }
+
+        private void blockFirstSend() {
+            blockFirst = true;
+        }
+
+        private void failSends() {
+            fail = true;
+        }
+
+        private void awaitBlocked() throws InterruptedException {
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        }
+
+        private void release() {
+            released.countDown();
+        }
+
+        private boolean await() throws InterruptedException {
+            return sent.await(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (fail) {
+                sent.countDown();
+                throw new IOException("Broken pipe");
+            }
+            frames.add(items);
+            sent.countDown();
+            if (blockFirst && frames.size() == 1) {
+                blocked.countDown();
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
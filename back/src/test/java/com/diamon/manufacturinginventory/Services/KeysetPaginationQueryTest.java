@@ -0,0 +1,96 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Pagination.CursorPage;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
+import com.diamon.manufacturinginventory.ManufacturinginventoryApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pages through products whose sort values repeat and are partly null, two rows at a time and with
+ * a code filter, and checks every matching row comes back once and in the database's order. Needs a
+ * real PostgreSQL database and works in a scratch schema:
+ * {@code mvn test -Dtest=KeysetPaginationQueryTest -Dpagination.jdbc.url=jdbc:postgresql://localhost:5432/manu_facturing}
+ */
+class KeysetPaginationQueryTest {
+
+    private static final String SCHEMA = "keyset_pagination";
+
+    private static ConfigurableApplicationContext context;
+    private static ProductService productService;
+
+    @BeforeAll
+    static void setUp() {
+        String baseUrl = System.getProperty("pagination.jdbc.url");
+        assumeTrue(baseUrl != null, "pagination.jdbc.url is not set");
+        String url = baseUrl + (baseUrl.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public";
+        context = new SpringApplicationBuilder(ManufacturinginventoryApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + System.getProperty("pagination.jdbc.user", "root"),
+                        "--spring.datasource.password=" + System.getProperty("pagination.jdbc.password", "root"),
+                        "--spring.flyway.schemas=" + SCHEMA,
+                        "--spring.jpa.properties.hibernate.default_schema=" + SCHEMA,
+                        "--spring.jpa.show-sql=false");
+        productService = context.getBean(ProductService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        insert(jdbcTemplate, 1, "PG1", "b", "10");
+        insert(jdbcTemplate, 2, "PG2", null, "10");
+        insert(jdbcTemplate, 3, "PG3", "a", null);
+        insert(jdbcTemplate, 4, "PG4", "a", "5");
+        insert(jdbcTemplate, 5, "PG5", null, null);
+        insert(jdbcTemplate, 6, "PG6", "a", "10");
+        insert(jdbcTemplate, 7, "XX7", null, null);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (context == null) return;
+        context.getBean(JdbcTemplate.class).execute("drop schema if exists " + SCHEMA + " cascade");
+        context.close();
+    }
+
+    @Test
+    void page_shouldPutNullPricesAfterEveryPrice() {
+        assertEquals(List.of("PG4", "PG1", "PG2", "PG6", "PG3", "PG5"), codes(null, "price", "asc"));
+        assertEquals(List.of("PG5", "PG3", "PG6", "PG2", "PG1", "PG4"), codes(null, "price", "desc"));
+        assertEquals(List.of("PG4", "PG6", "PG3"), codes("a", "price", "asc"));
+    }
+
+    @Test
+    void page_shouldPutNullNamesAfterEveryName() {
+        assertEquals(List.of("PG3", "PG4", "PG6", "PG1", "PG2", "PG5"), codes(null, "name", "asc"));
+        assertEquals(List.of("PG5", "PG2", "PG1", "PG6", "PG4", "PG3"), codes(null, "name", "desc"));
+    }
+
+    private static List<String> codes(String name, String sort, String direction) {
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProductResponse> page = productService.findPage("PG", name, sort, direction, cursor, 2);
+            page.items().forEach(product -> codes.add(product.code()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return codes;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, int id, String code, String name, String price) {
+        jdbcTemplate.update("insert into product (id, code, name, price) values (?, ?, ?, ?)",
+                UUID.fromString("00000000-0000-4000-8000-00000000000" + id), code, name,
+                price == null ? null : new BigDecimal(price));
+    }
+}
@@ -0,0 +1,71 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.Exceptions.InvalidPageRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationTest {
+
+    @Test
+    void cursor_shouldRoundTripTheLastKeys() {
+        UUID id = UUID.randomUUID();
+        String cursor = KeysetPagination.encode("stockQuantity", Sort.Direction.DESC, new KeysetPagination.Position(42, id));
+
+        KeysetPagination.Position position = KeysetPagination.decode(cursor, "stockQuantity", Integer.class, Sort.Direction.DESC);
+
+        assertEquals(42, position.value());
+        assertEquals(id, position.id());
+    }
+
+    @Test
+    void cursor_shouldKeepSeparatorsInsideTheSortValue() {
+        UUID id = UUID.randomUUID();
+        String cursor = KeysetPagination.encode("name", Sort.Direction.ASC, new KeysetPagination.Position("Steel | 10mm", id));
+
+        KeysetPagination.Position position = KeysetPagination.decode(cursor, "name", String.class, Sort.Direction.ASC);
+
+        assertEquals("Steel | 10mm", position.value());
+    }
+
+    @Test
+    void cursor_shouldTellANullSortValueFromAnEmptyOne() {
+        UUID id = UUID.randomUUID();
+        String nullPrice = KeysetPagination.encode("price", Sort.Direction.ASC, new KeysetPagination.Position(null, id));
+        String nullName = KeysetPagination.encode("name", Sort.Direction.ASC, new KeysetPagination.Position(null, id));
+        String emptyName = KeysetPagination.encode("name", Sort.Direction.ASC, new KeysetPagination.Position("", id));
+
+        assertEquals(new KeysetPagination.Position(null, id),
+                KeysetPagination.decode(nullPrice, "price", BigDecimal.class, Sort.Direction.ASC));
+        assertEquals(new KeysetPagination.Position(null, id),
+                KeysetPagination.decode(nullName, "name", String.class, Sort.Direction.ASC));
+        assertEquals(new KeysetPagination.Position("", id),
+                KeysetPagination.decode(emptyName, "name", String.class, Sort.Direction.ASC));
+    }
+
+    @Test
+    void cursor_shouldBeRejectedForAnotherSort() {
+        String cursor = KeysetPagination.encode("code", Sort.Direction.ASC, new KeysetPagination.Position("RM001", UUID.randomUUID()));
+
+        assertThrows(InvalidPageRequestException.class,
+                () -> KeysetPagination.decode(cursor, "name", String.class, Sort.Direction.ASC));
+        assertThrows(InvalidPageRequestException.class,
+                () -> KeysetPagination.decode(cursor, "code", String.class, Sort.Direction.DESC));
+    }
+
+    @Test
+    void cursor_shouldRejectGarbage() {
+        assertThrows(InvalidPageRequestException.class,
+                () -> KeysetPagination.decode("not a cursor", "code", String.class, Sort.Direction.ASC));
+        String unmarked = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("ASC|price|" + UUID.randomUUID() + "|").getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidPageRequestException.class,
+                () -> KeysetPagination.decode(unmarked, "price", BigDecimal.class, Sort.Direction.ASC));
+    }
+}
@@ -0,0 +1,158 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialResponse;
+import com.diamon.manufacturinginventory.Events.LowStockEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Events.StockReplenishedEvent;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LowStockMonitorTest {
+
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LowStockMonitor monitor;
+
+    private final UUID steelId = UUID.randomUUID();
+    private final UUID rubberId = UUID.randomUUID();
+    private final Map<UUID, RawMaterialResponse> rows = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new LowStockMonitor(rawMaterialsRepository, eventPublisher, meterRegistry, 0.1);
+        rows.put(steelId, new RawMaterialResponse(steelId, "RM001", "Steel", 500, 100));
+        rows.put(rubberId, new RawMaterialResponse(rubberId, "RM002", "Rubber", 20, 50));
+        when(rawMaterialsRepository.findAllWithReorderThreshold()).thenReturn(List.copyOf(rows.values()));
+        when(rawMaterialsRepository.findResponseById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<UUID>getArgument(0))));
+    }
+
+    @Test
+    void getLowStock_shouldLoadTheMaterialsAlreadyBelowTheirThresholdOnce() {
+        assertEquals(List.of(new RawMaterialResponse(rubberId, "RM002", "Rubber", 20, 50)), monitor.getLowStock());
+        assertEquals(1, monitor.getLowStock().size());
+        assertEquals(1.0, meterRegistry.get("inventory.stock.low").gauge().value());
+        verify(rawMaterialsRepository, times(1)).findAllWithReorderThreshold();
+        verifyNoMoreInteractions(rawMaterialsRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldAlertOncePerCrossingWithHysteresis() {
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 99));
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 60));
+        // back at the threshold but inside the band: still low, no event
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 105));
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 95));
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 110));
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 300));
+
+        verify(eventPublisher, times(1)).publishEvent(new LowStockEvent(steelId, "RM001", "Steel", 99, 100));
+        verify(eventPublisher, times(1)).publishEvent(new StockReplenishedEvent(steelId, "RM001", "Steel", 110, 100));
+        verifyNoMoreInteractions(eventPublisher);
+        assertEquals(List.of(rubberId), monitor.getLowStock().stream().map(RawMaterialResponse::id).toList());
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldKeepTheStockOfLowMaterialsCurrent() {
+        commit(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 5));
+
+        assertEquals(List.of(new RawMaterialResponse(rubberId, "RM002", "Rubber", 5, 50)), monitor.getLowStock());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldApplyThresholdsSetByTheWrite() {
+        UUID glueId = UUID.randomUUID();
+        commit(new RawMaterialChangedEvent(glueId, "RM003", "Glue", 10, 40));
+        // removing the threshold stops watching the material without a replenished event
+        commit(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 20, 0));
+
+        assertEquals(List.of(new RawMaterialResponse(glueId, "RM003", "Glue", 10, 40)), monitor.getLowStock());
+        verify(eventPublisher).publishEvent(new LowStockEvent(glueId, "RM003", "Glue", 10, 40));
+        verify(eventPublisher, never()).publishEvent(any(StockReplenishedEvent.class));
+    }
+
+    @Test
+    void onRawMaterialDeleted_shouldDropTheMaterial() {
+        monitor.getLowStock();
+        monitor.onRawMaterialDeleted(new RawMaterialDeletedEvent(rubberId));
+        monitor.onRawMaterialChanged(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 0));
+
+        assertTrue(monitor.getLowStock().isEmpty());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldNotAlertOnABalanceOlderThanTheCommittedOne() {
+        // the later write (300) reaches the monitor before the earlier one (60)
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 300));
+        monitor.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 60));
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(List.of(rubberId), monitor.getLowStock().stream().map(RawMaterialResponse::id).toList());
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldNotReplenishOnABalanceOlderThanTheCommittedOne() {
+        commit(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 10));
+        monitor.onRawMaterialChanged(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 100));
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(List.of(new RawMaterialResponse(rubberId, "RM002", "Rubber", 10, 50)), monitor.getLowStock());
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldReadTheRowOnlyOnASuspectedCrossing() {
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 400));
+        commit(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 15));
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 50));
+
+        verify(rawMaterialsRepository, times(1)).findResponseById(steelId);
+        verify(rawMaterialsRepository, never()).findResponseById(rubberId);
+    }
+
+    @Test
+    void getLowStock_shouldKeepThePublishedListUntilTheLowSetChanges() {
+        List<RawMaterialResponse> before = monitor.getLowStock();
+        commit(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 400));
+        assertSame(before, monitor.getLowStock());
+
+        commit(new RawMaterialChangedEvent(rubberId, "RM002", "Rubber", 15));
+        assertEquals(List.of(new RawMaterialResponse(rubberId, "RM002", "Rubber", 15, 50)), monitor.getLowStock());
+    }
+
+    /**
+     * Stores the write, then delivers its event the way the commit would.
+     */
+    private void commit(RawMaterialChangedEvent event) {
+        RawMaterialResponse previous = rows.get(event.rawMaterialId());
+        int threshold = event.reorderThreshold() != null ? event.reorderThreshold()
+                : previous == null ? 0 : previous.reorderThreshold();
+        rows.put(event.rawMaterialId(), new RawMaterialResponse(event.rawMaterialId(), event.code(), event.name(),
+                event.stockQuantity(), threshold));
+        monitor.onRawMaterialChanged(event);
+    }
+}
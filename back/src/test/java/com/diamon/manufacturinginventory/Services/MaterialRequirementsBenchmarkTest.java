@@ -0,0 +1,94 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsRequest;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsResponse;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Times the in-memory part of the requirement calculation for a large order book over a synthetic
+ * catalog, with the product and stock lookups mocked; {@code MaterialRequirementsBenchmark} in the
+ * {@code jmh} profile runs the same calculation against a database. Excluded from the default build;
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class MaterialRequirementsBenchmarkTest {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int MATERIALS = 1_000;
+    private static final int LINES_PER_RECIPE = 8;
+    private static final int ORDER_LINES = 100_000;
+    private static final int RUNS = 5;
+
+    @Test
+    void calculate_shouldHandleAHundredThousandOrderLinesWellUnderASecond() {
+        Random random = new Random(42);
+        List<UUID> productIds = new ArrayList<>(PRODUCTS);
+        List<ProductSummary> products = new ArrayList<>(PRODUCTS);
+        for (int j = 0; j < PRODUCTS; j++) {
+            UUID id = UUID.randomUUID();
+            productIds.add(id);
+            products.add(new ProductSummary(id, "Product " + j, BigDecimal.TEN));
+        }
+        List<RawMaterialStockLevel> materials = new ArrayList<>(MATERIALS);
+        for (int i = 0; i < MATERIALS; i++) {
+            materials.add(new RawMaterialStockLevel(UUID.randomUUID(), "RM%04d".formatted(i), "Material " + i, random.nextInt(100_000)));
+        }
+        List<BillOfMaterialLine> lines = new ArrayList<>(PRODUCTS * LINES_PER_RECIPE);
+        for (UUID productId : productIds) {
+            for (int k = 0; k < LINES_PER_RECIPE; k++) {
+                lines.add(new BillOfMaterialLine(productId, materials.get(random.nextInt(MATERIALS)).id(), null, 1 + random.nextInt(50)));
+            }
+        }
+        List<ProductionOrderItem> items = new ArrayList<>(ORDER_LINES);
+        for (int n = 0; n < ORDER_LINES; n++) {
+            items.add(new ProductionOrderItem(productIds.get(random.nextInt(PRODUCTS)), 1 + random.nextInt(1_000)));
+        }
+
+        ProductRepository productRepository = mock(ProductRepository.class);
+        RawMaterialsRepository rawMaterialsRepository = mock(RawMaterialsRepository.class);
+        ProductRecipeRepository productRecipeRepository = mock(ProductRecipeRepository.class);
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(lines);
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation ->
+                products.stream().filter(invocation.<Collection<UUID>>getArgument(0)::contains).toList());
+        when(rawMaterialsRepository.findStockLevelsByIdIn(anyCollection())).thenAnswer(invocation ->
+                materials.stream().filter(invocation.<Collection<UUID>>getArgument(0)::contains).toList());
+        BillOfMaterialsExplosion billOfMaterials = new BillOfMaterialsExplosion(productRecipeRepository, mock(CatalogVersions.class));
+        billOfMaterials.productsWithRecipe();
+        MaterialRequirementsService service = new MaterialRequirementsService(productRepository, rawMaterialsRepository, billOfMaterials);
+        MaterialRequirementsRequest request = new MaterialRequirementsRequest(items);
+
+        long best = Long.MAX_VALUE;
+        MaterialRequirementsResponse response = null;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            response = service.calculate(request);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long bestMs = TimeUnit.NANOSECONDS.toMillis(best);
+
+        System.out.printf("orderLines=%d products=%d materials=%d short=%d best=%d ms%n",
+                ORDER_LINES, PRODUCTS, MATERIALS, response.shortMaterials(), bestMs);
+        assertFalse(response.materials().isEmpty());
+        assertTrue(bestMs < 500, "requirement calculation took " + bestMs + " ms");
+    }
+}
@@ -0,0 +1,96 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirement;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsRequest;
+import com.diamon.manufacturinginventory.DTOs.MaterialRequirements.MaterialRequirementsResponse;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MaterialRequirementsServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    private MaterialRequirementsService materialRequirementsService;
+
+    private final UUID bikeId = UUID.randomUUID();
+    private final UUID frameId = UUID.randomUUID();
+    private final UUID steelId = UUID.randomUUID();
+    private final UUID rubberId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        materialRequirementsService = new MaterialRequirementsService(productRepository, rawMaterialsRepository,
+                new BillOfMaterialsExplosion(productRecipeRepository, mock(CatalogVersions.class)));
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.of(
+                new BillOfMaterialLine(frameId, steelId, null, 4),
+                new BillOfMaterialLine(bikeId, null, frameId, 1),
+                new BillOfMaterialLine(bikeId, rubberId, null, 2)));
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(
+                new ProductSummary(bikeId, "Bike", new BigDecimal("500.00")),
+                new ProductSummary(frameId, "Frame", new BigDecimal("120.00"))));
+        when(rawMaterialsRepository.findStockLevelsByIdIn(anyCollection())).thenReturn(List.of(
+                new RawMaterialStockLevel(rubberId, "RM002", "Rubber", 700),
+                new RawMaterialStockLevel(steelId, "RM001", "Steel", 1000)));
+    }
+
+    @Test
+    void calculate_shouldSumTheOrderBookThroughSubAssembliesAndSubtractStock() {
+        MaterialRequirementsResponse response = materialRequirementsService.calculate(new MaterialRequirementsRequest(List.of(
+                new ProductionOrderItem(bikeId, 100),
+                new ProductionOrderItem(frameId, 10),
+                new ProductionOrderItem(bikeId, 200))));
+
+        assertEquals(List.of(
+                new MaterialRequirement(steelId, "RM001", "Steel", 1240, 1000, 240),
+                new MaterialRequirement(rubberId, "RM002", "Rubber", 600, 700, 0)), response.materials());
+        assertEquals(1, response.shortMaterials());
+        verify(productRecipeRepository, times(1)).findAllBillOfMaterialLines();
+        verify(productRepository, times(1)).findSummariesByIdIn(Set.of(bikeId, frameId));
+        verify(rawMaterialsRepository, times(1)).findStockLevelsByIdIn(anyCollection());
+        verifyNoMoreInteractions(productRecipeRepository, productRepository, rawMaterialsRepository);
+    }
+
+    @Test
+    void calculate_shouldRejectUnknownProducts() {
+        MaterialRequirementsRequest request = new MaterialRequirementsRequest(List.of(new ProductionOrderItem(UUID.randomUUID(), 1)));
+
+        assertThrows(EntityNotFoundException.class, () -> materialRequirementsService.calculate(request));
+    }
+
+    @Test
+    void calculate_shouldRejectProductsWithoutRecipe() {
+        UUID bareId = UUID.randomUUID();
+        when(productRepository.findSummariesByIdIn(anyCollection()))
+                .thenReturn(List.of(new ProductSummary(bareId, "Bare", BigDecimal.ONE)));
+
+        InvalidRecipeException exception = assertThrows(InvalidRecipeException.class, () ->
+                materialRequirementsService.calculate(new MaterialRequirementsRequest(List.of(new ProductionOrderItem(bareId, 1)))));
+        assertEquals("Product Bare has no recipe", exception.getMessage());
+    }
+}
@@ -1,15 +1,17 @@
 package com.diamon.manufacturinginventory.Services;
 
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
-import com.diamon.manufacturinginventory.Entity.Product;
-import com.diamon.manufacturinginventory.Entity.ProductRecipes;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
 import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,32 +26,32 @@ class ProductRecipeServiceProductionTest {
     private ProductRecipeRepository productRecipeRepository;
     @Mock
     private ProductRepository productRepository;
-    @InjectMocks
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private CatalogVersions catalogVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ProductRecipeService productRecipeService;
 
-    private Product product;
-    private ProductRecipes recipe;
     private UUID productId;
+    private UUID rawMaterialId;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        productRecipeService = newService();
         productId = UUID.randomUUID();
-        product = mock(Product.class);
-        when(product.getId()).thenReturn(productId);
-        when(product.getName()).thenReturn("Test Product");
-        when(product.getPrice()).thenReturn(new BigDecimal("100.00"));
-        recipe = mock(ProductRecipes.class);
-        when(recipe.getProduct()).thenReturn(product);
-        when(recipe.getRequiredQuantity()).thenReturn(2);
-        when(recipe.getRawProduct()).thenReturn(mock(com.diamon.manufacturinginventory.Entity.RawMaterials.class));
-        when(recipe.getRawProduct().getStockQuantity()).thenReturn(10);
+        rawMaterialId = UUID.randomUUID();
     }
 
     @Test
     void getProductionSuggestions_shouldReturnCorrectSuggestions() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
-        when(productRecipeRepository.findAll()).thenReturn(List.of(recipe));
+        givenCatalog(
+                List.of(new BillOfMaterialLine(productId, rawMaterialId, null, 2)),
+                List.of(new RawMaterialStock(rawMaterialId, 10)),
+                List.of(new ProductSummary(productId, "Test Product", new BigDecimal("100.00"))));
         List<ProductProductionSuggestion> suggestions = productRecipeService.getProductionSuggestions();
         assertNotNull(suggestions);
         assertEquals(1, suggestions.size());
@@ -60,12 +62,60 @@ class ProductRecipeServiceProductionTest {
         assertEquals(500.00, suggestion.totalValue());
     }
 
+    @Test
+    void getProductionSuggestions_shouldUseLimitingRawMaterial() {
+        UUID rubberId = UUID.randomUUID();
+        givenCatalog(
+                List.of(new BillOfMaterialLine(productId, rawMaterialId, null, 50),
+                        new BillOfMaterialLine(productId, rubberId, null, 2)),
+                List.of(new RawMaterialStock(rawMaterialId, 1000), new RawMaterialStock(rubberId, 30)),
+                List.of(new ProductSummary(productId, "Bike", new BigDecimal("300.00"))));
+        List<ProductProductionSuggestion> suggestions = productRecipeService.getProductionSuggestions();
+        assertEquals(1, suggestions.size());
+        assertEquals(15, suggestions.get(0).maxQuantity());
+    }
+
+    @Test
+    void getProductionSuggestions_shouldMultiplySubAssemblyRequirements() {
+        UUID wheelId = UUID.randomUUID();
+        UUID rubberId = UUID.randomUUID();
+        givenCatalog(
+                List.of(new BillOfMaterialLine(wheelId, rubberId, null, 3),
+                        new BillOfMaterialLine(productId, null, wheelId, 2),
+                        new BillOfMaterialLine(productId, rawMaterialId, null, 50)),
+                List.of(new RawMaterialStock(rawMaterialId, 1000), new RawMaterialStock(rubberId, 30)),
+                List.of(new ProductSummary(productId, "Bike", new BigDecimal("300.00")),
+                        new ProductSummary(wheelId, "Wheel", new BigDecimal("20.00"))));
+        List<ProductProductionSuggestion> suggestions = productRecipeService.getProductionSuggestions();
+        assertEquals(2, suggestions.size());
+        assertEquals("Bike", suggestions.get(0).productName());
+        assertEquals(5, suggestions.get(0).maxQuantity());
+        assertEquals(10, suggestions.get(1).maxQuantity());
+    }
+
     @Test
     void getProductionSuggestions_shouldReturnEmptyWhenNoRecipes() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
-        when(productRecipeRepository.findAll()).thenReturn(List.of());
+        givenCatalog(List.of(), List.of(), List.of());
         List<ProductProductionSuggestion> suggestions = productRecipeService.getProductionSuggestions();
         assertTrue(suggestions.isEmpty());
     }
-}
 
+    private ProductRecipeService newService() {
+        BillOfMaterialsExplosion billOfMaterials = new BillOfMaterialsExplosion(productRecipeRepository, catalogVersions);
+        return new ProductRecipeService(
+                productRecipeRepository,
+                rawMaterialsRepository,
+                new CatalogLookup(productRepository, rawMaterialsRepository),
+                new ProductionSuggestionCache(billOfMaterials, productRepository, rawMaterialsRepository, catalogVersions),
+                billOfMaterials,
+                catalogVersions,
+                eventPublisher
+        );
+    }
+
+    private void givenCatalog(List<BillOfMaterialLine> lines, List<RawMaterialStock> stock, List<ProductSummary> products) {
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(lines);
+        when(rawMaterialsRepository.findAllStock()).thenReturn(stock);
+        when(productRepository.findAllSummariesWithRecipes()).thenReturn(products);
+    }
+}
@@ -1,22 +1,30 @@
 package com.diamon.manufacturinginventory.Services;
 
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeDetailsResponse;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest;
 import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeResponse;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeDetailRow;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.RecipeResponse;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.ProductRecipes;
 import com.diamon.manufacturinginventory.Entity.Product;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
 import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
 import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import com.diamon.manufacturinginventory.Repository.ProductRepository;
 import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,8 +38,15 @@ class ProductRecipeServiceTest {
     private ProductRepository productRepository;
     @Mock
     private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private ProductionSuggestionCache productionSuggestionCache;
+    @Mock
+    private BillOfMaterialsExplosion billOfMaterials;
+    @Mock
+    private CatalogVersions catalogVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
-    @InjectMocks
     private ProductRecipeService productRecipeService;
 
     private ProductRecipes recipe;
@@ -44,6 +59,9 @@ class ProductRecipeServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        productRecipeService = new ProductRecipeService(productRecipeRepository, rawMaterialsRepository,
+                new CatalogLookup(productRepository, rawMaterialsRepository), productionSuggestionCache,
+                billOfMaterials, catalogVersions, eventPublisher);
         recipeId = UUID.randomUUID();
         productId = UUID.randomUUID();
         rawMaterialId = UUID.randomUUID();
@@ -60,7 +78,7 @@ class ProductRecipeServiceTest {
 
     @Test
     void createRecipe_shouldSaveAndReturnRecipe() {
-        ProductRecipeRequest request = new ProductRecipeRequest(productId, rawMaterialId, 5);
+        ProductRecipeRequest request = new ProductRecipeRequest(productId.toString(), rawMaterialId.toString(), 5);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(rawMaterialsRepository.findById(rawMaterialId)).thenReturn(Optional.of(rawMaterial));
         when(productRecipeRepository.save(any(ProductRecipes.class))).thenReturn(recipe);
@@ -73,43 +91,63 @@ class ProductRecipeServiceTest {
 
     @Test
     void createRecipe_shouldThrowExceptionWhenProductNotFound() {
-        ProductRecipeRequest request = new ProductRecipeRequest(productId, rawMaterialId, 5);
+        ProductRecipeRequest request = new ProductRecipeRequest(productId.toString(), rawMaterialId.toString(), 5);
         when(productRepository.findById(productId)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> productRecipeService.createRecipe(request));
     }
 
     @Test
     void createRecipe_shouldThrowExceptionWhenRawMaterialNotFound() {
-        ProductRecipeRequest request = new ProductRecipeRequest(productId, rawMaterialId, 5);
+        ProductRecipeRequest request = new ProductRecipeRequest(productId.toString(), rawMaterialId.toString(), 5);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(rawMaterialsRepository.findById(rawMaterialId)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> productRecipeService.createRecipe(request));
     }
 
+    @Test
+    void createRecipe_shouldRejectComponentThatContainsTheProduct() {
+        UUID componentId = UUID.randomUUID();
+        Product component = mock(Product.class);
+        when(product.getId()).thenReturn(productId);
+        when(component.getId()).thenReturn(componentId);
+        ProductRecipeRequest request = new ProductRecipeRequest(productId.toString(), null, componentId.toString(), 2);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findById(componentId)).thenReturn(Optional.of(component));
+        when(billOfMaterials.createsCycle(productId, componentId)).thenReturn(true);
+        assertThrows(InvalidRecipeException.class, () -> productRecipeService.createRecipe(request));
+        verify(productRecipeRepository, never()).save(any());
+    }
+
     @Test
     void getRecipeById_shouldReturnRecipeWhenFound() {
-        when(productRecipeRepository.findById(recipeId)).thenReturn(Optional.of(recipe));
-        ProductRecipes found = productRecipeService.getRecipeById(recipeId);
-        assertEquals(recipe, found);
+        RecipeResponse response = new RecipeResponse(recipeId, productId, "Test Product", rawMaterialId, "Test Raw Material", null, null, 5);
+        when(productRecipeRepository.findResponseById(recipeId)).thenReturn(Optional.of(response));
+        RecipeResponse found = productRecipeService.getRecipeById(recipeId);
+        assertEquals(response, found);
+        verify(productRecipeRepository, times(1)).findResponseById(recipeId);
+        verifyNoMoreInteractions(productRecipeRepository);
     }
 
     @Test
     void getRecipeById_shouldThrowExceptionWhenNotFound() {
-        when(productRecipeRepository.findById(recipeId)).thenReturn(Optional.empty());
+        when(productRecipeRepository.findResponseById(recipeId)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> productRecipeService.getRecipeById(recipeId));
     }
 
     @Test
     void getAllRecipes_shouldReturnRecipeList() {
-        when(productRecipeRepository.findAll()).thenReturn(List.of(recipe));
-        List<ProductRecipes> recipes = productRecipeService.getAllRecipes();
+        when(productRecipeRepository.findAllResponses()).thenReturn(List.of(
+                new RecipeResponse(recipeId, productId, "Test Product", rawMaterialId, "Test Raw Material", null, null, 5)));
+        List<RecipeResponse> recipes = productRecipeService.getAllRecipes();
         assertNotNull(recipes);
         assertFalse(recipes.isEmpty());
+        verify(productRecipeRepository, times(1)).findAllResponses();
+        verifyNoMoreInteractions(productRecipeRepository, productRepository, rawMaterialsRepository);
     }
 
     @Test
     void updateRecipe_shouldUpdateAndReturnRecipe() {
-        ProductRecipeRequest request = new ProductRecipeRequest(productId, rawMaterialId, 10);
+        ProductRecipeRequest request = new ProductRecipeRequest(productId.toString(), rawMaterialId.toString(), 10);
         when(productRecipeRepository.findById(recipeId)).thenReturn(Optional.of(recipe));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(rawMaterialsRepository.findById(rawMaterialId)).thenReturn(Optional.of(rawMaterial));
@@ -123,20 +161,69 @@ class ProductRecipeServiceTest {
 
     @Test
     void updateRecipe_shouldThrowExceptionWhenRecipeNotFound() {
-        ProductRecipeRequest request = new ProductRecipeRequest(productId, rawMaterialId, 10);
+        ProductRecipeRequest request = new ProductRecipeRequest(productId.toString(), rawMaterialId.toString(), 10);
         when(productRecipeRepository.findById(recipeId)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> productRecipeService.updateRecipe(recipeId, request));
     }
 
     @Test
     void getAllRecipeDetails_shouldReturnRecipeDetails() {
-        when(productRecipeRepository.findAll()).thenReturn(List.of(recipe));
-        List<ProductRecipeResponse> details = productRecipeService.getAllRecipeDetails();
+        when(productRecipeRepository.findAllRecipeDetailRows()).thenReturn(List.of(
+                new RecipeDetailRow(recipeId, productId, "Test Product", rawMaterialId, "Test Raw Material", null, 5)));
+        when(catalogVersions.etag(CatalogAggregate.RECIPES)).thenReturn("\"recipes-7\"");
+        CatalogVersions.Versioned<List<ProductRecipeResponse>> versioned = productRecipeService.getAllRecipeDetails();
+        assertEquals("\"recipes-7\"", versioned.etag());
+        List<ProductRecipeResponse> details = versioned.body();
         assertNotNull(details);
         assertEquals(1, details.size());
         ProductRecipeResponse.RawMaterialInfo info = details.get(0).rawMaterials().get(0);
         assertEquals("Test Raw Material", info.rawMaterialName());
         assertEquals(5, info.requiredQuantity());
+        verify(productRecipeRepository, times(1)).findAllRecipeDetailRows();
+        verifyNoMoreInteractions(productRecipeRepository, rawMaterialsRepository);
+    }
+
+    @Test
+    void getRecipeDetailsByProduct_shouldGroupLinesOfEachProductFromOneQuery() {
+        UUID frameId = UUID.randomUUID();
+        UUID bottleId = UUID.randomUUID();
+        UUID rubberId = UUID.randomUUID();
+        UUID glueId = UUID.randomUUID();
+        when(productRecipeRepository.findAllRecipeDetailRows()).thenReturn(List.of(
+                new RecipeDetailRow(UUID.randomUUID(), productId, "Bike", rawMaterialId, "Steel", null, 5),
+                new RecipeDetailRow(UUID.randomUUID(), productId, "Bike", rubberId, "Rubber", null, 2),
+                new RecipeDetailRow(UUID.randomUUID(), productId, "Bike", null, null, frameId, 1),
+                new RecipeDetailRow(UUID.randomUUID(), bottleId, "Bottle", rubberId, "Rubber", null, 1)));
+        when(productRecipeRepository.explodeRecipes(Set.of(frameId))).thenReturn(Map.of(frameId, Map.of(rawMaterialId, 4L, glueId, 3L)));
+        when(catalogVersions.etag(CatalogAggregate.RECIPES)).thenReturn("\"recipes-7\"");
+        RawMaterials glue = mock(RawMaterials.class);
+        when(glue.getId()).thenReturn(glueId);
+        when(glue.getName()).thenReturn("Glue");
+        when(rawMaterialsRepository.findAllById(Set.of(glueId))).thenReturn(List.of(glue));
+
+        CatalogVersions.Versioned<List<ProductRecipeDetailsResponse>> versioned = productRecipeService.getRecipeDetailsByProduct();
+        List<ProductRecipeDetailsResponse> details = versioned.body();
+
+        assertEquals("\"recipes-7\"", versioned.etag());
+        assertEquals(2, details.size());
+        ProductRecipeDetailsResponse bike = details.get(0);
+        assertEquals(productId.toString(), bike.productId());
+        assertEquals("Bike", bike.productName());
+        assertEquals(Map.of("Steel", 9, "Rubber", 2, "Glue", 3), quantitiesByName(bike));
+        assertEquals(Map.of("Rubber", 1), quantitiesByName(details.get(1)));
+        verify(productRecipeRepository, times(1)).findAllRecipeDetailRows();
+        verify(productRecipeRepository, times(1)).explodeRecipes(Set.of(frameId));
+        verify(rawMaterialsRepository, times(1)).findAllById(Set.of(glueId));
+        verifyNoInteractions(billOfMaterials);
+        verifyNoMoreInteractions(productRecipeRepository, rawMaterialsRepository);
+    }
+
+    private static Map<String, Integer> quantitiesByName(ProductRecipeDetailsResponse details) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (ProductRecipeResponse.RawMaterialInfo info : details.rawMaterials()) {
+            quantities.put(info.rawMaterialName(), info.requiredQuantity());
+        }
+        return quantities;
     }
 }
 
@@ -1,24 +1,33 @@
 package com.diamon.manufacturinginventory.Services;
 
 import com.diamon.manufacturinginventory.DTOs.Product.ProductRequest;
+import com.diamon.manufacturinginventory.DTOs.Product.ProductResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockShortage;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.Product;
 import com.diamon.manufacturinginventory.Entity.ProductRecipes;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
 import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InsufficientQuantity;
 import com.diamon.manufacturinginventory.Repository.ProductRepository;
 import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
-import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,7 +43,18 @@ class ProductServiceTest {
     @Mock
     private ProductRecipeRepository productRecipeRepository;
 
-    @InjectMocks
+    @Mock
+    private BillOfMaterialsExplosion billOfMaterials;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ProductService productService;
 
     private Product product;
@@ -43,6 +63,9 @@ class ProductServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        productService = new ProductService(productRepository, rawMaterialsRepository,
+                new CatalogLookup(productRepository, rawMaterialsRepository), productRecipeRepository,
+                billOfMaterials, stockMovementRepository, catalogVersions, eventPublisher);
         id = UUID.randomUUID();
         product = new Product(id, "CODE1", "Test Product", new BigDecimal("10.00"));
     }
@@ -62,7 +85,7 @@ class ProductServiceTest {
 
     @Test
     void save_shouldSaveAndReturnProduct() {
-        ProductRequest request = new ProductRequest("CODE1", "Test Product", "desc", new BigDecimal("10.00"));
+        ProductRequest request = new ProductRequest("CODE1", "Test Product", new BigDecimal("10.00"));
         Product entity = new Product(null, "CODE1", "Test Product", new BigDecimal("10.00"));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         Product saved = productService.save(request);
@@ -86,67 +109,82 @@ class ProductServiceTest {
 
     @Test
     void update_shouldUpdateProductWhenFound() {
-        ProductRequest request = new ProductRequest("CODE2", "Updated Product", "desc", new BigDecimal("20.00"));
+        ProductRequest request = new ProductRequest("CODE2", "Updated Product", new BigDecimal("20.00"));
         when(productRepository.findById(id)).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
         assertDoesNotThrow(() -> productService.update(id, request));
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(catalogVersions).changed(CatalogAggregate.PRODUCTS, CatalogAggregate.RECIPES);
     }
 
     @Test
     void update_shouldThrowExceptionWhenNotFound() {
-        ProductRequest request = new ProductRequest("CODE2", "Updated Product", "desc", new BigDecimal("20.00"));
+        ProductRequest request = new ProductRequest("CODE2", "Updated Product", new BigDecimal("20.00"));
         when(productRepository.findById(id)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> productService.update(id, request));
     }
 
     @Test
     void findAll_shouldReturnProductList() {
-        when(productRepository.findAll()).thenReturn(Arrays.asList(product));
-        List<Product> products = productService.findAll();
+        when(productRepository.findAllResponses()).thenReturn(List.of(
+                new ProductResponse(id, "P001", "Test Product", new BigDecimal("10.00"))));
+        List<ProductResponse> products = productService.findAll();
         assertNotNull(products);
         assertFalse(products.isEmpty());
+        verify(productRepository, times(1)).findAllResponses();
+        verifyNoMoreInteractions(productRepository);
     }
 
     @Test
     void createProductWithRecipe_shouldCreateProductAndUpdateStock() {
-        ProductRequest productRequest = new ProductRequest("CODE1", "Test Product", "desc", new BigDecimal("10.00"));
+        ProductRequest productRequest = new ProductRequest("CODE1", "Test Product", new BigDecimal("10.00"));
         UUID rawMaterialId = UUID.randomUUID();
-        com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest recipeRequest = new com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest(id, rawMaterialId, 5);
+        com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest recipeRequest = new com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest(id.toString(), rawMaterialId.toString(), 5);
         RawMaterials rawMaterial = mock(RawMaterials.class);
         when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findById(id)).thenReturn(Optional.of(product));
         when(rawMaterialsRepository.findById(rawMaterialId)).thenReturn(Optional.of(rawMaterial));
-        when(rawMaterial.getStockQuantity()).thenReturn(10);
-        when(rawMaterial.getName()).thenReturn("Test Raw Material");
+        when(rawMaterial.getId()).thenReturn(rawMaterialId);
+        when(rawMaterialsRepository.consumeStock(Map.of(rawMaterialId, 5L))).thenReturn(new StockConsumption(
+                List.of(new RawMaterialStockLevel(rawMaterialId, "RM001", "Test Raw Material", 5)), List.of()));
         when(productRecipeRepository.save(any(ProductRecipes.class))).thenReturn(new ProductRecipes());
 
         Product result = productService.createProductWithRecipe(productRequest, List.of(recipeRequest));
         assertNotNull(result);
-        verify(rawMaterial).setStockQuantity(5);
-        verify(rawMaterialsRepository).save(rawMaterial);
+        verify(rawMaterialsRepository).consumeStock(Map.of(rawMaterialId, 5L));
+        verify(rawMaterial, never()).setStockQuantity(anyInt());
+        verify(eventPublisher).publishEvent(new RawMaterialChangedEvent(rawMaterialId, "RM001", "Test Raw Material", 5));
+        verify(stockMovementRepository).append(argThat(movements -> movements.size() == 1
+                && movements.iterator().next().getQuantity() == -5
+                && movements.iterator().next().getType() == StockMovementType.CONSUMPTION));
         verify(productRecipeRepository).save(any(ProductRecipes.class));
     }
 
     @Test
     void createProductWithRecipe_shouldThrowInsufficientQuantity() {
-        ProductRequest productRequest = new ProductRequest("CODE1", "Test Product", "desc", new BigDecimal("10.00"));
+        ProductRequest productRequest = new ProductRequest("CODE1", "Test Product", new BigDecimal("10.00"));
         UUID rawMaterialId = UUID.randomUUID();
-        com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest recipeRequest = new com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest(id, rawMaterialId, 15);
+        com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest recipeRequest = new com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest(id.toString(), rawMaterialId.toString(), 15);
         RawMaterials rawMaterial = mock(RawMaterials.class);
         when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findById(id)).thenReturn(Optional.of(product));
         when(rawMaterialsRepository.findById(rawMaterialId)).thenReturn(Optional.of(rawMaterial));
-        when(rawMaterial.getStockQuantity()).thenReturn(10);
-        when(rawMaterial.getName()).thenReturn("Test Raw Material");
+        when(rawMaterial.getId()).thenReturn(rawMaterialId);
+        when(rawMaterialsRepository.consumeStock(Map.of(rawMaterialId, 15L))).thenReturn(new StockConsumption(
+                List.of(), List.of(new StockShortage(rawMaterialId, "RM001", "Test Raw Material", 15, 10))));
 
-        assertThrows(com.diamon.manufacturinginventory.Exceptions.InsufficientQuantity.class, () ->
+        InsufficientQuantity exception = assertThrows(InsufficientQuantity.class, () ->
             productService.createProductWithRecipe(productRequest, List.of(recipeRequest)));
+        assertEquals("Insufficient stock for raw materials: Test Raw Material (required 15, available 10)", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any(RawMaterialChangedEvent.class));
+        verify(stockMovementRepository, never()).append(any());
     }
 
     @Test
     void createProductWithRecipe_shouldThrowEntityNotFoundException() {
-        ProductRequest productRequest = new ProductRequest("CODE1", "Test Product", "desc", new BigDecimal("10.00"));
+        ProductRequest productRequest = new ProductRequest("CODE1", "Test Product", new BigDecimal("10.00"));
         UUID rawMaterialId = UUID.randomUUID();
-        com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest recipeRequest = new com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest(id, rawMaterialId, 5);
+        com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest recipeRequest = new com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeRequest(id.toString(), rawMaterialId.toString(), 5);
         when(productRepository.save(any(Product.class))).thenReturn(product);
         when(rawMaterialsRepository.findById(rawMaterialId)).thenReturn(Optional.empty());
 
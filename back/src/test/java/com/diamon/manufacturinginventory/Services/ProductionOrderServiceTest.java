@@ -0,0 +1,120 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderItem;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderRequest;
+import com.diamon.manufacturinginventory.DTOs.ProductionOrder.ProductionOrderResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStockLevel;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockConsumption;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockShortage;
+import com.diamon.manufacturinginventory.Entity.Product;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InsufficientQuantity;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductionOrderServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+    @Mock
+    private CatalogVersions catalogVersions;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductionOrderService productionOrderService;
+
+    private final UUID bikeId = UUID.randomUUID();
+    private final UUID frameId = UUID.randomUUID();
+    private final UUID steelId = UUID.randomUUID();
+    private final UUID rubberId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productionOrderService = new ProductionOrderService(productRepository, rawMaterialsRepository,
+                stockMovementRepository, productRecipeRepository, catalogVersions, eventPublisher);
+        // frame: 4 steel; bike: 1 frame and 2 rubber
+        when(productRecipeRepository.explodeRecipes(anyCollection())).thenReturn(Map.of(
+                frameId, Map.of(steelId, 4L),
+                bikeId, Map.of(steelId, 4L, rubberId, 2L)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(
+                new Product(bikeId, "BIKE", "Bike", new BigDecimal("500.00")),
+                new Product(frameId, "FRAME", "Frame", new BigDecimal("120.00"))));
+    }
+
+    @Test
+    void produce_shouldConsumeTheFlattenedRequirementsOfAllItemsInOneBatch() {
+        when(rawMaterialsRepository.consumeStock(Map.of(steelId, 32L, rubberId, 10L))).thenReturn(new StockConsumption(
+                List.of(new RawMaterialStockLevel(steelId, "RM001", "Steel", 68),
+                        new RawMaterialStockLevel(rubberId, "RM002", "Rubber", 90)),
+                List.of()));
+
+        ProductionOrderResponse response = productionOrderService.produce(new ProductionOrderRequest(List.of(
+                new ProductionOrderItem(bikeId, 5),
+                new ProductionOrderItem(frameId, 3))));
+
+        assertEquals(7, response.orderId().version());
+        assertEquals(2, response.consumed().size());
+        assertEquals(32, response.consumed().get(0).consumed());
+        assertEquals(68, response.consumed().get(0).remainingStock());
+        assertEquals(10, response.consumed().get(1).consumed());
+        verify(rawMaterialsRepository, times(1)).consumeStock(anyMap());
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productRecipeRepository, times(1)).explodeRecipes(Set.of(bikeId, frameId));
+        verify(productRecipeRepository, never()).findAllBillOfMaterialLines();
+        verify(stockMovementRepository).append(argThat(movements -> movements.size() == 2));
+        verify(eventPublisher).publishEvent(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 68));
+    }
+
+    @Test
+    void produce_shouldReportEveryShortMaterial() {
+        when(rawMaterialsRepository.consumeStock(anyMap())).thenReturn(new StockConsumption(List.of(), List.of(
+                new StockShortage(steelId, "RM001", "Steel", 400, 100),
+                new StockShortage(rubberId, "RM002", "Rubber", 200, 50))));
+
+        InsufficientQuantity exception = assertThrows(InsufficientQuantity.class, () ->
+                productionOrderService.produce(new ProductionOrderRequest(List.of(new ProductionOrderItem(bikeId, 100)))));
+
+        assertEquals("Insufficient stock for raw materials: Steel (required 400, available 100), Rubber (required 200, available 50)",
+                exception.getMessage());
+        verifyNoInteractions(stockMovementRepository, eventPublisher);
+    }
+
+    @Test
+    void produce_shouldRejectUnknownProductsAndProductsWithoutRecipe() {
+        UUID unknown = UUID.randomUUID();
+        assertThrows(EntityNotFoundException.class, () ->
+                productionOrderService.produce(new ProductionOrderRequest(List.of(new ProductionOrderItem(unknown, 1)))));
+
+        UUID bareId = UUID.randomUUID();
+        when(productRepository.findAllById(any())).thenReturn(List.of(new Product(bareId, "BARE", "Bare", BigDecimal.ONE)));
+        assertThrows(InvalidRecipeException.class, () ->
+                productionOrderService.produce(new ProductionOrderRequest(List.of(new ProductionOrderItem(bareId, 1)))));
+        verify(rawMaterialsRepository, never()).consumeStock(anyMap());
+    }
+}
@@ -0,0 +1,99 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionPlanResponse;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductionPlanServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductionPlanService productionPlanService;
+
+    private final UUID bikeId = UUID.randomUUID();
+    private final UUID sampleId = UUID.randomUUID();
+    private final UUID scooterId = UUID.randomUUID();
+    private final UUID steelId = UUID.randomUUID();
+    private final UUID deletedId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productionPlanService = new ProductionPlanService(productRepository, rawMaterialsRepository,
+                productRecipeRepository, new TransactionTemplate(transactionManager), 5000, 5000, 2);
+        when(productRepository.findAllSummariesWithRecipes()).thenReturn(List.of(
+                new ProductSummary(bikeId, "Bike", new BigDecimal("100.00")),
+                new ProductSummary(sampleId, "Sample", null),
+                new ProductSummary(scooterId, "Scooter", new BigDecimal("500.00"))));
+        when(rawMaterialsRepository.findAllStock()).thenReturn(List.of(new RawMaterialStock(steelId, 10)));
+        when(productRecipeRepository.explodeRecipes(anyCollection())).thenReturn(Map.of(
+                bikeId, Map.of(steelId, 2L),
+                sampleId, Map.of(steelId, 1L),
+                scooterId, Map.of(steelId, 1L, deletedId, 1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productionPlanService.shutdown();
+    }
+
+    @Test
+    void getProductionPlan_shouldReadEverythingInOneRepeatableReadSnapshot() {
+        productionPlanService.getProductionPlan(null);
+
+        verify(transactionManager, times(1)).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+        verify(productRecipeRepository, times(1)).explodeRecipes(List.of(bikeId, sampleId, scooterId));
+        verify(productRecipeRepository, never()).findAllBillOfMaterialLines();
+    }
+
+    @Test
+    void getProductionPlan_shouldNotMakeProductsWithoutPriceOrWithAMissingMaterial() {
+        ProductionPlanResponse plan = productionPlanService.getProductionPlan(null);
+
+        assertEquals(1, plan.items().size());
+        assertEquals("Bike", plan.items().get(0).productName());
+        assertEquals(5, plan.items().get(0).maxQuantity());
+        assertEquals(500.0, plan.totalValue(), 1e-9);
+    }
+
+    @Test
+    void getProductionPlan_shouldKeepExplodedQuantitiesPastIntRange() {
+        when(productRecipeRepository.explodeRecipes(anyCollection())).thenReturn(Map.of(
+                bikeId, Map.of(steelId, 3_000_000_000L),
+                scooterId, Map.of(steelId, 1L)));
+
+        ProductionPlanResponse plan = productionPlanService.getProductionPlan(null);
+
+        assertEquals(1, plan.items().size());
+        assertEquals("Scooter", plan.items().get(0).productName());
+        assertEquals(10, plan.items().get(0).maxQuantity());
+    }
+}
@@ -0,0 +1,59 @@
+package com.diamon.manufacturinginventory.Services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the solver on synthetic catalogs and reports the plan value reached inside the budget.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ProductionPlanSolverBenchmarkTest {
+
+    private static final long BUDGET_MS = 1000;
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUp() {
+        executor = Executors.newFixedThreadPool(WORKERS);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest(name = "{0} products")
+    @ValueSource(ints = {100, 1_000, 10_000})
+    void solve_shouldStayWithinBudgetAndBeatGreedy(int products) {
+        ProductionPlanSolver.Problem problem = SyntheticCatalogs.random(new Random(products), products, Math.max(10, products / 10), 100_000, 50);
+
+        long greedyStart = System.nanoTime();
+        ProductionPlanSolver.Solution greedy = ProductionPlanSolver.solve(problem, 0, executor, 1);
+        long greedyNanos = System.nanoTime() - greedyStart;
+
+        long start = System.nanoTime();
+        ProductionPlanSolver.Solution solution = ProductionPlanSolver.solve(problem, TimeUnit.MILLISECONDS.toNanos(BUDGET_MS), executor, WORKERS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("products=%d workers=%d greedy=%.0f (%d us) plan=%.0f optimal=%s elapsed=%d ms%n",
+                products, WORKERS, greedy.value(), TimeUnit.NANOSECONDS.toMicros(greedyNanos),
+                solution.value(), solution.optimal(), elapsedMs);
+
+        ProductionPlanSolverTest.assertFeasible(problem, solution);
+        assertTrue(solution.value() >= greedy.value());
+        assertTrue(elapsedMs < BUDGET_MS + 500, "solver exceeded its time budget");
+    }
+}
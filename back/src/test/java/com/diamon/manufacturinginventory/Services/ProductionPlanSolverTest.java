@@ -0,0 +1,127 @@
+package com.diamon.manufacturinginventory.Services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionPlanSolverTest {
+
+    private static final long BUDGET = TimeUnit.SECONDS.toNanos(5);
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void solve_shouldNotPromiseMoreSharedStockThanAvailable() {
+        // Bike and Scooter both need Steel: sized on their own they would use 20 + 10 units of it.
+        ProductionPlanSolver.Problem problem = new ProductionPlanSolver.Problem(
+                new double[]{300, 250},
+                new int[][]{{0}, {0, 1}},
+                new long[][]{{50}, {100, 1}},
+                new long[]{1000, 500}
+        );
+
+        ProductionPlanSolver.Solution solution = ProductionPlanSolver.solve(problem, BUDGET, executor, 4);
+
+        assertTrue(solution.optimal());
+        assertArrayEquals(new int[]{20, 0}, solution.quantities());
+        assertEquals(6000, solution.value(), 1e-9);
+        assertFeasible(problem, solution);
+    }
+
+    @Test
+    void solve_shouldPreferCombinationOverGreedyDensity() {
+        // Greedy by value takes one unit of A (uses 6 of 10) and stops; two units of B are worth more.
+        ProductionPlanSolver.Problem problem = new ProductionPlanSolver.Problem(
+                new double[]{7, 5},
+                new int[][]{{0}, {0}},
+                new long[][]{{6}, {5}},
+                new long[]{10}
+        );
+
+        ProductionPlanSolver.Solution solution = ProductionPlanSolver.solve(problem, BUDGET, executor, 2);
+
+        assertTrue(solution.optimal());
+        assertArrayEquals(new int[]{0, 2}, solution.quantities());
+        assertEquals(10, solution.value(), 1e-9);
+    }
+
+    @Test
+    void solve_shouldMatchExhaustiveSearchOnSmallCatalogs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            ProductionPlanSolver.Problem problem = SyntheticCatalogs.random(random, 1 + random.nextInt(4), 1 + random.nextInt(3), 30, 7);
+
+            ProductionPlanSolver.Solution solution = ProductionPlanSolver.solve(problem, BUDGET, executor, 4);
+
+            assertTrue(solution.optimal());
+            assertEquals(exhaustive(problem, 0, problem.capacities().clone()), solution.value(), 1e-6);
+            assertFeasible(problem, solution);
+        }
+    }
+
+    @Test
+    void solve_shouldReturnEmptyPlanWhenNothingCanBeBuilt() {
+        ProductionPlanSolver.Problem problem = new ProductionPlanSolver.Problem(
+                new double[]{100},
+                new int[][]{{0}},
+                new long[][]{{10}},
+                new long[]{5}
+        );
+
+        ProductionPlanSolver.Solution solution = ProductionPlanSolver.solve(problem, BUDGET, executor, 2);
+
+        assertTrue(solution.optimal());
+        assertEquals(0, solution.value());
+    }
+
+    static void assertFeasible(ProductionPlanSolver.Problem problem, ProductionPlanSolver.Solution solution) {
+        long[] remaining = problem.capacities().clone();
+        double value = 0;
+        for (int j = 0; j < problem.productCount(); j++) {
+            int quantity = solution.quantities()[j];
+            assertTrue(quantity >= 0);
+            for (int k = 0; k < problem.materials()[j].length; k++) {
+                remaining[problem.materials()[j][k]] -= quantity * problem.required()[j][k];
+            }
+            value += quantity * problem.prices()[j];
+        }
+        for (long left : remaining) {
+            assertTrue(left >= 0, "plan uses more stock than available");
+        }
+        assertEquals(value, solution.value(), 1e-6);
+    }
+
+    private double exhaustive(ProductionPlanSolver.Problem problem, int product, long[] remaining) {
+        if (product == problem.productCount()) return 0;
+        int[] materials = problem.materials()[product];
+        long[] required = problem.required()[product];
+        long max = Long.MAX_VALUE;
+        for (int k = 0; k < materials.length; k++) {
+            max = Math.min(max, remaining[materials[k]] / required[k]);
+        }
+        double best = 0;
+        for (int quantity = 0; quantity <= max; quantity++) {
+            for (int k = 0; k < materials.length; k++) remaining[materials[k]] -= quantity * required[k];
+            best = Math.max(best, quantity * problem.prices()[product] + exhaustive(problem, product + 1, remaining));
+            for (int k = 0; k < materials.length; k++) remaining[materials[k]] += quantity * required[k];
+        }
+        return best;
+    }
+}
@@ -0,0 +1,139 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.DTOs.Simulation.RecipeOverride;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationRequest;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationResult;
+import com.diamon.manufacturinginventory.DTOs.Simulation.SimulationScenario;
+import com.diamon.manufacturinginventory.DTOs.Simulation.StockDelta;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Exceptions.InvalidRecipeException;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductionSimulationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    private ProductionSimulationService productionSimulationService;
+
+    private final UUID bikeId = UUID.randomUUID();
+    private final UUID frameId = UUID.randomUUID();
+    private final UUID steelId = UUID.randomUUID();
+    private final UUID rubberId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productionSimulationService = new ProductionSimulationService(productRepository, rawMaterialsRepository,
+                productRecipeRepository, 4);
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.of(
+                new BillOfMaterialLine(frameId, steelId, null, 4),
+                new BillOfMaterialLine(bikeId, null, frameId, 1),
+                new BillOfMaterialLine(bikeId, rubberId, null, 2)));
+        when(productRepository.findAllSummariesWithRecipes()).thenReturn(List.of(
+                new ProductSummary(frameId, "Frame", new BigDecimal("120.00")),
+                new ProductSummary(bikeId, "Bike", new BigDecimal("500.00"))));
+        when(rawMaterialsRepository.findAllStock()).thenReturn(List.of(
+                new RawMaterialStock(steelId, 100),
+                new RawMaterialStock(rubberId, 30)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productionSimulationService.shutdown();
+    }
+
+    @Test
+    void simulate_shouldEvaluateEveryScenarioAgainstOneSnapshotWithoutWriting() {
+        List<SimulationResult> results = productionSimulationService.simulate(new SimulationRequest(List.of(
+                new SimulationScenario("current", null, null),
+                new SimulationScenario("steel arrives", List.of(new StockDelta(steelId, 200)), null),
+                new SimulationScenario("lighter frame", List.of(new StockDelta(rubberId, 100)),
+                        List.of(new RecipeOverride(frameId, steelId, null, 2))),
+                new SimulationScenario("bike without rubber", null,
+                        List.of(new RecipeOverride(bikeId, rubberId, null, 0)))
+        )));
+
+        assertEquals(List.of("current", "steel arrives", "lighter frame", "bike without rubber"),
+                results.stream().map(SimulationResult::scenario).toList());
+        assertEquals(List.of(suggestion("Bike", 15, 500), suggestion("Frame", 25, 120)), results.get(0).suggestions());
+        assertEquals(List.of(suggestion("Bike", 15, 500), suggestion("Frame", 75, 120)), results.get(1).suggestions());
+        // the override of the sub-assembly reaches the bike that uses it
+        assertEquals(List.of(suggestion("Bike", 50, 500), suggestion("Frame", 50, 120)), results.get(2).suggestions());
+        assertEquals(List.of(suggestion("Bike", 25, 500), suggestion("Frame", 25, 120)), results.get(3).suggestions());
+
+        verify(productRecipeRepository, times(1)).findAllBillOfMaterialLines();
+        verify(productRepository, times(1)).findAllSummariesWithRecipes();
+        verify(rawMaterialsRepository, times(1)).findAllStock();
+        verifyNoMoreInteractions(productRecipeRepository, productRepository, rawMaterialsRepository);
+    }
+
+    @Test
+    void simulate_shouldReadTheRecipesAlongWithTheStockOnEveryCall() {
+        SimulationRequest request = new SimulationRequest(List.of(new SimulationScenario("current", null, null)));
+        productionSimulationService.simulate(request);
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.of(
+                new BillOfMaterialLine(frameId, steelId, null, 10),
+                new BillOfMaterialLine(bikeId, null, frameId, 1)));
+
+        List<SimulationResult> results = productionSimulationService.simulate(request);
+
+        assertEquals(List.of(suggestion("Bike", 10, 500), suggestion("Frame", 10, 120)), results.get(0).suggestions());
+        verify(productRecipeRepository, times(2)).findAllBillOfMaterialLines();
+    }
+
+    @Test
+    void simulate_shouldLoadProductsThatOnlyGetARecipeInTheScenario() {
+        UUID bellId = UUID.randomUUID();
+        when(productRepository.findSummariesByIdIn(Set.of(bellId)))
+                .thenReturn(List.of(new ProductSummary(bellId, "Bell", new BigDecimal("15.00"))));
+
+        List<SimulationResult> results = productionSimulationService.simulate(new SimulationRequest(List.of(
+                new SimulationScenario("bell", null, List.of(new RecipeOverride(bellId, steelId, null, 10))))));
+
+        assertEquals(suggestion("Bell", 10, 15), results.get(0).suggestions().get(2));
+    }
+
+    @Test
+    void simulate_shouldRejectOverridesThatMakeAProductContainItself() {
+        SimulationRequest request = new SimulationRequest(List.of(
+                new SimulationScenario("loop", null, List.of(new RecipeOverride(frameId, null, bikeId, 1)))));
+
+        assertThrows(InvalidRecipeException.class, () -> productionSimulationService.simulate(request));
+    }
+
+    @Test
+    void simulate_shouldRejectUnknownRawMaterials() {
+        SimulationRequest request = new SimulationRequest(List.of(
+                new SimulationScenario("unknown", List.of(new StockDelta(UUID.randomUUID(), 10)), null)));
+
+        assertThrows(EntityNotFoundException.class, () -> productionSimulationService.simulate(request));
+    }
+
+    private static ProductProductionSuggestion suggestion(String name, int quantity, double value) {
+        return new ProductProductionSuggestion(name, quantity, value, quantity * value);
+    }
+}
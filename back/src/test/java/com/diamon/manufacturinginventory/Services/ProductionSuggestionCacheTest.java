@@ -0,0 +1,267 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Product.ProductSummary;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.BillOfMaterialLine;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductProductionSuggestion;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductionSuggestionCacheStats;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialStock;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
+import com.diamon.manufacturinginventory.Events.ProductChangedEvent;
+import com.diamon.manufacturinginventory.Events.ProductDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialChangedEvent;
+import com.diamon.manufacturinginventory.Events.RawMaterialDeletedEvent;
+import com.diamon.manufacturinginventory.Events.RecipeChangedEvent;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductionSuggestionCacheTest {
+
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    private BillOfMaterialsExplosion billOfMaterials;
+    private ProductionSuggestionCache cache;
+
+    private UUID bikeId;
+    private UUID bottleId;
+    private UUID steelId;
+    private UUID plasticId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        billOfMaterials = new BillOfMaterialsExplosion(productRecipeRepository, catalogVersions);
+        cache = new ProductionSuggestionCache(billOfMaterials, productRepository, rawMaterialsRepository, catalogVersions);
+        bikeId = UUID.randomUUID();
+        bottleId = UUID.randomUUID();
+        steelId = UUID.randomUUID();
+        plasticId = UUID.randomUUID();
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.of(
+                new BillOfMaterialLine(bikeId, steelId, null, 50),
+                new BillOfMaterialLine(bottleId, plasticId, null, 5)
+        ));
+        when(rawMaterialsRepository.findAllStock()).thenReturn(List.of(
+                new RawMaterialStock(steelId, 1000),
+                new RawMaterialStock(plasticId, 500)
+        ));
+        when(productRepository.findAllSummariesWithRecipes()).thenReturn(List.of(
+                new ProductSummary(bikeId, "Bike", new BigDecimal("300.00")),
+                new ProductSummary(bottleId, "Bottle", new BigDecimal("10.00"))
+        ));
+    }
+
+    @Test
+    void getSuggestions_shouldServeRepeatedReadsFromCache() {
+        List<ProductProductionSuggestion> first = cache.getSuggestions();
+        List<ProductProductionSuggestion> second = cache.getSuggestions();
+
+        assertSame(first, second);
+        assertEquals("Bike", first.get(0).productName());
+        assertEquals(20, first.get(0).maxQuantity());
+        assertEquals(100, first.get(1).maxQuantity());
+        verify(productRecipeRepository, times(1)).findAllBillOfMaterialLines();
+        verify(rawMaterialsRepository, times(1)).findAllStock();
+        verify(productRepository, times(1)).findAllSummariesWithRecipes();
+
+        ProductionSuggestionCacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.fullLoads());
+        assertEquals(2, stats.cachedProducts());
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldRecomputeOnlyProductsUsingIt() {
+        cache.getSuggestions();
+        long recomputesBefore = cache.getStats().productRecomputes();
+
+        cache.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 500));
+        List<ProductProductionSuggestion> suggestions = cache.getSuggestions();
+
+        assertEquals(recomputesBefore + 1, cache.getStats().productRecomputes());
+        assertEquals(10, suggestions.get(0).maxQuantity());
+        assertEquals(100, suggestions.get(1).maxQuantity());
+        verify(rawMaterialsRepository, times(1)).findAllStock();
+    }
+
+    @Test
+    void onRawMaterialChanged_shouldDropProductsThatCanNoLongerBeBuilt() {
+        cache.getSuggestions();
+
+        cache.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 10));
+
+        List<ProductProductionSuggestion> suggestions = cache.getSuggestions();
+        assertEquals(1, suggestions.size());
+        assertEquals("Bottle", suggestions.get(0).productName());
+    }
+
+    @Test
+    void onProductChanged_shouldReRankByNewPrice() {
+        cache.getSuggestions();
+
+        cache.onProductChanged(new ProductChangedEvent(bottleId, "P002", "Bottle", new BigDecimal("500.00")));
+
+        List<ProductProductionSuggestion> suggestions = cache.getSuggestions();
+        assertEquals("Bottle", suggestions.get(0).productName());
+        assertEquals(50_000.00, suggestions.get(0).totalValue());
+    }
+
+    @Test
+    void onRecipeChanged_shouldReloadOnlyThatProduct() {
+        cache.getSuggestions();
+        when(productRecipeRepository.findBillOfMaterialLinesByProductId(bikeId)).thenReturn(List.of(
+                new BillOfMaterialLine(bikeId, steelId, null, 40)
+        ));
+
+        billOfMaterials.onRecipeChanged(new RecipeChangedEvent(bikeId));
+
+        assertEquals(25, cache.getSuggestions().get(0).maxQuantity());
+        verify(productRecipeRepository, times(1)).findBillOfMaterialLinesByProductId(bikeId);
+        verify(productRecipeRepository, times(1)).findAllBillOfMaterialLines();
+        verify(productRepository, never()).findSummaryById(any());
+    }
+
+    @Test
+    void onRecipeChanged_shouldRecomputeProductsUsingTheSubAssembly() {
+        UUID frameId = UUID.randomUUID();
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.of(
+                new BillOfMaterialLine(frameId, steelId, null, 10),
+                new BillOfMaterialLine(bikeId, null, frameId, 2),
+                new BillOfMaterialLine(bikeId, plasticId, null, 5)
+        ));
+        when(productRepository.findAllSummariesWithRecipes()).thenReturn(List.of(
+                new ProductSummary(frameId, "Frame", new BigDecimal("50.00")),
+                new ProductSummary(bikeId, "Bike", new BigDecimal("300.00"))
+        ));
+        assertEquals(50, cache.getSuggestions().get(0).maxQuantity());
+
+        when(productRecipeRepository.findBillOfMaterialLinesByProductId(frameId)).thenReturn(List.of(
+                new BillOfMaterialLine(frameId, steelId, null, 25)
+        ));
+        billOfMaterials.onRecipeChanged(new RecipeChangedEvent(frameId));
+
+        List<ProductProductionSuggestion> suggestions = cache.getSuggestions();
+        assertEquals("Bike", suggestions.get(0).productName());
+        assertEquals(20, suggestions.get(0).maxQuantity());
+        assertEquals(40, suggestions.get(1).maxQuantity());
+        verify(productRecipeRepository, times(1)).findAllBillOfMaterialLines();
+    }
+
+    @Test
+    void onRecipeChanged_shouldIndexProductThatGotItsFirstRecipe() {
+        cache.getSuggestions();
+        UUID chairId = UUID.randomUUID();
+        when(productRecipeRepository.findBillOfMaterialLinesByProductId(chairId)).thenReturn(List.of(
+                new BillOfMaterialLine(chairId, plasticId, null, 100)
+        ));
+        when(productRepository.findSummaryById(chairId))
+                .thenReturn(Optional.of(new ProductSummary(chairId, "Chair", new BigDecimal("80.00"))));
+
+        billOfMaterials.onRecipeChanged(new RecipeChangedEvent(chairId));
+
+        assertEquals(3, cache.getStats().cachedProducts());
+        assertEquals(5, cache.getSuggestions().get(1).maxQuantity());
+    }
+
+    @Test
+    void onProductAndRawMaterialDeleted_shouldRemoveAffectedProducts() {
+        cache.getSuggestions();
+
+        cache.onProductDeleted(new ProductDeletedEvent(bottleId));
+        billOfMaterials.onProductDeleted(new ProductDeletedEvent(bottleId));
+        assertEquals(1, cache.getStats().cachedProducts());
+
+        when(productRecipeRepository.findAllBillOfMaterialLines()).thenReturn(List.of());
+        when(productRepository.findAllSummariesWithRecipes()).thenReturn(List.of());
+        cache.onRawMaterialDeleted(new RawMaterialDeletedEvent(steelId));
+        billOfMaterials.onRawMaterialDeleted(new RawMaterialDeletedEvent(steelId));
+
+        assertTrue(cache.getSuggestions().isEmpty());
+        assertEquals(0, cache.getStats().cachedProducts());
+    }
+
+    @Test
+    void events_shouldBeIgnoredBeforeFirstLoad() {
+        cache.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 0));
+        billOfMaterials.onRecipeChanged(new RecipeChangedEvent(bikeId));
+
+        verifyNoInteractions(productRecipeRepository, productRepository, rawMaterialsRepository);
+        assertEquals(2, cache.getSuggestions().size());
+    }
+
+    @Test
+    void getSuggestions_shouldReloadStockChangedByAnotherNode() {
+        when(catalogVersions.current()).thenReturn(versions(1, 1, 1));
+        cache.getSuggestions();
+
+        when(rawMaterialsRepository.findAllStock()).thenReturn(List.of(
+                new RawMaterialStock(steelId, 500),
+                new RawMaterialStock(plasticId, 500)
+        ));
+        when(catalogVersions.current()).thenReturn(versions(1, 2, 1));
+
+        assertEquals(10, cache.getSuggestions().get(0).maxQuantity());
+        verify(rawMaterialsRepository, times(2)).findAllStock();
+        verify(productRepository, times(1)).findAllSummariesWithRecipes();
+        verify(productRecipeRepository, times(1)).findAllBillOfMaterialLines();
+    }
+
+    @Test
+    void getSuggestions_shouldReloadEverythingWhenAnotherNodeChangedProductsOrRecipes() {
+        when(catalogVersions.current()).thenReturn(versions(1, 1, 1));
+        cache.getSuggestions();
+
+        when(catalogVersions.current()).thenReturn(versions(2, 1, 1));
+        cache.getSuggestions();
+        when(catalogVersions.current()).thenReturn(versions(2, 1, 2));
+        cache.getSuggestions();
+
+        verify(productRepository, times(3)).findAllSummariesWithRecipes();
+        verify(productRecipeRepository, times(2)).findAllBillOfMaterialLines();
+        assertEquals(3, cache.getStats().fullLoads());
+    }
+
+    @Test
+    void getSuggestions_shouldNotReloadForACommitItsEventsCovered() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<BiConsumer<CatalogAggregate, Long>> listeners = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(catalogVersions, times(2)).addCommitListener(listeners.capture());
+        when(catalogVersions.current()).thenReturn(versions(1, 1, 1));
+        cache.getSuggestions();
+
+        cache.onRawMaterialChanged(new RawMaterialChangedEvent(steelId, "RM001", "Steel", 500));
+        listeners.getAllValues().forEach(listener -> listener.accept(CatalogAggregate.RAW_MATERIALS, 2L));
+        when(catalogVersions.current()).thenReturn(versions(1, 2, 1));
+
+        assertEquals(10, cache.getSuggestions().get(0).maxQuantity());
+        verify(rawMaterialsRepository, times(1)).findAllStock();
+    }
+
+    private static Map<CatalogAggregate, Long> versions(long products, long rawMaterials, long recipes) {
+        return Map.of(CatalogAggregate.PRODUCTS, products,
+                CatalogAggregate.RAW_MATERIALS, rawMaterials,
+                CatalogAggregate.RECIPES, recipes);
+    }
+}
@@ -1,14 +1,19 @@
 package com.diamon.manufacturinginventory.Services;
 
 import com.diamon.manufacturinginventory.DTOs.RawMaterials.RawMaterialsRequest;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.WhereUsedResponse;
+import com.diamon.manufacturinginventory.Entity.CatalogAggregate;
 import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockMovementType;
 import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Repository.ProductRecipeRepository;
 import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -24,7 +29,18 @@ class RawMaterialsServicesTest {
     @Mock
     private RawMaterialsRepository rawMaterialsRepository;
 
-    @InjectMocks
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private RawMaterialsServices rawMaterialsServices;
 
     private RawMaterials rawMaterial;
@@ -33,6 +49,8 @@ class RawMaterialsServicesTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        rawMaterialsServices = new RawMaterialsServices(rawMaterialsRepository, stockMovementRepository, productRecipeRepository,
+                catalogVersions, eventPublisher);
         id = UUID.randomUUID();
         rawMaterial = new RawMaterials(null, "CODE1", "Test Raw Material", 10);
     }
@@ -57,6 +75,7 @@ class RawMaterialsServicesTest {
         RawMaterials saved = rawMaterialsServices.save(request);
         assertNotNull(saved);
         assertEquals(rawMaterial.getCode(), saved.getCode());
+        verify(catalogVersions).changed(CatalogAggregate.RAW_MATERIALS);
     }
 
     @Test
@@ -76,17 +95,38 @@ class RawMaterialsServicesTest {
     @Test
     void update_shouldUpdateRawMaterialWhenFound() {
         RawMaterialsRequest request = new RawMaterialsRequest("CODE2", "Updated Raw Material", 200);
-        when(rawMaterialsRepository.findById(id)).thenReturn(Optional.of(rawMaterial));
+        when(rawMaterialsRepository.findByIdForUpdate(id)).thenReturn(Optional.of(rawMaterial));
         when(rawMaterialsRepository.save(any(RawMaterials.class))).thenReturn(rawMaterial);
         assertDoesNotThrow(() -> rawMaterialsServices.update(id, request));
         verify(rawMaterialsRepository, times(1)).save(any(RawMaterials.class));
+        verify(stockMovementRepository).append(argThat(movements -> movements.size() == 1
+                && movements.iterator().next().getType() == StockMovementType.ADJUSTMENT
+                && movements.iterator().next().getQuantity() == 190));
     }
 
     @Test
     void update_shouldThrowExceptionWhenNotFound() {
         RawMaterialsRequest request = new RawMaterialsRequest("CODE2", "Updated Raw Material", 200);
-        when(rawMaterialsRepository.findById(id)).thenReturn(Optional.empty());
+        when(rawMaterialsRepository.findByIdForUpdate(id)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> rawMaterialsServices.update(id, request));
     }
-}
 
+    @Test
+    void findWhereUsed_shouldReturnTheProductsFromTheReverseIndex() {
+        List<WhereUsedResponse> uses = List.of(
+                new WhereUsedResponse(UUID.randomUUID(), "P001", "Bike", 9, true),
+                new WhereUsedResponse(UUID.randomUUID(), "P002", "Frame", 4, true));
+        when(rawMaterialsRepository.existsById(id)).thenReturn(true);
+        when(productRecipeRepository.findWhereUsed(id)).thenReturn(uses);
+        assertEquals(uses, rawMaterialsServices.findWhereUsed(id));
+        verify(productRecipeRepository, times(1)).findWhereUsed(id);
+        verifyNoMoreInteractions(productRecipeRepository);
+    }
+
+    @Test
+    void findWhereUsed_shouldThrowExceptionWhenNotFound() {
+        when(rawMaterialsRepository.existsById(id)).thenReturn(false);
+        assertThrows(EntityNotFoundException.class, () -> rawMaterialsServices.findWhereUsed(id));
+        verifyNoInteractions(productRecipeRepository);
+    }
+}
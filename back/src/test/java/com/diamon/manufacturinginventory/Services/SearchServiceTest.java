@@ -0,0 +1,73 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.Search.SearchMatch;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResult;
+import com.diamon.manufacturinginventory.DTOs.Search.SearchResultType;
+import com.diamon.manufacturinginventory.Exceptions.InvalidSearchRequestException;
+import com.diamon.manufacturinginventory.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SearchServiceTest {
+
+    @Mock
+    private CatalogSearchIndex searchIndex;
+    @Mock
+    private ProductRepository productRepository;
+
+    private SearchService searchService;
+
+    private final SearchResult steel = new SearchResult(SearchResultType.RAW_MATERIAL, UUID.randomUUID(),
+            "RM001", "Steel", SearchMatch.NAME_PREFIX);
+    private final SearchResult stainless = new SearchResult(SearchResultType.RAW_MATERIAL, UUID.randomUUID(),
+            "RM002", "Stainless steel", SearchMatch.FUZZY);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchService = new SearchService(searchIndex, productRepository);
+    }
+
+    @Test
+    void search_shouldNotQueryTheDatabaseWhenThePrefixesFillThePage() {
+        when(searchIndex.search("steel", 1)).thenReturn(List.of(steel));
+
+        assertEquals(List.of(steel), searchService.search(" steel ", 1));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void search_shouldCompleteThePageWithFuzzyMatchesNotAlreadyListed() {
+        when(searchIndex.search("steel", 20)).thenReturn(List.of(steel));
+        when(productRepository.fuzzySearch("steel", 21)).thenReturn(List.of(
+                new SearchResult(steel.type(), steel.id(), steel.code(), steel.name(), SearchMatch.FUZZY), stainless));
+
+        assertEquals(List.of(steel, stainless), searchService.search("steel", null));
+        verify(productRepository, times(1)).fuzzySearch("steel", 21);
+    }
+
+    @Test
+    void search_shouldSkipTheFuzzyFallbackForShortQueries() {
+        when(searchIndex.search("st", 20)).thenReturn(List.of());
+
+        assertTrue(searchService.search("st", null).isEmpty());
+        verify(productRepository, never()).fuzzySearch(anyString(), anyInt());
+    }
+
+    @Test
+    void search_shouldRejectBlankQueriesAndLimitsOutOfRange() {
+        assertThrows(InvalidSearchRequestException.class, () -> searchService.search("  ", null));
+        assertThrows(InvalidSearchRequestException.class, () -> searchService.search("steel", 0));
+        assertThrows(InvalidSearchRequestException.class, () -> searchService.search("steel", SearchService.MAX_LIMIT + 1));
+        verifyNoInteractions(searchIndex, productRepository);
+    }
+}
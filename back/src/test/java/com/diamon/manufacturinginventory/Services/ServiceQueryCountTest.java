@@ -0,0 +1,158 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeDetailsResponse;
+import com.diamon.manufacturinginventory.DTOs.ProductRecipe.ProductRecipeResponse;
+import com.diamon.manufacturinginventory.ManufacturinginventoryApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements the catalog read paths send to the database, on the real Spring context
+ * over an in-memory H2 database in PostgreSQL mode loaded with a {@link BenchmarkCatalog}. The data
+ * source is wrapped so that every statement is counted, whether Hibernate or a {@code JdbcTemplate}
+ * fragment prepares it; none of the counts may grow with the catalog.
+ */
+class ServiceQueryCountTest {
+
+    private static final int PRODUCTS = 500;
+    private static final AtomicInteger statements = new AtomicInteger();
+
+    private static ConfigurableApplicationContext context;
+    private static BenchmarkCatalog catalog;
+
+    @BeforeAll
+    static void setUp() {
+        context = new SpringApplicationBuilder(ManufacturinginventoryApplication.class, StatementCounter.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:query_count;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--logging.level.root=WARN");
+        catalog = BenchmarkCatalog.generate(PRODUCTS, 42);
+        catalog.insertInto(context.getBean(JdbcTemplate.class));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (context != null) context.close();
+    }
+
+    @Test
+    void lists_shouldUseOneStatementEach() {
+        ProductRecipeService productRecipeService = context.getBean(ProductRecipeService.class);
+
+        assertEquals(1, statementsOf(() -> assertEquals(PRODUCTS, context.getBean(ProductService.class).findAll().size())));
+        assertEquals(1, statementsOf(() -> assertEquals(catalog.stock.size(),
+                context.getBean(RawMaterialsServices.class).findAll().size())));
+        assertEquals(1, statementsOf(() -> assertEquals(catalog.lines.size(), productRecipeService.getAllRecipes().size())));
+
+        UUID recipeId = context.getBean(JdbcTemplate.class).queryForObject("select id from product_recipes limit 1", UUID.class);
+        assertEquals(1, statementsOf(() -> productRecipeService.getRecipeById(recipeId)));
+    }
+
+    @Test
+    void pages_shouldUseOneStatementEach() {
+        assertEquals(1, statementsOf(() -> context.getBean(ProductService.class)
+                .findPage(null, null, null, null, null, KeysetPagination.MAX_LIMIT)));
+        assertEquals(1, statementsOf(() -> context.getBean(RawMaterialsServices.class)
+                .findPage(null, null, null, null, null, null, KeysetPagination.MAX_LIMIT)));
+        assertEquals(1, statementsOf(() -> assertEquals(KeysetPagination.MAX_LIMIT, context.getBean(ProductRecipeService.class)
+                .getRecipePage(null, null, null, null, KeysetPagination.MAX_LIMIT).items().size())));
+    }
+
+    @Test
+    void recipeDetails_shouldReadTheVersionTheLinesAndTheSubAssembliesOnce() {
+        ProductRecipeService productRecipeService = context.getBean(ProductRecipeService.class);
+
+        CatalogVersions.Versioned<List<ProductRecipeResponse>> details =
+                measured(productRecipeService::getAllRecipeDetails, 3);
+        assertEquals(catalog.lines.size(), details.body().size());
+
+        CatalogVersions.Versioned<List<ProductRecipeDetailsResponse>> byProduct =
+                measured(productRecipeService::getRecipeDetailsByProduct, 3);
+        assertEquals(PRODUCTS, byProduct.body().size());
+    }
+
+    @Test
+    void productionSuggestions_shouldLoadOnceAndThenOnlyCheckTheVersions() {
+        ProductRecipeService productRecipeService = context.getBean(ProductRecipeService.class);
+        // as if another node had changed the catalog, so both memos reload whatever ran before
+        context.getBean(JdbcTemplate.class).update("update catalog_versions set version = version + 1");
+
+        // the versions, then each memo's versions and its recipe lines, stock and products
+        assertFalse(measured(productRecipeService::getProductionSuggestions, 6).isEmpty());
+        assertEquals(1, statementsOf(productRecipeService::getProductionSuggestions));
+        assertEquals(1, statementsOf(productRecipeService::getProductionSuggestions));
+    }
+
+    private static <T> T measured(Supplier<T> call, int expectedStatements) {
+        statements.set(0);
+        T result = call.get();
+        assertEquals(expectedStatements, statements.get());
+        return result;
+    }
+
+    private static int statementsOf(Runnable call) {
+        statements.set(0);
+        call.run();
+        return statements.get();
+    }
+
+    /**
+     * Wraps the data source so that every statement prepared or created on its connections is counted.
+     */
+    static class StatementCounter implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) return bean;
+            return Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(dataSource, method, args);
+                        return result instanceof Connection connection ? counting(connection) : result;
+                    });
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+                            statements.incrementAndGet();
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.diamon.manufacturinginventory.Services;
+
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockBalance;
+import com.diamon.manufacturinginventory.DTOs.RawMaterials.StockLevelResponse;
+import com.diamon.manufacturinginventory.Entity.RawMaterials;
+import com.diamon.manufacturinginventory.Entity.StockSnapshot;
+import com.diamon.manufacturinginventory.Exceptions.EntityNotFoundException;
+import com.diamon.manufacturinginventory.Repository.RawMaterialsRepository;
+import com.diamon.manufacturinginventory.Repository.StockMovementRepository;
+import com.diamon.manufacturinginventory.Repository.StockSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockLedgerServiceTest {
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+    @Mock
+    private StockSnapshotRepository stockSnapshotRepository;
+    @Mock
+    private RawMaterialsRepository rawMaterialsRepository;
+
+    private StockLedgerService stockLedgerService;
+    private UUID rawMaterialId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        stockLedgerService = new StockLedgerService(stockMovementRepository, stockSnapshotRepository,
+                rawMaterialsRepository, Duration.ofMinutes(1));
+        rawMaterialId = UUID.randomUUID();
+        when(rawMaterialsRepository.findById(rawMaterialId))
+                .thenReturn(Optional.of(new RawMaterials(rawMaterialId, "RM001", "Steel", 70)));
+        when(stockSnapshotRepository.tryLockSnapshots()).thenReturn(true);
+    }
+
+    @Test
+    void stockAsOf_shouldAddMovementsSinceTheNearestSnapshot() {
+        Instant asOf = Instant.parse("2026-03-01T12:00:00Z");
+        Instant takenAt = Instant.parse("2026-03-01T00:00:00Z");
+        when(stockSnapshotRepository.findFirstByRawMaterialIdAndTakenAtLessThanEqualOrderByTakenAtDesc(rawMaterialId, asOf))
+                .thenReturn(Optional.of(new StockSnapshot(UUID.randomUUID(), rawMaterialId, 120, takenAt)));
+        when(stockMovementRepository.sumBetween(rawMaterialId, takenAt, asOf)).thenReturn(-30L);
+
+        StockLevelResponse level = stockLedgerService.stockAsOf(rawMaterialId, asOf);
+
+        assertEquals(90, level.stockQuantity());
+        verify(stockMovementRepository, never()).sumAfter(any(), any());
+    }
+
+    @Test
+    void stockAsOf_shouldWalkBackFromTheCurrentStockWithoutASnapshot() {
+        Instant asOf = Instant.parse("2026-03-01T12:00:00Z");
+        when(stockSnapshotRepository.findFirstByRawMaterialIdAndTakenAtLessThanEqualOrderByTakenAtDesc(rawMaterialId, asOf))
+                .thenReturn(Optional.empty());
+        when(stockMovementRepository.sumAfter(rawMaterialId, asOf)).thenReturn(-50L);
+
+        StockLevelResponse level = stockLedgerService.stockAsOf(rawMaterialId, asOf);
+
+        assertEquals(120, level.stockQuantity());
+    }
+
+    @Test
+    void stockAsOf_shouldThrowWhenTheRawMaterialDoesNotExist() {
+        UUID unknown = UUID.randomUUID();
+        when(rawMaterialsRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> stockLedgerService.stockAsOf(unknown, Instant.now()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void takeSnapshots_shouldSnapshotEveryMaterialOnTheFirstRun() {
+        when(stockSnapshotRepository.findLatestTakenAt()).thenReturn(Optional.empty());
+        when(stockSnapshotRepository.findAllBalancesAt(any())).thenReturn(List.of(new StockBalance(rawMaterialId, 70)));
+
+        assertEquals(1, stockLedgerService.takeSnapshots());
+
+        ArgumentCaptor<List<StockSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stockSnapshotRepository).saveAll(saved.capture());
+        assertEquals(70, saved.getValue().get(0).getBalance());
+        assertTrue(saved.getValue().get(0).getTakenAt().isBefore(Instant.now().minusSeconds(59)));
+        verify(stockSnapshotRepository, never()).findBalancesAtMovedSince(any(), any());
+    }
+
+    @Test
+    void takeSnapshots_shouldOnlyFoldMaterialsThatMovedSinceThePreviousRun() {
+        Instant previous = Instant.now().minus(Duration.ofMinutes(30));
+        when(stockSnapshotRepository.findLatestTakenAt()).thenReturn(Optional.of(previous));
+        when(stockSnapshotRepository.findBalancesAtMovedSince(eq(previous), any())).thenReturn(List.of());
+
+        assertEquals(0, stockLedgerService.takeSnapshots());
+
+        verify(stockSnapshotRepository, never()).findAllBalancesAt(any());
+    }
+
+    @Test
+    void takeSnapshots_shouldSkipWhenThePreviousCutoffIsNotYetSettled() {
+        when(stockSnapshotRepository.findLatestTakenAt()).thenReturn(Optional.of(Instant.now()));
+
+        assertEquals(0, stockLedgerService.takeSnapshots());
+
+        verify(stockSnapshotRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void takeSnapshots_shouldSkipWhileAnotherNodeIsTakingThem() {
+        when(stockSnapshotRepository.tryLockSnapshots()).thenReturn(false);
+
+        assertEquals(0, stockLedgerService.takeSnapshots());
+
+        verify(stockSnapshotRepository, never()).findLatestTakenAt();
+        verify(stockSnapshotRepository, never()).saveAll(any());
+    }
+}
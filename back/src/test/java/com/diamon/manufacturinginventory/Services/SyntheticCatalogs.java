@@ -0,0 +1,40 @@
+package com.diamon.manufacturinginventory.Services;
+
+import java.util.Random;
+
+final class SyntheticCatalogs {
+
+    private SyntheticCatalogs() {
+    }
+
+    /**
+     * Random production-mix problem where every product uses between one and
+     * {@code min(5, materials)} distinct raw materials.
+     */
+    static ProductionPlanSolver.Problem random(Random random, int products, int materials, int maxStock, int maxRequired) {
+        double[] prices = new double[products];
+        int[][] used = new int[products][];
+        long[][] required = new long[products][];
+        long[] capacities = new long[materials];
+        for (int i = 0; i < materials; i++) {
+            capacities[i] = random.nextInt(maxStock + 1);
+        }
+        for (int j = 0; j < products; j++) {
+            prices[j] = 1 + random.nextInt(500);
+            int lines = 1 + random.nextInt(Math.min(5, materials));
+            used[j] = new int[lines];
+            required[j] = new long[lines];
+            boolean[] taken = new boolean[materials];
+            for (int k = 0; k < lines; k++) {
+                int material;
+                do {
+                    material = random.nextInt(materials);
+                } while (taken[material]);
+                taken[material] = true;
+                used[j][k] = material;
+                required[j][k] = 1 + random.nextInt(maxRequired);
+            }
+        }
+        return new ProductionPlanSolver.Problem(prices, used, required, capacities);
+    }
+}
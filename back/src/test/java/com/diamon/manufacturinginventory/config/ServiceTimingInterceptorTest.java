@@ -0,0 +1,56 @@
+package com.diamon.manufacturinginventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceTimingInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+    private Catalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new Catalog());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new ServiceTimingInterceptor(
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class)));
+        catalog = (Catalog) proxyFactory.getProxy();
+    }
+
+    @Test
+    void invoke_shouldRecordEveryCallOnOneTimerPerMethodAndOutcome() {
+        catalog.find("P001");
+        catalog.find("P002");
+        assertThrows(IllegalStateException.class, () -> catalog.find(null));
+
+        Timer success = meterRegistry.get(ServiceTimingInterceptor.TIMER_NAME)
+                .tags("class", "Catalog", "method", "find", "outcome", "success").timer();
+        Timer error = meterRegistry.get(ServiceTimingInterceptor.TIMER_NAME)
+                .tags("class", "Catalog", "method", "find", "outcome", "error").timer();
+        assertEquals(2, success.count());
+        assertEquals(1, error.count());
+        assertEquals(2, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    void invoke_shouldReturnTheTargetResult() {
+        assertEquals("product P001", catalog.find("P001"));
+    }
+
+    static class Catalog {
+        public String find(String code) {
+            if (code == null) throw new IllegalStateException("no code");
+            return "product " + code;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.diamon.manufacturinginventory.config;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SyntheticDataGeneratorTest {
+
+    private static SyntheticDataGenerator generator(long seed) {
+        return new SyntheticDataGenerator(null, null, 10_000, 2_000, 50_000, seed, 1, 500, 1.1, 0.1);
+    }
+
+    @Test
+    void rows_shouldOnlyDependOnTheSeedAndTheIndex() {
+        SyntheticDataGenerator first = generator(42);
+        SyntheticDataGenerator second = generator(42);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.rawMaterialRow(i), second.rawMaterialRow(i));
+            assertEquals(first.productRow(i), second.productRow(i));
+            assertEquals(first.recipeRows(i), second.recipeRows(i));
+        }
+        assertNotEquals(first.recipeRows(7), generator(43).recipeRows(7));
+    }
+
+    @Test
+    void ids_shouldBeTimeOrderedVersion7AndDistinctPerKind() {
+        SyntheticDataGenerator generator = generator(42);
+
+        assertEquals(7, generator.id(1, 0).version());
+        assertEquals(2, generator.id(1, 0).variant());
+        assertTrue(generator.id(1, 0).compareTo(generator.id(1, 1)) < 0);
+        assertNotEquals(generator.id(1, 5), generator.id(2, 5));
+        assertTrue(generator.productRow(3).startsWith(generator.id(2, 3) + "\tP0000003\tProduct 3\t"));
+    }
+
+    @Test
+    void recipeLines_shouldUseDistinctMaterialsAndOnlyEarlierProducts() {
+        SyntheticDataGenerator generator = generator(42);
+        long lines = 0;
+        int subAssemblies = 0;
+
+        for (int product = 0; product < 2_000; product++) {
+            Set<Integer> materials = new HashSet<>();
+            List<SyntheticDataGenerator.RecipeLine> recipe = generator.recipeLines(product);
+            assertFalse(recipe.isEmpty());
+            for (SyntheticDataGenerator.RecipeLine line : recipe) {
+                assertTrue(line.quantity() > 0);
+                if (line.componentProduct() >= 0) {
+                    assertTrue(line.componentProduct() < product);
+                    assertEquals(-1, line.rawMaterial());
+                    subAssemblies++;
+                } else {
+                    assertTrue(materials.add(line.rawMaterial()));
+                }
+            }
+            lines += recipe.size();
+        }
+
+        // 25 lines per product on average, one product in ten with a sub-assembly
+        assertEquals(25.0, lines / 2_000.0, 2.0);
+        assertEquals(200, subAssemblies, 60);
+    }
+
+    @Test
+    void sampleMaterial_shouldFavourTheFirstRanks() {
+        SyntheticDataGenerator generator = generator(42);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] uses = new int[10_000];
+
+        for (int i = 0; i < 100_000; i++) {
+            uses[generator.sampleMaterial(random)]++;
+        }
+
+        int head = 0;
+        for (int i = 0; i < 100; i++) head += uses[i];
+        // with an exponent of 1.1 the top one percent of the materials gets about half of the picks
+        assertTrue(head > 40_000, "head=" + head);
+        assertTrue(uses[0] > 10 * uses[99]);
+    }
+
+    @Test
+    void copyIn_shouldStreamTheRowsWhileTheyAreGenerated() throws Exception {
+        SyntheticDataGenerator generator = generator(42);
+        CopyIn copy = copyIn();
+        AtomicLong written = new AtomicLong();
+        doAnswer(invocation -> {
+            written.addAndGet(invocation.<Integer>getArgument(2));
+            return null;
+        }).when(copy).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copy.getHandledRowCount()).thenReturn(20_000L);
+
+        long rows = SyntheticDataGenerator.copyIn(connection(copy), "COPY", 0, 20_000, generator::rawMaterialRow);
+
+        long expected = 0;
+        for (int i = 0; i < 20_000; i++) {
+            expected += generator.rawMaterialRow(i).getBytes(StandardCharsets.UTF_8).length;
+        }
+        assertEquals(20_000, rows);
+        assertEquals(expected, written.get());
+        // the chunk is several times the driver's buffer, so it went out in pieces
+        verify(copy, atLeast(5)).writeToCopy(any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void copyIn_shouldCancelTheCopyWhenARowFails() throws Exception {
+        SyntheticDataGenerator generator = generator(42);
+        CopyIn copy = copyIn();
+
+        assertThrows(IllegalStateException.class, () -> SyntheticDataGenerator.copyIn(connection(copy), "COPY", 0, 10, i -> {
+            if (i == 3) throw new IllegalStateException("row 3");
+            return generator.rawMaterialRow(i);
+        }));
+
+        verify(copy).cancelCopy();
+        verify(copy, never()).endCopy();
+    }
+
+    private static CopyIn copyIn() {
+        CopyIn copy = mock(CopyIn.class);
+        when(copy.isActive()).thenReturn(true);
+        return copy;
+    }
+
+    private static Connection connection(CopyIn copy) throws SQLException {
+        CopyManager copyManager = mock(CopyManager.class);
+        when(copyManager.copyIn("COPY")).thenReturn(copy);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        Connection connection = mock(Connection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        return connection;
+    }
+}